@@ -1,7 +1,13 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import components.naturalnumber.NaturalNumber;
 import components.naturalnumber.NaturalNumber2;
-import components.random.Random;
-import components.random.Random1L;
 import components.simplereader.SimpleReader;
 import components.simplereader.SimpleReader1L;
 import components.simplewriter.SimpleWriter;
@@ -27,9 +33,1141 @@ public final class CryptoUtilities {
     private static final int THREE = 3;
 
     /**
-     * Pseudo-random number generator.
+     * Pseudo-random number generator. It is not thread-safe, so each use
+     * splits off a generator of its own (see {@code generator}).
+     */
+    private static final SplittableRandom GENERATOR = new SplittableRandom();
+
+    /**
+     * Number of bits in a {@code long}.
+     */
+    private static final int LONG_BITS = Long.SIZE;
+
+    /**
+     * Number of bits in a byte.
+     */
+    private static final int BYTE_BITS = Byte.SIZE;
+
+    /**
+     * Bases with which the strong pseudoprime test is deterministic below
+     * {@code DETERMINISTIC_LIMIT}: the first 13 primes (Sorenson and Webster,
+     * "Strong pseudoprimes to twelve prime bases", 2017).
+     */
+    private static final int[] DETERMINISTIC_BASES = { 2, 3, 5, 7, 11, 13, 17,
+        19, 23, 29, 31, 37, 41 };
+
+    /**
+     * The smallest strong pseudoprime to all of {@code DETERMINISTIC_BASES}.
+     */
+    private static final BigInteger DETERMINISTIC_LIMIT = new BigInteger(
+            "3317044064679887385961981");
+
+    /**
+     * Default number of random bases for the strong pseudoprime test at or
+     * above {@code DETERMINISTIC_LIMIT}; each one lets a composite number
+     * through with probability at most 1/4.
+     */
+    private static final int MILLER_RABIN_ROUNDS = 40;
+
+    /**
+     * Number of random witnesses {@code isPrime2Parallel} tries.
+     */
+    private static final int PARALLEL_WITNESS_ROUNDS = 50;
+
+    /**
+     * Bound on the primes used to sieve the candidates of
+     * {@code generateNextLikelyPrime}.
+     */
+    private static final int SIEVE_PRIME_LIMIT = 1 << 16;
+
+    /**
+     * Number of odd candidates {@code generateNextLikelyPrime} sieves at a
+     * time.
+     */
+    private static final int SIEVE_WINDOW = 1 << 12;
+
+    /**
+     * The odd primes less than {@code SIEVE_PRIME_LIMIT}.
+     */
+    private static final int[] SIEVE_PRIMES = oddPrimesBelow(
+            SIEVE_PRIME_LIMIT);
+
+    /**
+     * Temporaries for the modular arithmetic of the primality tests, kept
+     * from one step to the next so the tests create (almost) no garbage.
      */
-    private static final Random GENERATOR = new Random1L();
+    private static final class Scratch {
+
+        /**
+         * Buffers for the arithmetic.
+         */
+        private final NaturalNumber4.Workspace workspace;
+
+        /**
+         * Power being computed by {@code isWitnessToCompositeness}.
+         */
+        private final NaturalNumber4 power;
+
+        /**
+         * Base of the power being computed by {@code powerMod}.
+         */
+        private final NaturalNumber4 base;
+
+        /**
+         * The constant 1.
+         */
+        private final NaturalNumber4 one;
+
+        /**
+         * Modulus of {@code montgomery}, or null if there is none yet.
+         */
+        private NaturalNumber4 montgomeryModulus;
+
+        /**
+         * Montgomery engine for the modulus last used with an odd modulus.
+         */
+        private Montgomery montgomery;
+
+        /**
+         * No-argument constructor.
+         */
+        private Scratch() {
+            this.workspace = new NaturalNumber4.Workspace();
+            this.power = new NaturalNumber4();
+            this.base = new NaturalNumber4();
+            this.one = new NaturalNumber4(1);
+            this.montgomeryModulus = null;
+            this.montgomery = null;
+        }
+
+        /**
+         * Returns a Montgomery engine for {@code m}, reusing the last one if
+         * it is for the same modulus.
+         *
+         * @param m
+         *            the modulus
+         * @return the engine
+         * @updates this
+         * @requires m > 1 and [m is odd]
+         */
+        private Montgomery montgomery(NaturalNumber4 m) {
+            if (this.montgomeryModulus == null
+                    || this.montgomeryModulus.compareTo(m) != 0) {
+                this.montgomeryModulus = new NaturalNumber4(m);
+                this.montgomery = new Montgomery(m.toBigInteger());
+            }
+            return this.montgomery;
+        }
+
+    }
+
+    /**
+     * Modular exponentiation engine for one odd modulus, in Montgomery form:
+     * numbers are kept as x * R mod m, with R = 2^(32 k) for a k-word
+     * modulus, so that each product is reduced by word-level shifts (CIOS:
+     * Koc, Acar, and Kaliski, "Analyzing and Comparing Montgomery
+     * Multiplication Algorithms", 1996) rather than by division. Numbers are
+     * arrays of k 32-bit words, least significant first.
+     */
+    private static final class Montgomery {
+
+        /**
+         * Mask for the low 32 bits of a {@code long}.
+         */
+        private static final long MASK = 0xFFFFFFFFL;
+
+        /**
+         * Number of bits in a word.
+         */
+        private static final int WORD_BITS = 32;
+
+        /**
+         * Exponent bit lengths from which each bigger window size pays off
+         * (window size i + 2 from WINDOW_THRESHOLDS[i] bits).
+         */
+        private static final int[] WINDOW_THRESHOLDS = { 24, 80, 240, 672,
+            1792 };
+
+        /**
+         * The modulus.
+         */
+        private final BigInteger modulus;
+
+        /**
+         * Words of the modulus.
+         */
+        private final int[] m;
+
+        /**
+         * -m^(-1) mod 2^32.
+         */
+        private final int mPrime;
+
+        /**
+         * R^2 mod m, in words, for converting into Montgomery form.
+         */
+        private final int[] rSquared;
+
+        /**
+         * R mod m, that is, 1 in Montgomery form.
+         */
+        private final int[] one;
+
+        /**
+         * m - (R mod m), that is, m - 1 in Montgomery form.
+         */
+        private final int[] minusOne;
+
+        /**
+         * Buffer for the running sum of CIOS (k + 2 words).
+         */
+        private final int[] t;
+
+        /**
+         * Constructor.
+         *
+         * @param modulus
+         *            the modulus
+         * @requires modulus > 1 and [modulus is odd]
+         */
+        private Montgomery(BigInteger modulus) {
+            this.modulus = modulus;
+            int k = (modulus.bitLength() + WORD_BITS - 1) / WORD_BITS;
+            this.m = toWords(modulus, k);
+            /*
+             * Newton's iteration for the inverse of m[0] mod 2^32: starting
+             * from m[0] (correct mod 2^3, since m[0] is odd), each step
+             * doubles the number of correct bits.
+             */
+            final int steps = 4;
+            int inverse = this.m[0];
+            for (int i = 0; i < steps; i++) {
+                inverse *= 2 - this.m[0] * inverse;
+            }
+            this.mPrime = -inverse;
+            this.rSquared = toWords(
+                    BigInteger.ONE.shiftLeft(2 * WORD_BITS * k).mod(modulus),
+                    k);
+            BigInteger r = BigInteger.ONE.shiftLeft(WORD_BITS * k).mod(modulus);
+            this.one = toWords(r, k);
+            this.minusOne = toWords(modulus.subtract(r), k);
+            this.t = new int[k + 2];
+        }
+
+        /**
+         * Returns the k least significant words of {@code x}.
+         *
+         * @param x
+         *            the number
+         * @param k
+         *            the number of words
+         * @return the words, least significant first
+         * @requires x >= 0
+         */
+        private static int[] toWords(BigInteger x, int k) {
+            byte[] bytes = x.toByteArray();
+            int[] words = new int[k];
+            for (int i = 0; i < bytes.length && i / Integer.BYTES < k; i++) {
+                int b = Byte.toUnsignedInt(bytes[bytes.length - 1 - i]);
+                words[i / Integer.BYTES] |= b << (Byte.SIZE
+                        * (i % Integer.BYTES));
+            }
+            return words;
+        }
+
+        /**
+         * Returns the value of {@code words}.
+         *
+         * @param words
+         *            the words, least significant first
+         * @return the value
+         */
+        private static BigInteger fromWords(int[] words) {
+            byte[] bytes = new byte[words.length * Integer.BYTES];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[bytes.length - 1 - i] = (byte) (words[i / Integer.BYTES]
+                        >>> (Byte.SIZE * (i % Integer.BYTES)));
+            }
+            return new BigInteger(1, bytes);
+        }
+
+        /**
+         * Sets {@code result} to a * b * R^(-1) mod m, by CIOS.
+         *
+         * @param a
+         *            one factor, in Montgomery form
+         * @param b
+         *            the other factor, in Montgomery form
+         * @param result
+         *            the destination (may be a or b)
+         * @updates result
+         * @requires a < m and b < m
+         * @ensures result = a * b * R^(-1) mod m
+         */
+        private void multiply(int[] a, int[] b, int[] result) {
+            int[] mm = this.m;
+            int[] s = this.t;
+            int k = mm.length;
+            for (int j = 0; j < k + 2; j++) {
+                s[j] = 0;
+            }
+            for (int i = 0; i < k; i++) {
+                // s += a * b[i]
+                long bi = b[i] & MASK;
+                long c = 0;
+                for (int j = 0; j < k; j++) {
+                    long v = (s[j] & MASK) + (a[j] & MASK) * bi + c;
+                    s[j] = (int) v;
+                    c = v >>> WORD_BITS;
+                }
+                long v = (s[k] & MASK) + c;
+                s[k] = (int) v;
+                s[k + 1] = (int) (v >>> WORD_BITS);
+                // s = (s + q * m) / 2^32, with q making the division exact
+                long q = (s[0] * this.mPrime) & MASK;
+                v = (s[0] & MASK) + q * (mm[0] & MASK);
+                c = v >>> WORD_BITS;
+                for (int j = 1; j < k; j++) {
+                    v = (s[j] & MASK) + q * (mm[j] & MASK) + c;
+                    s[j - 1] = (int) v;
+                    c = v >>> WORD_BITS;
+                }
+                v = (s[k] & MASK) + c;
+                s[k - 1] = (int) v;
+                s[k] = s[k + 1] + (int) (v >>> WORD_BITS);
+            }
+            // Now s < 2m: subtract m once if s >= m.
+            boolean subtract = s[k] != 0;
+            if (!subtract) {
+                int j = k - 1;
+                while (j > 0 && s[j] == mm[j]) {
+                    j--;
+                }
+                subtract = Integer.compareUnsigned(s[j], mm[j]) >= 0;
+            }
+            if (subtract) {
+                long borrow = 0;
+                for (int j = 0; j < k; j++) {
+                    long v = (s[j] & MASK) - (mm[j] & MASK) - borrow;
+                    s[j] = (int) v;
+                    borrow = (v >>> (2 * WORD_BITS - 1));
+                }
+            }
+            System.arraycopy(s, 0, result, 0, k);
+        }
+
+        /**
+         * Sets {@code result} to base^p mod m in Montgomery form, by
+         * left-to-right sliding-window exponentiation.
+         *
+         * @param base
+         *            the base
+         * @param p
+         *            the exponent
+         * @param result
+         *            the destination
+         * @updates result
+         * @requires base >= 0 and p >= 0 and |result| = k
+         * @ensures result = base^p * R mod m
+         */
+        private void powerInto(BigInteger base, BigInteger p, int[] result) {
+            int k = this.m.length;
+            int bits = p.bitLength();
+            int window = 1;
+            while (window <= WINDOW_THRESHOLDS.length
+                    && bits > WINDOW_THRESHOLDS[window - 1]) {
+                window++;
+            }
+            // table[i] = base^(2i + 1), in Montgomery form.
+            int[][] table = new int[1 << (window - 1)][k];
+            this.multiply(toWords(base.mod(this.modulus), k), this.rSquared,
+                    table[0]);
+            int[] square = new int[k];
+            this.multiply(table[0], table[0], square);
+            for (int i = 1; i < table.length; i++) {
+                this.multiply(table[i - 1], square, table[i]);
+            }
+            System.arraycopy(this.one, 0, result, 0, k);
+            boolean started = false;
+            int i = bits - 1;
+            while (i >= 0) {
+                if (!p.testBit(i)) {
+                    if (started) {
+                        this.multiply(result, result, result);
+                    }
+                    i--;
+                } else {
+                    // The longest window ending in a 1 bit, from bit i down.
+                    int low = Math.max(i - window + 1, 0);
+                    while (!p.testBit(low)) {
+                        low++;
+                    }
+                    int value = 0;
+                    for (int j = i; j >= low; j--) {
+                        if (started) {
+                            this.multiply(result, result, result);
+                        }
+                        value = 2 * value + (p.testBit(j) ? 1 : 0);
+                    }
+                    if (started) {
+                        this.multiply(result, table[value / 2], result);
+                    } else {
+                        System.arraycopy(table[value / 2], 0, result, 0, k);
+                        started = true;
+                    }
+                    i = low - 1;
+                }
+            }
+        }
+
+        /**
+         * Returns base^p mod m.
+         *
+         * @param base
+         *            the base
+         * @param p
+         *            the exponent
+         * @return base^p mod m
+         * @requires base >= 0 and p >= 0
+         */
+        private BigInteger power(BigInteger base, BigInteger p) {
+            int k = this.m.length;
+            int[] result = new int[k];
+            this.powerInto(base, p, result);
+            // Out of Montgomery form: multiply by 1.
+            int[] unit = new int[k];
+            unit[0] = 1;
+            this.multiply(result, unit, result);
+            return fromWords(result);
+        }
+
+        /**
+         * Reports whether a is a witness, by the strong pseudoprime test, that
+         * m is composite: with m - 1 = 2^s * d and d odd, whether a^d mod m
+         * /= 1 and a^(2^r * d) mod m /= m - 1 for every 0 <= r < s.
+         *
+         * @param a
+         *            witness candidate
+         * @param d
+         *            the odd part of m - 1
+         * @param s
+         *            the number of factors 2 in m - 1
+         * @return true iff a is a strong witness that m is composite
+         * @requires 1 < a < m - 1 and m - 1 = 2^s * d and [d is odd]
+         */
+        private boolean isStrongWitness(BigInteger a, BigInteger d, int s) {
+            int[] x = new int[this.m.length];
+            this.powerInto(a, d, x);
+            boolean witness = !Arrays.equals(x, this.one)
+                    && !Arrays.equals(x, this.minusOne);
+            int r = 1;
+            while (witness && r < s) {
+                this.multiply(x, x, x);
+                witness = !Arrays.equals(x, this.minusOne);
+                r++;
+            }
+            return witness;
+        }
+
+    }
+
+    /**
+     * Greatest common divisor engine, working in place on two numbers a >= b
+     * kept as arrays of 32-bit words, least significant first. While the
+     * numbers are long it uses Lehmer's algorithm (Knuth, TAOCP vol. 2,
+     * 4.5.2, Algorithm L): Euclid's algorithm runs on the leading 62 bits in
+     * single precision for as long as its quotients are sure to be those of
+     * the whole numbers, and then all of those steps are applied to the whole
+     * numbers at once, as a 2 x 2 matrix of cofactors. Once the numbers are
+     * short it finishes with binary GCD. It can also keep track of a cofactor
+     * for the extended GCD.
+     */
+    private static final class Gcd {
+
+        /**
+         * Number of words above which Lehmer's algorithm pays off over binary
+         * GCD (binary GCD only wins once a fits in a {@code long}).
+         */
+        private static final int LEHMER_THRESHOLD = 2;
+
+        /**
+         * Number of leading bits Lehmer's algorithm works on.
+         */
+        private static final int LEADING_BITS = 62;
+
+        /**
+         * Bound on the cofactors of a Lehmer step, so that each product of a
+         * cofactor and a word fits in a {@code long} with room for a carry.
+         */
+        private static final long COFACTOR_LIMIT = 1L << 30;
+
+        /**
+         * Mask for the low 32 bits of a {@code long}.
+         */
+        private static final long MASK = 0xFFFFFFFFL;
+
+        /**
+         * Number of bits in a word.
+         */
+        private static final int WORD_BITS = 32;
+
+        /**
+         * Words of the larger number; the words past aLength are 0.
+         */
+        private int[] a;
+
+        /**
+         * Number of significant words of a.
+         */
+        private int aLength;
+
+        /**
+         * Words of the smaller number; the words past bLength are 0.
+         */
+        private int[] b;
+
+        /**
+         * Number of significant words of b.
+         */
+        private int bLength;
+
+        /**
+         * A number s with a = s * x (mod y), or null if not tracked.
+         */
+        private BigInteger aCofactor;
+
+        /**
+         * A number s with b = s * x (mod y), or null if not tracked.
+         */
+        private BigInteger bCofactor;
+
+        /**
+         * Constructor.
+         *
+         * @param x
+         *            one number
+         * @param y
+         *            the other number
+         * @param extended
+         *            whether to keep track of the cofactors of x mod y
+         * @requires x >= 0 and y >= 0
+         */
+        private Gcd(BigInteger x, BigInteger y, boolean extended) {
+            int k = Math.max(1, (Math.max(x.bitLength(), y.bitLength())
+                    + WORD_BITS - 1) / WORD_BITS);
+            this.a = new int[k];
+            this.b = new int[k];
+            boolean swap = x.compareTo(y) < 0;
+            this.aLength = set(this.a, swap ? y : x);
+            this.bLength = set(this.b, swap ? x : y);
+            if (extended) {
+                this.aCofactor = swap ? BigInteger.ZERO : BigInteger.ONE;
+                this.bCofactor = swap ? BigInteger.ONE : BigInteger.ZERO;
+            }
+        }
+
+        /**
+         * Replaces the words of {@code dest} by those of {@code x}.
+         *
+         * @param dest
+         *            the destination
+         * @param x
+         *            the number
+         * @return the number of significant words of x
+         * @replaces dest
+         * @requires 0 <= x < 2^(32 |dest|)
+         */
+        private static int set(int[] dest, BigInteger x) {
+            int[] words = Montgomery.toWords(x, dest.length);
+            System.arraycopy(words, 0, dest, 0, dest.length);
+            return length(dest, dest.length);
+        }
+
+        /**
+         * Returns the number of significant words among the first
+         * {@code length} of {@code x}.
+         *
+         * @param x
+         *            the words
+         * @param length
+         *            the number of words to look at
+         * @return the number of significant words
+         */
+        private static int length(int[] x, int length) {
+            int n = length;
+            while (n > 0 && x[n - 1] == 0) {
+                n--;
+            }
+            return n;
+        }
+
+        /**
+         * Returns the value of the first {@code length} words of {@code x}.
+         *
+         * @param x
+         *            the words
+         * @param length
+         *            the number of words
+         * @return the value
+         */
+        private static BigInteger value(int[] x, int length) {
+            return Montgomery.fromWords(Arrays.copyOf(x, length));
+        }
+
+        /**
+         * Returns the 62 bits of {@code x} from bit {@code shift} up.
+         *
+         * @param x
+         *            the words
+         * @param length
+         *            the number of significant words
+         * @param shift
+         *            the position of the lowest bit wanted
+         * @return the bits
+         * @requires x < 2^(shift + 62)
+         */
+        private static long bits(int[] x, int length, int shift) {
+            int w = shift / WORD_BITS;
+            int s = shift % WORD_BITS;
+            long low = 0;
+            long high = 0;
+            if (w < length) {
+                low = x[w] & MASK;
+            }
+            if (w + 1 < length) {
+                low |= (x[w + 1] & MASK) << WORD_BITS;
+            }
+            if (w + 2 < length) {
+                high = x[w + 2] & MASK;
+            }
+            long result = low >>> s;
+            if (s > 0) {
+                result |= high << (Long.SIZE - s);
+            }
+            return result;
+        }
+
+        /**
+         * Returns the number of trailing 0 bits of {@code x}.
+         *
+         * @param x
+         *            the words
+         * @return the number of trailing 0 bits
+         * @requires x > 0
+         */
+        private static int trailingZeros(int[] x) {
+            int w = 0;
+            while (x[w] == 0) {
+                w++;
+            }
+            return w * WORD_BITS + Integer.numberOfTrailingZeros(x[w]);
+        }
+
+        /**
+         * Shifts {@code x} right by {@code shift} bits.
+         *
+         * @param x
+         *            the words
+         * @param length
+         *            the number of significant words
+         * @param shift
+         *            the number of bits
+         * @return the new number of significant words
+         * @updates x
+         * @requires shift >= 0
+         */
+        private static int shiftRight(int[] x, int length, int shift) {
+            int w = shift / WORD_BITS;
+            int s = shift % WORD_BITS;
+            int n = Math.max(0, length - w);
+            for (int i = 0; i < n; i++) {
+                long word = (x[i + w] & MASK) >>> s;
+                if (s > 0 && i + w + 1 < length) {
+                    word |= (x[i + w + 1] & MASK) << (WORD_BITS - s);
+                }
+                x[i] = (int) word;
+            }
+            Arrays.fill(x, n, length, 0);
+            return length(x, n);
+        }
+
+        /**
+         * Shifts {@code x} left by {@code shift} bits.
+         *
+         * @param x
+         *            the words
+         * @param length
+         *            the number of significant words
+         * @param shift
+         *            the number of bits
+         * @return the new number of significant words
+         * @updates x
+         * @requires shift >= 0 and x * 2^shift < 2^(32 |x|)
+         */
+        private static int shiftLeft(int[] x, int length, int shift) {
+            int w = shift / WORD_BITS;
+            int s = shift % WORD_BITS;
+            int n = Math.min(x.length, length + w + 1);
+            for (int i = n - 1; i >= w; i--) {
+                long word = 0;
+                if (i - w < length) {
+                    word = (x[i - w] & MASK) << s;
+                }
+                if (s > 0 && i - w - 1 >= 0 && i - w - 1 < length) {
+                    word |= (x[i - w - 1] & MASK) >>> (WORD_BITS - s);
+                }
+                x[i] = (int) word;
+            }
+            Arrays.fill(x, 0, Math.min(w, n), 0);
+            return length(x, n);
+        }
+
+        /**
+         * Compares {@code x} and {@code y}.
+         *
+         * @param x
+         *            the words of one number
+         * @param xLength
+         *            the number of significant words of x
+         * @param y
+         *            the words of the other number
+         * @param yLength
+         *            the number of significant words of y
+         * @return negative, zero, or positive as x <, =, or > y
+         */
+        private static int compare(int[] x, int xLength, int[] y,
+                int yLength) {
+            int result = Integer.compare(xLength, yLength);
+            int i = xLength - 1;
+            while (result == 0 && i >= 0) {
+                result = Integer.compareUnsigned(x[i], y[i]);
+                i--;
+            }
+            return result;
+        }
+
+        /**
+         * Subtracts {@code y} from {@code x}.
+         *
+         * @param x
+         *            the words of the minuend
+         * @param xLength
+         *            the number of significant words of x
+         * @param y
+         *            the words of the subtrahend
+         * @param yLength
+         *            the number of significant words of y
+         * @return the new number of significant words of x
+         * @updates x
+         * @requires x >= y
+         */
+        private static int subtract(int[] x, int xLength, int[] y,
+                int yLength) {
+            long borrow = 0;
+            for (int i = 0; i < xLength; i++) {
+                long d = (x[i] & MASK) - borrow;
+                if (i < yLength) {
+                    d -= y[i] & MASK;
+                }
+                x[i] = (int) d;
+                borrow = (d >> WORD_BITS) & 1;
+            }
+            return length(x, xLength);
+        }
+
+        /**
+         * Exchanges a and b.
+         */
+        private void swap() {
+            int[] words = this.a;
+            this.a = this.b;
+            this.b = words;
+            int length = this.aLength;
+            this.aLength = this.bLength;
+            this.bLength = length;
+            BigInteger cofactor = this.aCofactor;
+            this.aCofactor = this.bCofactor;
+            this.bCofactor = cofactor;
+        }
+
+        /**
+         * Reduces a and b to their greatest common divisor (in a) and 0 (in
+         * b), keeping track of the cofactors if asked to.
+         */
+        private void run() {
+            while (this.bLength > 0 && (this.aCofactor != null
+                    || this.aLength > LEHMER_THRESHOLD)) {
+                this.lehmerStep();
+            }
+            if (this.bLength > 0) {
+                this.binary();
+            }
+        }
+
+        /**
+         * Takes as many steps of Euclid's algorithm as the leading bits of a
+         * and b determine, or one full division step if they determine none.
+         */
+        private void lehmerStep() {
+            int bitLength = (this.aLength - 1) * WORD_BITS + Integer.SIZE
+                    - Integer.numberOfLeadingZeros(this.a[this.aLength - 1]);
+            int shift = Math.max(0, bitLength - LEADING_BITS);
+            long aHat = bits(this.a, this.aLength, shift);
+            long bHat = bits(this.b, this.bLength, shift);
+
+            // Euclid's algorithm on aHat and bHat (Algorithm L, step L2).
+            long p = 1;
+            long q = 0;
+            long r = 0;
+            long s = 1;
+            boolean sure = true;
+            while (sure) {
+                long denominator1 = bHat + r;
+                long denominator2 = bHat + s;
+                sure = denominator1 > 0 && denominator2 > 0;
+                if (sure) {
+                    long quotient = (aHat + p) / denominator1;
+                    sure = quotient == (aHat + q) / denominator2
+                            && quotient < COFACTOR_LIMIT;
+                    if (sure) {
+                        long nextR = p - quotient * r;
+                        long nextS = q - quotient * s;
+                        sure = Math.abs(nextR) < COFACTOR_LIMIT
+                                && Math.abs(nextS) < COFACTOR_LIMIT;
+                        if (sure) {
+                            p = r;
+                            q = s;
+                            r = nextR;
+                            s = nextS;
+                            long remainder = aHat - quotient * bHat;
+                            aHat = bHat;
+                            bHat = remainder;
+                        }
+                    }
+                }
+            }
+
+            if (q == 0) {
+                this.divisionStep();
+            } else {
+                this.apply(p, q, r, s);
+            }
+        }
+
+        /**
+         * Replaces (a, b) by (p a + q b, r a + s b).
+         *
+         * @param p
+         *            cofactor of a in the new a
+         * @param q
+         *            cofactor of b in the new a
+         * @param r
+         *            cofactor of a in the new b
+         * @param s
+         *            cofactor of b in the new b
+         * @requires <pre>
+         * [|p|, |q|, |r|, |s| < COFACTOR_LIMIT]  and
+         * [(a, b) goes to (p a + q b, r a + s b) in some number of steps of
+         *  Euclid's algorithm]
+         * </pre>
+         */
+        private void apply(long p, long q, long r, long s) {
+            long aCarry = 0;
+            long bCarry = 0;
+            for (int i = 0; i < this.aLength; i++) {
+                long x = this.a[i] & MASK;
+                long y = this.b[i] & MASK;
+                long u = p * x + q * y + aCarry;
+                long v = r * x + s * y + bCarry;
+                this.a[i] = (int) u;
+                this.b[i] = (int) v;
+                aCarry = u >> WORD_BITS;
+                bCarry = v >> WORD_BITS;
+            }
+            this.aLength = length(this.a, this.aLength);
+            this.bLength = length(this.b, this.aLength);
+            if (this.aCofactor != null) {
+                BigInteger bigP = BigInteger.valueOf(p);
+                BigInteger bigQ = BigInteger.valueOf(q);
+                BigInteger bigR = BigInteger.valueOf(r);
+                BigInteger bigS = BigInteger.valueOf(s);
+                BigInteger cofactor = bigP.multiply(this.aCofactor)
+                        .add(bigQ.multiply(this.bCofactor));
+                this.bCofactor = bigR.multiply(this.aCofactor)
+                        .add(bigS.multiply(this.bCofactor));
+                this.aCofactor = cofactor;
+            }
+        }
+
+        /**
+         * Replaces (a, b) by (b, a mod b). This is only needed when the
+         * quotient is too large for a Lehmer step, so it is left to
+         * {@code BigInteger}.
+         */
+        private void divisionStep() {
+            BigInteger[] qr = value(this.a, this.aLength)
+                    .divideAndRemainder(value(this.b, this.bLength));
+            this.aLength = set(this.a, qr[1]);
+            this.swap();
+            if (this.aCofactor != null) {
+                this.bCofactor = this.bCofactor
+                        .subtract(qr[0].multiply(this.aCofactor));
+            }
+        }
+
+        /**
+         * Reduces a and b to their greatest common divisor (in a) and 0 (in b)
+         * by binary GCD (Stein's algorithm), without keeping track of the
+         * cofactors.
+         *
+         * @requires b > 0
+         */
+        private void binary() {
+            int aZeros = trailingZeros(this.a);
+            int bZeros = trailingZeros(this.b);
+            this.aLength = shiftRight(this.a, this.aLength, aZeros);
+            this.bLength = shiftRight(this.b, this.bLength, bZeros);
+            // Both odd: subtract the smaller from the larger, and make it odd.
+            int order = compare(this.a, this.aLength, this.b, this.bLength);
+            while (order != 0) {
+                if (order < 0) {
+                    this.swap();
+                }
+                this.aLength = subtract(this.a, this.aLength, this.b,
+                        this.bLength);
+                this.aLength = shiftRight(this.a, this.aLength,
+                        trailingZeros(this.a));
+                order = compare(this.a, this.aLength, this.b, this.bLength);
+            }
+            this.aLength = shiftLeft(this.a, this.aLength,
+                    Math.min(aZeros, bZeros));
+            Arrays.fill(this.b, 0);
+            this.bLength = 0;
+        }
+
+        /**
+         * Returns a, which after {@code run} is the greatest common divisor.
+         *
+         * @return a
+         */
+        private BigInteger value() {
+            return value(this.a, this.aLength);
+        }
+
+        /**
+         * Returns the cofactor of a, which after {@code run} is a number s
+         * with gcd(x, y) = s * x (mod y).
+         *
+         * @return the cofactor of a
+         * @requires [the cofactors are being kept track of]
+         */
+        private BigInteger cofactor() {
+            return this.aCofactor;
+        }
+
+    }
+
+    /**
+     * Task checking a range of candidate witnesses that n is composite, split
+     * so the checks run in parallel in a {@code ForkJoinPool}. All the tasks
+     * for one n share a flag; the first witness found sets it, and every task
+     * looks at it before each check, so the remaining checks are skipped.
+     */
+    private static final class WitnessTask extends RecursiveAction {
+
+        /**
+         * Serialization version (required by {@code RecursiveAction}).
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The candidate witnesses.
+         */
+        private final NaturalNumber4[] witnesses;
+
+        /**
+         * Position of the first candidate in this task's range.
+         */
+        private final int from;
+
+        /**
+         * Position just past the last candidate in this task's range.
+         */
+        private final int to;
+
+        /**
+         * Most candidates one task checks without splitting.
+         */
+        private final int grain;
+
+        /**
+         * The number being checked.
+         */
+        private final NaturalNumber4 n;
+
+        /**
+         * n - 1.
+         */
+        private final BigInteger nMinusOne;
+
+        /**
+         * Whether some witness that n is composite has been found.
+         */
+        private final AtomicBoolean composite;
+
+        /**
+         * Constructor.
+         *
+         * @param witnesses
+         *            the candidate witnesses, each with 1 < w < n - 1
+         * @param from
+         *            position of the first candidate to check
+         * @param to
+         *            position just past the last candidate to check
+         * @param grain
+         *            most candidates to check without splitting
+         * @param n
+         *            the number being checked, n > 2
+         * @param nMinusOne
+         *            n - 1
+         * @param composite
+         *            flag shared by all the tasks for n
+         */
+        private WitnessTask(NaturalNumber4[] witnesses, int from, int to,
+                int grain, NaturalNumber4 n, BigInteger nMinusOne,
+                AtomicBoolean composite) {
+            this.witnesses = witnesses;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.n = n;
+            this.nMinusOne = nMinusOne;
+            this.composite = composite;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > this.grain) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(
+                        new WitnessTask(this.witnesses, this.from, middle,
+                                this.grain, this.n, this.nMinusOne,
+                                this.composite),
+                        new WitnessTask(this.witnesses, middle, this.to,
+                                this.grain, this.n, this.nMinusOne,
+                                this.composite));
+            } else {
+                // Scratch is not shared between threads.
+                Scratch scratch = new Scratch();
+                int i = this.from;
+                while (i < this.to && !this.composite.get()) {
+                    if (isWitnessToCompositeness(this.witnesses[i], this.n,
+                            this.nMinusOne, scratch)) {
+                        this.composite.set(true);
+                    }
+                    i++;
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Returns the odd primes less than {@code limit}, by the sieve of
+     * Eratosthenes.
+     *
+     * @param limit
+     *            the bound
+     * @return the odd primes less than limit, in increasing order
+     * @requires limit > 2
+     */
+    private static int[] oddPrimesBelow(int limit) {
+        boolean[] composite = new boolean[limit];
+        int count = 0;
+        for (int i = THREE; i < limit; i += 2) {
+            if (!composite[i]) {
+                count++;
+                for (long j = (long) i * i; j < limit; j += 2 * i) {
+                    composite[(int) j] = true;
+                }
+            }
+        }
+        int[] primes = new int[count];
+        int k = 0;
+        for (int i = THREE; i < limit; i += 2) {
+            if (!composite[i]) {
+                primes[k] = i;
+                k++;
+            }
+        }
+        return primes;
+    }
+
+    /**
+     * Returns the value of n as a {@code BigInteger}.
+     *
+     * @param n
+     *            the number
+     * @return the value of n
+     * @ensures toBigInteger = n
+     */
+    private static BigInteger toBigInteger(NaturalNumber n) {
+        return new NaturalNumber4(n).toBigInteger();
+    }
+
+    /**
+     * Returns a new generator split off from {@code GENERATOR}, for the use
+     * of one thread.
+     *
+     * @return the generator
+     */
+    private static SplittableRandom generator() {
+        synchronized (GENERATOR) {
+            return GENERATOR.split();
+        }
+    }
+
+    /**
+     * Returns a random number uniformly distributed in the interval [0, n].
+     * Draws 64-bit words for a number with as many bits as n, and draws again
+     * (with probability less than 1/2) if that number is greater than n.
+     *
+     * @param n
+     *            top end of interval
+     * @param random
+     *            generator to draw from
+     * @return random number in interval
+     * @updates random
+     * @requires n >= 0
+     * @ensures <pre>
+     * randomBigInteger = [a random number uniformly distributed in [0, n]]
+     * </pre>
+     */
+    private static BigInteger randomBigInteger(BigInteger n,
+            SplittableRandom random) {
+        int bits = n.bitLength();
+        int words = (bits + LONG_BITS - 1) / LONG_BITS;
+        // Mask for the most significant word, to leave exactly bits bits.
+        long topMask = -1L >>> (words * LONG_BITS - bits);
+        byte[] bytes = new byte[words * (LONG_BITS / BYTE_BITS)];
+        BigInteger result;
+        do {
+            int k = 0;
+            for (int w = 0; w < words; w++) {
+                long word = random.nextLong();
+                if (w == 0) {
+                    word &= topMask;
+                }
+                for (int shift = LONG_BITS - BYTE_BITS; shift >= 0;
+                        shift -= BYTE_BITS) {
+                    bytes[k] = (byte) (word >>> shift);
+                    k++;
+                }
+            }
+            result = new BigInteger(1, bytes);
+        } while (result.compareTo(n) > 0);
+        return result;
+    }
 
     /**
      * Returns a random number uniformly distributed in the interval [0, n].
@@ -44,38 +1182,41 @@ public final class CryptoUtilities {
      */
     public static NaturalNumber randomNumber(NaturalNumber n) {
         assert !n.isZero() : "Violation of: n > 0";
-        final int base = 10;
-        NaturalNumber result;
-        int d = n.divideBy10();
-        if (n.isZero()) {
-            /*
-             * Incoming n has only one digit and it is d, so generate a random
-             * number uniformly distributed in [0, d]
-             */
-            int x = (int) ((d + 1) * GENERATOR.nextDouble());
-            result = new NaturalNumber2(x);
-            n.multiplyBy10(d);
-        } else {
-            /*
-             * Incoming n has more than one digit, so generate a random number
-             * (NaturalNumber) uniformly distributed in [0, n], and another
-             * (int) uniformly distributed in [0, 9] (i.e., a random digit)
-             */
-            result = randomNumber(n);
-            int lastDigit = (int) (base * GENERATOR.nextDouble());
-            result.multiplyBy10(lastDigit);
-            n.multiplyBy10(d);
-            if (result.compareTo(n) > 0) {
-                /*
-                 * In this case, we need to try again because generated number
-                 * is greater than n; the recursive call's argument is not
-                 * "smaller" than the incoming value of n, but this recursive
-                 * call has no more than a 90% chance of being made (and for
-                 * large n, far less than that), so the probability of
-                 * termination is 1
-                 */
-                result = randomNumber(n);
-            }
+
+        NaturalNumber4 result = new NaturalNumber4();
+        result.setFromBigInteger(randomBigInteger(toBigInteger(n),
+                generator()));
+        return result;
+    }
+
+    /**
+     * Returns {@code count} random numbers, each uniformly distributed in the
+     * interval [0, n] and independent of the others. Converts n and sets up
+     * the generator only once for all of them.
+     *
+     * @param n
+     *            top end of interval
+     * @param count
+     *            number of random numbers
+     * @return random numbers in interval
+     * @requires n > 0 and count >= 0
+     * @ensures <pre>
+     * |randomNumbers| = count  and
+     * [each entry of randomNumbers is a random number uniformly distributed in
+     *  [0, n], independent of the other entries]
+     * </pre>
+     */
+    public static NaturalNumber[] randomNumbers(NaturalNumber n, int count) {
+        assert !n.isZero() : "Violation of: n > 0";
+        assert count >= 0 : "Violation of: count >= 0";
+
+        BigInteger bound = toBigInteger(n);
+        SplittableRandom random = generator();
+        NaturalNumber[] result = new NaturalNumber[count];
+        for (int i = 0; i < count; i++) {
+            NaturalNumber4 x = new NaturalNumber4();
+            x.setFromBigInteger(randomBigInteger(bound, random));
+            result[i] = x;
         }
         return result;
     }
@@ -93,31 +1234,96 @@ public final class CryptoUtilities {
      */
     public static void reduceToGCD(NaturalNumber n, NaturalNumber m) {
 
-        // Create a new instance of NaturalNumber and copy the current value of n into it.
-        NaturalNumber temp = n.newInstance();
-        temp.copyFrom(n);
+        Gcd gcd = new Gcd(toBigInteger(n), toBigInteger(m), false);
+        gcd.run();
+        NaturalNumber4 result = new NaturalNumber4();
+        result.setFromBigInteger(gcd.value());
+        n.copyFrom(result);
+        m.clear();
 
-        // if m is zero, then reset n to its original value.
-        if (m.isZero()) {
-            n.copyFrom(temp);
-        } else {
+    }
+
+    /**
+     * Finds the greatest common divisor of n and m, and coefficients that
+     * express it as a combination of n and m.
+     *
+     * @param n
+     *            one number
+     * @param m
+     *            the other number
+     * @param x
+     *            the coefficient of #n
+     * @param y
+     *            the coefficient of m
+     * @updates n
+     * @replaces x, y
+     * @requires n > 0 and m > 0
+     * @ensures <pre>
+     * n = [greatest common divisor of #n and m]  and
+     * 0 < x <= m / n  and
+     * #n * x = n + m * y
+     * </pre>
+     */
+    public static void extendedGCD(NaturalNumber n, NaturalNumber m,
+            NaturalNumber x, NaturalNumber y) {
+        assert !n.isZero() : "Violation of: n > 0";
+        assert !m.isZero() : "Violation of: m > 0";
 
-            // If m is not zero, create another temporary NaturalNumber.
-            NaturalNumber temp2 = n.newInstance();
-            temp2.copyFrom(n);
+        BigInteger localN = toBigInteger(n);
+        BigInteger localM = toBigInteger(m);
+        Gcd gcd = new Gcd(localN, localM, true);
+        gcd.run();
+        BigInteger g = gcd.value();
 
-            // Divide temp2 by m and store the result back in temp2.
-            NaturalNumber result = temp2.divide(m);
+        /*
+         * g = s * #n (mod m), and so for x = s (mod m / g) as well; taking x
+         * in [1, m / g] makes #n * x >= g, and so y >= 0.
+         */
+        BigInteger period = localM.divide(g);
+        BigInteger localX = gcd.cofactor().subtract(BigInteger.ONE)
+                .mod(period).add(BigInteger.ONE);
+        BigInteger localY = localN.multiply(localX).subtract(g)
+                .divide(localM);
 
-            if (result.isZero()) {
-                n.transferFrom(m);
-            } else {
-                // If the result is not zero, compute the GCD of m and result.
-                reduceToGCD(m, result);
-                n.transferFrom(m); // transfer the GCD value from m to n.
-            }
-        }
+        NaturalNumber4 result = new NaturalNumber4();
+        result.setFromBigInteger(g);
+        n.copyFrom(result);
+        result.setFromBigInteger(localX);
+        x.copyFrom(result);
+        result.setFromBigInteger(localY);
+        y.copyFrom(result);
+    }
+
+    /**
+     * Replaces n by its inverse modulo m, if it has one.
+     *
+     * @param n
+     *            the number to invert
+     * @param m
+     *            the modulus
+     * @return true iff n has an inverse modulo m
+     * @updates n
+     * @requires m > 1
+     * @ensures <pre>
+     * modInverse = [greatest common divisor of #n and m is 1]  and
+     * if modInverse
+     *  then n < m  and  (#n * n) mod m = 1
+     *  else n = #n
+     * </pre>
+     */
+    public static boolean modInverse(NaturalNumber n, NaturalNumber m) {
+        assert m.compareTo(new NaturalNumber2(1)) > 0 : "Violation of: m > 1";
 
+        BigInteger localM = toBigInteger(m);
+        Gcd gcd = new Gcd(toBigInteger(n).mod(localM), localM, true);
+        gcd.run();
+        boolean result = gcd.value().equals(BigInteger.ONE);
+        if (result) {
+            NaturalNumber4 inverse = new NaturalNumber4();
+            inverse.setFromBigInteger(gcd.cofactor().mod(localM));
+            n.copyFrom(inverse);
+        }
+        return result;
     }
 
     /**
@@ -165,44 +1371,50 @@ public final class CryptoUtilities {
             NaturalNumber m) {
         assert m.compareTo(new NaturalNumber2(1)) > 0 : "Violation of: m > 1";
 
-        // Initialize NaturalNumber instances and set values for one and two.
-        NaturalNumber one = n.newInstance();
-        one.setFromInt(1);
-        NaturalNumber two = n.newInstance();
-        two.setFromInt(2);
-
-        // Copy n to temp for later use.
-        NaturalNumber temp = n.newInstance();
-        temp.copyFrom(n);
-
-        // Check if the power 'p' is zero.
-        if (p.isZero()) {
-            n.setFromInt(1);
+        NaturalNumber4 result = new NaturalNumber4(n);
+        powerMod(result, toBigInteger(p), new NaturalNumber4(m),
+                new Scratch());
+        n.copyFrom(result);
 
-            // If p is greater than one, perform the powerMod operation.
-        } else if (p.compareTo(one) > 0) {
-
-            // Create a new instance to hold the halved exponent.
-            NaturalNumber result = p.newInstance();
-            result.copyFrom(p);
-            result.divide(two);
-            powerMod(n, result, m); // Recursively call powerMod.
-
-            // Calculate n squared.
-            NaturalNumber half = n.newInstance();
-            half.copyFrom(n);
-            n.multiply(half);
+    }
 
-            // If p is odd, multiply by n again.
-            if (!isEven(p)) {
-                n.multiply(temp);
+    /**
+     * Updates n to its p-th power modulo m. For odd m, uses sliding-window
+     * exponentiation in Montgomery form; otherwise, left-to-right binary
+     * exponentiation with every product reduced at once, in the buffers of
+     * {@code scratch}.
+     *
+     * @param n
+     *            number to be raised to a power
+     * @param p
+     *            the power
+     * @param m
+     *            the modulus
+     * @param scratch
+     *            temporaries to use
+     * @updates n, scratch
+     * @requires m > 1 and p >= 0 and [n is not scratch.base]
+     * @ensures n = #n ^ (p) mod m
+     */
+    private static void powerMod(NaturalNumber4 n, BigInteger p,
+            NaturalNumber4 m, Scratch scratch) {
+        NaturalNumber4.Workspace ws = scratch.workspace;
+        if (!isEven(m)) {
+            n.setFromBigInteger(
+                    scratch.montgomery(m).power(n.toBigInteger(), p));
+        } else if (p.signum() == 0) {
+            ws.mod(n, scratch.one, m);
+        } else {
+            ws.mod(n, n, m);
+            // A copy of n, since n < m.
+            ws.mod(scratch.base, n, m);
+            for (int i = p.bitLength() - 2; i >= 0; i--) {
+                ws.multiplyMod(n, n, n, m);
+                if (p.testBit(i)) {
+                    ws.multiplyMod(n, n, scratch.base, m);
+                }
             }
         }
-
-        // Divide n by m and update n to the remainder.
-        NaturalNumber copyNum = n.divide(m);
-        n.copyFrom(copyNum);
-
     }
 
     /**
@@ -229,33 +1441,46 @@ public final class CryptoUtilities {
         assert w.compareTo(n) < 0 : "Violation of: w < n - 1";
         n.increment();
 
-        // Initialize result as false.
-        boolean result = false;
+        return isWitnessToCompositeness(new NaturalNumber4(w),
+                new NaturalNumber4(n),
+                toBigInteger(n).subtract(BigInteger.ONE),
+                new Scratch());
 
-        // NaturalNumber instances for constant values one and two.
-        NaturalNumber one = n.newInstance();
-        one.setFromInt(1);
-        NaturalNumber two = n.newInstance();
-        two.setFromInt(2);
-
-        // unit will store the value n mines 1.
-        NaturalNumber unit = n.newInstance();
-        unit.copyFrom(n);
-        unit.decrement();
-
-        // Make copies of w for the modular calculations.
-        NaturalNumber temp = n.newInstance();
-        temp.copyFrom(w);
-        NaturalNumber tempTwo = n.newInstance();
-        tempTwo.copyFrom(w);
-
-        // Perform powerMod operations.
-        powerMod(temp, unit, n);
-        powerMod(tempTwo, two, n);
-
-        // Check if w is a witness.
-        if (temp.compareTo(one) != 0 || tempTwo.compareTo(one) == 0) {
-            result = true;
+    }
+
+    /**
+     * Reports whether w is a "witness" that n is composite, computing in the
+     * buffers of {@code scratch}.
+     *
+     * @param w
+     *            witness candidate
+     * @param n
+     *            number being checked
+     * @param nMinusOne
+     *            n - 1
+     * @param scratch
+     *            temporaries to use
+     * @return true iff w is a "witness" that n is composite
+     * @updates scratch
+     * @requires n > 2 and 1 < w < n - 1 and nMinusOne = n - 1
+     * @ensures <pre>
+     * isWitnessToCompositeness =
+     *     (w ^ 2 mod n = 1)  or  (w ^ (n-1) mod n /= 1)
+     * </pre>
+     */
+    private static boolean isWitnessToCompositeness(NaturalNumber4 w,
+            NaturalNumber4 n, BigInteger nMinusOne, Scratch scratch) {
+        NaturalNumber4 power = scratch.power;
+
+        // Check whether w is a square root of 1.
+        scratch.workspace.multiplyMod(power, w, w, n);
+        boolean result = power.compareTo(scratch.one) == 0;
+
+        // Check whether w fails Fermat's criterion.
+        if (!result) {
+            scratch.workspace.mod(power, w, n);
+            powerMod(power, nMinusOne, n, scratch);
+            result = power.compareTo(scratch.one) != 0;
         }
 
         // Return true if w is a witness, otherwise false.
@@ -295,7 +1520,10 @@ public final class CryptoUtilities {
              * odd n >= 5: simply check whether 2 is a witness that n is
              * composite (which works surprisingly well :-)
              */
-            isPrime = !isWitnessToCompositeness(new NaturalNumber2(2), n);
+            NaturalNumber4 localN = new NaturalNumber4(n);
+            isPrime = !isWitnessToCompositeness(new NaturalNumber4(2), localN,
+                    toBigInteger(n).subtract(BigInteger.ONE),
+                    new Scratch());
         }
         return isPrime;
     }
@@ -317,6 +1545,30 @@ public final class CryptoUtilities {
     public static boolean isPrime2(NaturalNumber n) {
         assert n.compareTo(new NaturalNumber2(1)) > 0 : "Violation of: n > 1";
 
+        return isPrime2(n, new Scratch());
+
+    }
+
+    /**
+     * Reports whether n is a prime; may be wrong with "low" probability.
+     * Computes in the buffers of {@code scratch}.
+     *
+     * @param n
+     *            number to be checked
+     * @param scratch
+     *            temporaries to use
+     * @return true means n is very likely prime; false means n is definitely
+     *         composite
+     * @updates scratch
+     * @requires n > 1
+     * @ensures <pre>
+     * isPrime2 = [n is a prime number, with small probability of error
+     *         if it is reported to be prime, and no chance of error if it is
+     *         reported to be composite]
+     * </pre>
+     */
+    private static boolean isPrime2(NaturalNumber n, Scratch scratch) {
+
         // Initialize result as false.
         boolean result = false;
 
@@ -340,6 +1592,10 @@ public final class CryptoUtilities {
         } else if (isEven(n)) {
             result = false;
         } else {
+            // Convert n (and n - 1) once for all the witness checks.
+            NaturalNumber4 localN = new NaturalNumber4(n);
+            BigInteger nMinusOne = toBigInteger(base);
+
             // If n is greater than 3 and odd, test to check for primality.
             while (low >= 0 && !result) {
 
@@ -348,7 +1604,8 @@ public final class CryptoUtilities {
 
                 // Check if num is a witness to the compositeness of n
                 if (num.compareTo(base) < 0 && num.compareTo(one) > 0) {
-                    result = !isWitnessToCompositeness(num, n);
+                    result = !isWitnessToCompositeness(new NaturalNumber4(num),
+                            localN, nMinusOne, scratch);
                 }
                 low = low - 1;
 
@@ -360,6 +1617,167 @@ public final class CryptoUtilities {
 
     }
 
+    /**
+     * Reports whether n is a prime; may be wrong with "low" probability. Checks
+     * {@code PARALLEL_WITNESS_ROUNDS} random candidate witnesses (in the sense
+     * of {@code isWitnessToCompositeness}) in parallel in the common
+     * {@code ForkJoinPool}, and stops as soon as one of them is a witness.
+     *
+     * @param n
+     *            number to be checked
+     * @return true means n is very likely prime; false means n is definitely
+     *         composite
+     * @requires n > 1
+     * @ensures <pre>
+     * isPrime2Parallel = [n is a prime number, with small probability of
+     *         error if it is reported to be prime, and no chance of error if
+     *         it is reported to be composite]
+     * </pre>
+     */
+    public static boolean isPrime2Parallel(NaturalNumber n) {
+        assert n.compareTo(new NaturalNumber2(1)) > 0 : "Violation of: n > 1";
+
+        boolean result;
+        if (n.compareTo(new NaturalNumber2(THREE)) <= 0) {
+            result = true;
+        } else if (isEven(n)) {
+            result = false;
+        } else {
+            NaturalNumber4 localN = new NaturalNumber4(n);
+            BigInteger nMinusOne = localN.toBigInteger()
+                    .subtract(BigInteger.ONE);
+
+            // Draw the witnesses up front: random numbers in [2, n - 2].
+            NaturalNumber4 range = new NaturalNumber4(localN);
+            range.subtract(new NaturalNumber4(THREE + 1));
+            NaturalNumber[] draws = randomNumbers(range,
+                    PARALLEL_WITNESS_ROUNDS);
+            NaturalNumber4[] witnesses = new NaturalNumber4[draws.length];
+            for (int i = 0; i < witnesses.length; i++) {
+                // randomNumbers makes its entries NaturalNumber4s.
+                witnesses[i] = (NaturalNumber4) draws[i];
+                witnesses[i].add(new NaturalNumber4(2));
+            }
+
+            ForkJoinPool pool = ForkJoinPool.commonPool();
+            int grain = Math.max(1, witnesses.length / pool.getParallelism());
+            AtomicBoolean composite = new AtomicBoolean(false);
+            pool.invoke(new WitnessTask(witnesses, 0, witnesses.length, grain,
+                    localN, nMinusOne, composite));
+            result = !composite.get();
+        }
+        return result;
+    }
+
+    /**
+     * Reports whether n is a prime, by the Miller-Rabin (strong pseudoprime)
+     * test: exactly if n < 3.3 * 10^24, and otherwise with probability at most
+     * 4^(-MILLER_RABIN_ROUNDS) of reporting a composite number as prime.
+     *
+     * @param n
+     *            number to be checked
+     * @return true means n is prime (or, if n >= 3.3 * 10^24, very likely
+     *         prime); false means n is definitely composite
+     * @requires n > 1
+     * @ensures <pre>
+     * isPrime3 = [n is a prime number, with no chance of error if
+     *         n < 3.3 * 10^24 or n is reported to be composite, and small
+     *         probability of error otherwise]
+     * </pre>
+     */
+    public static boolean isPrime3(NaturalNumber n) {
+        assert n.compareTo(new NaturalNumber2(1)) > 0 : "Violation of: n > 1";
+        return isPrime3(n, MILLER_RABIN_ROUNDS);
+    }
+
+    /**
+     * Reports whether n is a prime, by the Miller-Rabin (strong pseudoprime)
+     * test: exactly if n < 3.3 * 10^24, and otherwise with {@code rounds}
+     * random bases, each of which lets a composite number through with
+     * probability at most 1/4.
+     *
+     * @param n
+     *            number to be checked
+     * @param rounds
+     *            number of random bases to try if n >= 3.3 * 10^24
+     * @return true means n is prime (or, if n >= 3.3 * 10^24, very likely
+     *         prime); false means n is definitely composite
+     * @requires n > 1 and rounds > 0
+     * @ensures <pre>
+     * isPrime3 = [n is a prime number, with no chance of error if
+     *         n < 3.3 * 10^24 or n is reported to be composite, and
+     *         probability of error at most 4^(-rounds) otherwise]
+     * </pre>
+     */
+    public static boolean isPrime3(NaturalNumber n, int rounds) {
+        assert n.compareTo(new NaturalNumber2(1)) > 0 : "Violation of: n > 1";
+        assert rounds > 0 : "Violation of: rounds > 0";
+
+        return isPrime3(toBigInteger(n), rounds);
+    }
+
+    /**
+     * Reports whether n is a prime, by the Miller-Rabin (strong pseudoprime)
+     * test, as {@code isPrime3(NaturalNumber, int)} does.
+     *
+     * @param localN
+     *            number to be checked
+     * @param rounds
+     *            number of random bases to try if n >= 3.3 * 10^24
+     * @return true means n is prime (or, if n >= 3.3 * 10^24, very likely
+     *         prime); false means n is definitely composite
+     * @requires localN > 1 and rounds > 0
+     * @ensures <pre>
+     * isPrime3 = [localN is a prime number, with no chance of error if
+     *         localN < 3.3 * 10^24 or localN is reported to be composite,
+     *         and probability of error at most 4^(-rounds) otherwise]
+     * </pre>
+     */
+    private static boolean isPrime3(BigInteger localN, int rounds) {
+
+        // Settle small n, and n with a small factor, by trial division.
+        boolean decided = false;
+        boolean isPrime = false;
+        for (int i = 0; !decided && i < DETERMINISTIC_BASES.length; i++) {
+            BigInteger b = BigInteger.valueOf(DETERMINISTIC_BASES[i]);
+            if (localN.equals(b)) {
+                decided = true;
+                isPrime = true;
+            } else if (localN.mod(b).signum() == 0) {
+                decided = true;
+            }
+        }
+
+        if (!decided) {
+            // Factor n - 1 = 2^s * d, with d odd, once for all the bases.
+            BigInteger nMinusOne = localN.subtract(BigInteger.ONE);
+            int s = nMinusOne.getLowestSetBit();
+            BigInteger d = nMinusOne.shiftRight(s);
+            Montgomery engine = new Montgomery(localN);
+            isPrime = true;
+            if (localN.compareTo(DETERMINISTIC_LIMIT) < 0) {
+                int i = 0;
+                while (isPrime && i < DETERMINISTIC_BASES.length) {
+                    isPrime = !engine.isStrongWitness(
+                            BigInteger.valueOf(DETERMINISTIC_BASES[i]), d, s);
+                    i++;
+                }
+            } else {
+                // Random bases in [2, n - 2].
+                final int four = 4;
+                BigInteger range = localN.subtract(BigInteger.valueOf(four));
+                SplittableRandom random = generator();
+                for (int i = 0; isPrime && i < rounds; i++) {
+                    BigInteger a = randomBigInteger(range, random)
+                            .add(BigInteger.TWO);
+                    isPrime = !engine.isStrongWitness(a, d, s);
+                }
+            }
+        }
+
+        return isPrime;
+    }
+
     /**
      * Generates a likely prime number at least as large as some given number.
      *
@@ -372,26 +1790,61 @@ public final class CryptoUtilities {
     public static void generateNextLikelyPrime(NaturalNumber n) {
         assert n.compareTo(new NaturalNumber2(1)) > 0 : "Violation of: n > 1";
 
-        // Initialize result as false.
-        boolean result = false;
+        /*
+         * The candidates are the odd numbers from #n + 1 on. Take them
+         * SIEVE_WINDOW at a time, cross out those with a factor in
+         * SIEVE_PRIMES, and run the (much more expensive) primality test only
+         * on the rest.
+         */
+        BigInteger start = toBigInteger(n).add(BigInteger.ONE);
+        if (!start.testBit(0)) {
+            start = start.add(BigInteger.ONE);
+        }
 
-        // Increment n to start searching for the next likely prime.
-        n.increment();
+        // start mod each sieving prime, computed once and then stepped along.
+        int[] residues = new int[SIEVE_PRIMES.length];
+        for (int i = 0; i < SIEVE_PRIMES.length; i++) {
+            residues[i] = start.mod(BigInteger.valueOf(SIEVE_PRIMES[i]))
+                    .intValue();
+        }
 
-        // Loop until a likely prime is found.
-        while (!result) {
-            // If n is even, increment once to make it odd.
-            if (isEven(n)) {
-                n.increment();
-            } else {
-                // If n is already odd, increment by 2 to skip even numbers.
-                n.increment();
-                n.increment();
+        BitSet crossedOut = new BitSet(SIEVE_WINDOW);
+        BigInteger candidate = start;
+        boolean found = false;
+        while (!found) {
+            // Candidate j of this window is start + 2j.
+            crossedOut.clear();
+            for (int i = 0; i < SIEVE_PRIMES.length; i++) {
+                int q = SIEVE_PRIMES[i];
+                int r = residues[i];
+                // start + 2j = 0 (mod q) iff j = (q - r) * (q + 1) / 2 (mod q).
+                int j = (int) ((long) ((q - r) % q) * ((q + 1) / 2) % q);
+                if (start.bitLength() < Integer.SIZE - 1
+                        && start.intValue() + 2 * j == q) {
+                    // That candidate is q itself, which is prime.
+                    j += q;
+                }
+                while (j < SIEVE_WINDOW) {
+                    crossedOut.set(j);
+                    j += q;
+                }
+                residues[i] = (int) ((r + 2L * SIEVE_WINDOW) % q);
             }
-            // Check if the current n is a likely prime.
-            result = isPrime2(n);
+
+            // Test the candidates that are left, in order.
+            int j = crossedOut.nextClearBit(0);
+            while (!found && j < SIEVE_WINDOW) {
+                candidate = start.add(BigInteger.valueOf(2L * j));
+                found = isPrime3(candidate, MILLER_RABIN_ROUNDS);
+                j = crossedOut.nextClearBit(j + 1);
+            }
+            start = start.add(BigInteger.valueOf(2L * SIEVE_WINDOW));
         }
 
+        NaturalNumber4 prime = new NaturalNumber4();
+        prime.setFromBigInteger(candidate);
+        n.copyFrom(prime);
+
     }
 
     /**
@@ -410,6 +1863,7 @@ public final class CryptoUtilities {
          */
         final int testValue = 17;
         final int testSamples = 100000;
+        final double nanosPerMilli = 1e6;
         NaturalNumber test = new NaturalNumber2(testValue);
         int[] count = new int[testValue + 1];
         for (int i = 0; i < count.length; i++) {
@@ -444,7 +1898,20 @@ public final class CryptoUtilities {
                     out.println(n + " is a composite number"
                             + " according to isPrime1.");
                 }
-                if (isPrime2(n)) {
+                long start = System.nanoTime();
+                boolean prime2 = isPrime2(n);
+                long sequential = System.nanoTime() - start;
+                start = System.nanoTime();
+                boolean parallelPrime2 = isPrime2Parallel(n);
+                long parallel = System.nanoTime() - start;
+                out.println(n + (parallelPrime2 ? " is probably a prime number"
+                        : " is a composite number")
+                        + " according to isPrime2Parallel.");
+                out.println("  isPrime2: " + sequential / nanosPerMilli
+                        + " ms; isPrime2Parallel: " + parallel / nanosPerMilli
+                        + " ms on " + ForkJoinPool.commonPool().getParallelism()
+                        + " worker thread(s)");
+                if (prime2) {
                     out.println(n + " is probably a prime number"
                             + " according to isPrime2.");
                 } else {
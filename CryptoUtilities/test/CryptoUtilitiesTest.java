@@ -91,6 +91,45 @@ public class CryptoUtilitiesTest {
         assertEquals(mExpected, m);
     }
 
+    /*
+     * Test case for powerMod with a 607-bit odd modulus (the Mersenne prime
+     * 2^607 - 1, so by Fermat's theorem 3^(m-1) mod m = 1).
+     */
+
+    @Test
+    public void testPowerMod_3_Mminus1_M607() {
+        NaturalNumber m = new NaturalNumber2(2);
+        m.power(607);
+        m.decrement();
+        NaturalNumber mExpected = new NaturalNumber2(m);
+        NaturalNumber p = new NaturalNumber2(m);
+        p.decrement();
+        NaturalNumber pExpected = new NaturalNumber2(p);
+        NaturalNumber n = new NaturalNumber2(3);
+        NaturalNumber nExpected = new NaturalNumber2(1);
+        CryptoUtilities.powerMod(n, p, m);
+        assertEquals(nExpected, n);
+        assertEquals(pExpected, p);
+        assertEquals(mExpected, m);
+    }
+
+    /*
+     * Test case for powerMod with a large even modulus, 2^200.
+     */
+
+    @Test
+    public void testPowerMod_7_1E40plus3_2pow200() {
+        NaturalNumber m = new NaturalNumber2(2);
+        m.power(200);
+        NaturalNumber p = new NaturalNumber2(
+                "10000000000000000000000000000000000000003");
+        NaturalNumber n = new NaturalNumber2(7);
+        NaturalNumber nExpected = new NaturalNumber2(
+                "916409075909686737178536059191710797453904483651149895827799");
+        CryptoUtilities.powerMod(n, p, m);
+        assertEquals(nExpected, n);
+    }
+
     /*
      * Test case to check if 2 is a witness to the compositeness of 5 using
      * CryptoUtilities.isWitnessToCompositeness method. Expected result is
@@ -165,4 +204,241 @@ public class CryptoUtilitiesTest {
         assertEquals(false, result);
     }
 
+    /*
+     * Test case to verify that isPrime3 reports the Carmichael number 561 as
+     * composite (every base coprime to it passes Fermat's test).
+     */
+
+    @Test
+    public void testIsPrime3_561() {
+        NaturalNumber n = new NaturalNumber2(561);
+        boolean result = CryptoUtilities.isPrime3(n);
+
+        assertEquals(false, result);
+    }
+
+    /*
+     * Test case to verify that isPrime3 reports 3215031751, a strong
+     * pseudoprime to bases 2, 3, 5, and 7, as composite.
+     */
+
+    @Test
+    public void testIsPrime3_3215031751() {
+        NaturalNumber n = new NaturalNumber2("3215031751");
+        boolean result = CryptoUtilities.isPrime3(n);
+
+        assertEquals(false, result);
+    }
+
+    /*
+     * Test case to verify that isPrime3 reports 318665857834031151167461, a
+     * strong pseudoprime to every prime base up to 37, as composite (base 41
+     * is a witness).
+     */
+
+    @Test
+    public void testIsPrime3_318665857834031151167461() {
+        NaturalNumber n = new NaturalNumber2("318665857834031151167461");
+        boolean result = CryptoUtilities.isPrime3(n);
+
+        assertEquals(false, result);
+    }
+
+    /*
+     * Test case to verify that isPrime3 reports 3317044064679887385961981, a
+     * strong pseudoprime to every prime base up to 41, as composite (with
+     * random bases).
+     */
+
+    @Test
+    public void testIsPrime3_3317044064679887385961981() {
+        NaturalNumber n = new NaturalNumber2("3317044064679887385961981");
+        boolean result = CryptoUtilities.isPrime3(n);
+
+        assertEquals(false, result);
+    }
+
+    /*
+     * Test case to verify that isPrime3 reports the primes 2, 41, 43, and the
+     * Mersenne prime 2^607 - 1 as prime.
+     */
+
+    @Test
+    public void testIsPrime3_primes() {
+        NaturalNumber m607 = new NaturalNumber2(2);
+        m607.power(607);
+        m607.decrement();
+
+        assertEquals(true, CryptoUtilities.isPrime3(new NaturalNumber2(2)));
+        assertEquals(true, CryptoUtilities.isPrime3(new NaturalNumber2(41)));
+        assertEquals(true, CryptoUtilities.isPrime3(new NaturalNumber2(43)));
+        assertEquals(true, CryptoUtilities.isPrime3(m607));
+    }
+
+    /*
+     * Test case to verify that generateNextLikelyPrime steps from 2 and 3 to
+     * the small primes 3 and 5, which are also sieving primes.
+     */
+
+    @Test
+    public void testGenerateNextLikelyPrime_small() {
+        NaturalNumber two = new NaturalNumber2(2);
+        NaturalNumber three = new NaturalNumber2(3);
+        CryptoUtilities.generateNextLikelyPrime(two);
+        CryptoUtilities.generateNextLikelyPrime(three);
+
+        assertEquals("3", two.toString());
+        assertEquals("5", three.toString());
+    }
+
+    /*
+     * Test case to verify that generateNextLikelyPrime steps from 10^100 to
+     * the next prime, 10^100 + 267.
+     */
+
+    @Test
+    public void testGenerateNextLikelyPrime_1E100() {
+        NaturalNumber n = new NaturalNumber2(10);
+        n.power(100);
+        NaturalNumber expected = new NaturalNumber2(n);
+        expected.add(new NaturalNumber2(267));
+        CryptoUtilities.generateNextLikelyPrime(n);
+
+        assertEquals(expected, n);
+    }
+
+    /*
+     * Test case to verify that isPrime2Parallel reports 5 and the Mersenne
+     * prime 2^607 - 1 as prime, and 2^607 + 1 (divisible by 3) and the
+     * product of 2^607 - 1 and 1000000007 as composite.
+     */
+
+    @Test
+    public void testIsPrime2Parallel() {
+        NaturalNumber m607 = new NaturalNumber2(2);
+        m607.power(607);
+        m607.decrement();
+        NaturalNumber p607 = new NaturalNumber2(m607);
+        p607.increment();
+        p607.increment();
+        NaturalNumber product = new NaturalNumber2(m607);
+        product.multiply(new NaturalNumber2("1000000007"));
+
+        assertEquals(true, CryptoUtilities.isPrime2Parallel(
+                new NaturalNumber2(5)));
+        assertEquals(true, CryptoUtilities.isPrime2Parallel(m607));
+        assertEquals(false, CryptoUtilities.isPrime2Parallel(p607));
+        assertEquals(false, CryptoUtilities.isPrime2Parallel(product));
+    }
+
+    /*
+     * Test case to verify that randomNumbers returns the requested number of
+     * samples, all in [0, 10^30], and leaves the bound unchanged.
+     */
+
+    @Test
+    public void testRandomNumbers_1E30() {
+        final int count = 1000;
+        NaturalNumber n = new NaturalNumber2(10);
+        n.power(30);
+        NaturalNumber nExpected = new NaturalNumber2(n);
+        NaturalNumber[] samples = CryptoUtilities.randomNumbers(n, count);
+
+        assertEquals(count, samples.length);
+        for (NaturalNumber x : samples) {
+            assertEquals(true, x.compareTo(n) <= 0);
+        }
+        assertEquals(nExpected, n);
+    }
+
+    /*
+     * Test case to verify that randomNumber with bound 1 returns both 0 and 1
+     * (each with probability 1/2, so failing with probability 2^-99).
+     */
+
+    @Test
+    public void testRandomNumber_1() {
+        final int count = 100;
+        NaturalNumber one = new NaturalNumber2(1);
+        int zeros = 0;
+        for (int i = 0; i < count; i++) {
+            NaturalNumber x = CryptoUtilities.randomNumber(one);
+            assertEquals(true, x.compareTo(one) <= 0);
+            if (x.isZero()) {
+                zeros++;
+            }
+        }
+
+        assertEquals(true, zeros > 0 && zeros < count);
+    }
+
+    /*
+     * Test case to verify that reduceToGCD finds gcd(F(3000), F(2001)) =
+     * F(gcd(3000, 2001)) = F(3) = 2 for the Fibonacci numbers F, the worst
+     * case for Euclid's algorithm.
+     */
+
+    @Test
+    public void testReduceToGCD_Fibonacci() {
+        final int last = 3000;
+        final int other = 2001;
+        NaturalNumber previous = new NaturalNumber2(0);
+        NaturalNumber current = new NaturalNumber2(1);
+        NaturalNumber n = new NaturalNumber2();
+        NaturalNumber m = new NaturalNumber2();
+        for (int i = 1; i < last; i++) {
+            NaturalNumber next = new NaturalNumber2(current);
+            next.add(previous);
+            previous.transferFrom(current);
+            current.transferFrom(next);
+            if (i + 1 == other) {
+                m.copyFrom(current);
+            }
+        }
+        n.copyFrom(current);
+        CryptoUtilities.reduceToGCD(n, m);
+
+        assertEquals("2", n.toString());
+        assertEquals("0", m.toString());
+    }
+
+    /*
+     * Test case to verify that extendedGCD finds gcd(240, 46) = 2 with
+     * 240 * 14 = 2 + 46 * 73.
+     */
+
+    @Test
+    public void testExtendedGCD_240_46() {
+        NaturalNumber n = new NaturalNumber2(240);
+        NaturalNumber m = new NaturalNumber2(46);
+        NaturalNumber x = new NaturalNumber2();
+        NaturalNumber y = new NaturalNumber2();
+        CryptoUtilities.extendedGCD(n, m, x, y);
+
+        assertEquals("2", n.toString());
+        assertEquals("46", m.toString());
+        assertEquals("14", x.toString());
+        assertEquals("73", y.toString());
+    }
+
+    /*
+     * Test case to verify that modInverse finds the RSA private exponent 2753
+     * for public exponent 17 and totient 3120, and leaves 6 unchanged modulo
+     * 9, where it has no inverse.
+     */
+
+    @Test
+    public void testModInverse() {
+        NaturalNumber e = new NaturalNumber2(17);
+        NaturalNumber totient = new NaturalNumber2(3120);
+        NaturalNumber six = new NaturalNumber2(6);
+        NaturalNumber nine = new NaturalNumber2(9);
+
+        assertEquals(true, CryptoUtilities.modInverse(e, totient));
+        assertEquals("2753", e.toString());
+        assertEquals("3120", totient.toString());
+        assertEquals(false, CryptoUtilities.modInverse(six, nine));
+        assertEquals("6", six.toString());
+    }
+
 }
@@ -1,5 +1,8 @@
 import java.util.Iterator;
+import java.util.Locale;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import components.list.List;
 import components.list.ListSecondary;
@@ -9,7 +12,25 @@ import components.list.ListSecondary;
  * implementations of primary methods and {@code retreat} secondary method.
  *
  * <p>
- * Execution-time performance of all methods implemented in this class is O(1).
+ * Execution-time performance of all methods implemented in this class is
+ * O(1), except for traversals: {@code forEachRemaining} (of an iterator or a
+ * spliterator) takes time linear in the number of entries it visits, and the
+ * first {@code trySplit} of a spliterator walks the whole list, taking
+ * O(|this|) time.
+ * </p>
+ *
+ * <p>
+ * A spliterator is not late-binding (it is bound to the nodes of the list
+ * when {@code spliterator} is called) and not fail-fast (nothing detects a
+ * change to the list while it is in use); the list must not be changed until
+ * it, and every spliterator split from it, has been used up.
+ * </p>
+ *
+ * <p>
+ * Optionally (see {@link #List3(int)}), nodes unlinked by
+ * {@code removeRightFront} are kept in a per-list pool of up to
+ * {@code poolCapacity} nodes and reused by {@code addRightFront}, so that a
+ * list alternating between the two does not allocate at all.
  * </p>
  *
  * @param <T>
@@ -28,7 +49,12 @@ import components.list.ListSecondary;
  * [for every node n in the doubly linked list of nodes, except the one
  *  pointed to by $this.preStart, n.previous.next = n]  and
  * [for every node n in the doubly linked list of nodes, except the one
- *  pointed to by $this.postFinish, n.next.previous = n]
+ *  pointed to by $this.postFinish, n.next.previous = n]  and
+ * 0 <= $this.poolSize <= $this.poolCapacity  and
+ * [$this.pool points to the first of $this.poolSize nodes linked through
+ *  their next fields (null if $this.poolSize = 0), none of them in the doubly
+ *  linked list, all with null data]  and
+ * 0 <= $this.poolHits <= $this.poolRequests
  * </pre>
  * @correspondence <pre>
  * this =
@@ -43,6 +69,51 @@ import components.list.ListSecondary;
  */
 public class List3<T> extends ListSecondary<T> {
 
+    /**
+     * How much of the convention is checked when assertion checking is on.
+     */
+    enum Checking {
+        /**
+         * Nothing is checked.
+         */
+        OFF,
+        /**
+         * The O(1) parts are checked on every operation; the whole list is
+         * walked on every {@code SAMPLE_PERIOD}-th operation.
+         */
+        SAMPLED,
+        /**
+         * The O(1) parts, and the links of the nodes next to
+         * {@code lastLeft}, {@code preStart}, and {@code postFinish}, are
+         * checked on every operation.
+         */
+        INCREMENTAL,
+        /**
+         * The whole list is walked on every operation.
+         */
+        FULL
+    }
+
+    /**
+     * Checking level, from the system property "List3.checking" (OFF,
+     * SAMPLED, INCREMENTAL, or FULL, in any case; FULL if not set or not one
+     * of those).
+     */
+    private static final Checking CHECKING = checkingLevel(
+            System.getProperty("List3.checking"));
+
+    /**
+     * Number of operations between whole-list checks when
+     * {@code CHECKING = SAMPLED}.
+     */
+    private static final int SAMPLE_PERIOD = 1024;
+
+    /**
+     * Number of entries between split points of a {@code List3Spliterator};
+     * also the smallest part it splits off.
+     */
+    private static final int SPLIT_STRIDE = 256;
+
     /**
      * Node class for doubly linked list nodes.
      */
@@ -92,9 +163,70 @@ public class List3<T> extends ListSecondary<T> {
      */
     private int rightLength;
 
+    /**
+     * Number of convention checks made, used when {@code CHECKING = SAMPLED}.
+     */
+    private int checkCount;
+
+    /**
+     * First node of the pool of recycled nodes, linked through their next
+     * fields.
+     */
+    private Node pool;
+
+    /**
+     * Number of nodes in the pool.
+     */
+    private int poolSize;
+
+    /**
+     * Maximum number of nodes in the pool.
+     */
+    private int poolCapacity;
+
+    /**
+     * Number of nodes {@code addRightFront} has asked for.
+     */
+    private long poolRequests;
+
+    /**
+     * Number of nodes {@code addRightFront} has got from the pool.
+     */
+    private long poolHits;
+
+    /**
+     * Reports how much of the linked list to check, given {@code name}, the
+     * value of the "List3.checking" system property. The name is matched
+     * regardless of case (upper-cased with {@code Locale.ROOT}, so
+     * "incremental" works in a Turkish locale too); a null or unknown name
+     * walks the whole list on every operation (FULL).
+     *
+     * @param name
+     *            the name of a level, or null
+     * @return the level called {@code name}, or FULL if there is none
+     * @ensures <pre>
+     * if [name, in upper case, is the name of a level] then
+     *   checkingLevel = [that level]
+     * else
+     *   checkingLevel = FULL
+     * </pre>
+     */
+    static Checking checkingLevel(String name) {
+        Checking result = Checking.FULL;
+        if (name != null) {
+            String upper = name.toUpperCase(Locale.ROOT);
+            for (Checking level : Checking.values()) {
+                if (level.name().equals(upper)) {
+                    result = level;
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Checks that the part of the convention repeated below holds for the
-     * current representation.
+     * current representation (as much of it as {@code CHECKING} calls for).
      *
      * @return true if the convention holds (or if assertion checking is off);
      *         otherwise reports a violated assertion
@@ -112,61 +244,111 @@ public class List3<T> extends ListSecondary<T> {
      * [for every node n in the doubly linked list of nodes, except the one
      *  pointed to by $this.preStart, n.previous.next = n]  and
      * [for every node n in the doubly linked list of nodes, except the one
-     *  pointed to by $this.postFinish, n.next.previous = n]
+     *  pointed to by $this.postFinish, n.next.previous = n]  and
+     * 0 <= $this.poolSize <= $this.poolCapacity  and
+     * 0 <= $this.poolHits <= $this.poolRequests
      * </pre>
      */
     private boolean conventionHolds() {
-        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
-        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
-        assert this.preStart != null : "Violation of: $this.preStart is not null";
-        assert this.lastLeft != null : "Violation of: $this.lastLeft is not null";
-        assert this.postFinish != null : "Violation of: $this.postFinish is not null";
-
-        int count = 0;
-        boolean lastLeftFound = false;
-        Node n = this.preStart;
-        while ((count < this.leftLength + this.rightLength + 1)
-                && (n != this.postFinish)) {
-            count++;
-            if (n == this.lastLeft) {
+        if (CHECKING != Checking.OFF) {
+            assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+            assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+            assert this.preStart != null : "Violation of: $this.preStart is not null";
+            assert this.lastLeft != null : "Violation of: $this.lastLeft is not null";
+            assert this.postFinish != null : "Violation of: $this.postFinish is not null";
+            assert 0 <= this.poolSize && this.poolSize <= this.poolCapacity : ""
+                    + "Violation of: 0 <= $this.poolSize <= $this.poolCapacity";
+            assert (this.poolSize == 0) == (this.pool == null) : ""
+                    + "Violation of: [$this.pool is null if and only if"
+                    + " $this.poolSize = 0]";
+            assert 0 <= this.poolHits && this.poolHits <= this.poolRequests : ""
+                    + "Violation of: 0 <= $this.poolHits <= $this.poolRequests";
+
+            this.checkCount++;
+            if (CHECKING == Checking.FULL || (CHECKING == Checking.SAMPLED
+                    && this.checkCount % SAMPLE_PERIOD == 0)) {
+                int count = 0;
+                boolean lastLeftFound = false;
+                Node n = this.preStart;
+                while ((count < this.leftLength + this.rightLength + 1)
+                        && (n != this.postFinish)) {
+                    count++;
+                    if (n == this.lastLeft) {
+                        /*
+                         * Check $this.lastLeft points to the
+                         * ($this.leftLength + 1)-th node in that doubly linked
+                         * list
+                         */
+                        assert count == this.leftLength + 1 : ""
+                                + "Violation of: [$this.lastLeft points to the"
+                                + " ($this.leftLength + 1)-th node in that doubly linked list]";
+                        lastLeftFound = true;
+                    }
+                    /*
+                     * Check for every node n in the doubly linked list of
+                     * nodes, except the one pointed to by $this.postFinish,
+                     * n.next.previous = n
+                     */
+                    assert (n.next != null) && (n.next.previous == n) : ""
+                            + "Violation of: [for every node n in the doubly linked"
+                            + " list of nodes, except the one pointed to by"
+                            + " $this.postFinish, n.next.previous = n]";
+                    n = n.next;
+                    /*
+                     * Check for every node n in the doubly linked list of
+                     * nodes, except the one pointed to by $this.preStart,
+                     * n.previous.next = n
+                     */
+                    assert n.previous.next == n : ""
+                            + "Violation of: [for every node n in the doubly linked"
+                            + " list of nodes, except the one pointed to by"
+                            + " $this.preStart, n.previous.next = n]";
+                }
+                count++;
+                assert count == this.leftLength + this.rightLength + 2 : ""
+                        + "Violation of: [$this.preStart points to the first node of"
+                        + " a doubly linked list containing"
+                        + " ($this.leftLength + $this.rightLength + 2) nodes]";
+                assert lastLeftFound : ""
+                        + "Violation of: [$this.lastLeft points to the"
+                        + " ($this.leftLength + 1)-th node in that doubly linked list]";
+                assert n == this.postFinish : ""
+                        + "Violation of: [$this.postFinish points to the last"
+                        + " node in that doubly linked list]";
+            } else if (CHECKING == Checking.INCREMENTAL) {
                 /*
-                 * Check $this.lastLeft points to the ($this.leftLength + 1)-th
-                 * node in that doubly linked list
+                 * Every kernel method only relinks nodes next to
+                 * $this.lastLeft, $this.preStart, or $this.postFinish, so
+                 * check the links there.
                  */
-                assert count == this.leftLength + 1 : ""
+                assert (this.lastLeft.next != null)
+                        && (this.lastLeft.next.previous == this.lastLeft) : ""
+                                + "Violation of: [for every node n in the doubly linked"
+                                + " list of nodes, except the one pointed to by"
+                                + " $this.postFinish, n.next.previous = n]";
+                assert (this.lastLeft == this.preStart)
+                        || (this.lastLeft.previous.next == this.lastLeft) : ""
+                                + "Violation of: [for every node n in the doubly linked"
+                                + " list of nodes, except the one pointed to by"
+                                + " $this.preStart, n.previous.next = n]";
+                assert this.preStart.next.previous == this.preStart : ""
+                        + "Violation of: [for every node n in the doubly linked"
+                        + " list of nodes, except the one pointed to by"
+                        + " $this.postFinish, n.next.previous = n]";
+                assert this.postFinish.previous.next == this.postFinish : ""
+                        + "Violation of: [for every node n in the doubly linked"
+                        + " list of nodes, except the one pointed to by"
+                        + " $this.preStart, n.previous.next = n]";
+                assert (this.leftLength == 0) == (this.lastLeft
+                        == this.preStart) : ""
                         + "Violation of: [$this.lastLeft points to the"
                         + " ($this.leftLength + 1)-th node in that doubly linked list]";
-                lastLeftFound = true;
+                assert (this.rightLength == 0) == (this.lastLeft.next
+                        == this.postFinish) : ""
+                        + "Violation of: [$this.postFinish points to the last"
+                        + " node in that doubly linked list]";
             }
-            /*
-             * Check for every node n in the doubly linked list of nodes, except
-             * the one pointed to by $this.postFinish, n.next.previous = n
-             */
-            assert (n.next != null) && (n.next.previous == n) : ""
-                    + "Violation of: [for every node n in the doubly linked"
-                    + " list of nodes, except the one pointed to by"
-                    + " $this.postFinish, n.next.previous = n]";
-            n = n.next;
-            /*
-             * Check for every node n in the doubly linked list of nodes, except
-             * the one pointed to by $this.preStart, n.previous.next = n
-             */
-            assert n.previous.next == n : ""
-                    + "Violation of: [for every node n in the doubly linked"
-                    + " list of nodes, except the one pointed to by"
-                    + " $this.preStart, n.previous.next = n]";
         }
-        count++;
-        assert count == this.leftLength + this.rightLength + 2 : ""
-                + "Violation of: [$this.preStart points to the first node of"
-                + " a doubly linked list containing"
-                + " ($this.leftLength + $this.rightLength + 2) nodes]";
-        assert lastLeftFound : ""
-                + "Violation of: [$this.lastLeft points to the"
-                + " ($this.leftLength + 1)-th node in that doubly linked list]";
-        assert n == this.postFinish : ""
-                + "Violation of: [$this.postFinish points to the last"
-                + " node in that doubly linked list]";
 
         return true;
     }
@@ -197,9 +379,62 @@ public class List3<T> extends ListSecondary<T> {
     }
 
     /**
-     * No-argument constructor.
+     * Returns a node for {@code addRightFront}, from the pool if it is not
+     * empty.
+     *
+     * @return a node with null data
+     */
+    private Node newNode() {
+        this.poolRequests++;
+        Node n;
+        if (this.pool == null) {
+            n = new Node();
+        } else {
+            this.poolHits++;
+            n = this.pool;
+            this.pool = n.next;
+            this.poolSize--;
+            n.next = null;
+        }
+        return n;
+    }
+
+    /**
+     * Puts {@code n}, just unlinked by {@code removeRightFront}, into the pool
+     * if the pool is not full.
+     *
+     * @param n
+     *            the node no longer in the doubly linked list
+     */
+    private void recycle(Node n) {
+        // Drop the references so the pool does not keep entries reachable.
+        n.data = null;
+        n.previous = null;
+        n.next = null;
+        if (this.poolSize < this.poolCapacity) {
+            n.next = this.pool;
+            this.pool = n;
+            this.poolSize++;
+        }
+    }
+
+    /**
+     * No-argument constructor, for a list without a pool of recycled nodes.
      */
     public List3() {
+        this(0);
+    }
+
+    /**
+     * Constructor for a list that keeps up to {@code poolCapacity} nodes
+     * unlinked by {@code removeRightFront} for reuse by {@code addRightFront}.
+     *
+     * @param poolCapacity
+     *            maximum number of recycled nodes to keep
+     */
+    public List3(int poolCapacity) {
+        assert poolCapacity >= 0 : "Violation of: poolCapacity >= 0";
+        this.poolCapacity = poolCapacity;
         this.createNewRep();
         assert this.conventionHolds();
     }
@@ -208,7 +443,8 @@ public class List3<T> extends ListSecondary<T> {
     @Override
     public final List3<T> newInstance() {
         try {
-            return this.getClass().getConstructor().newInstance();
+            return this.getClass().getConstructor(int.class)
+                    .newInstance(this.poolCapacity);
         } catch (ReflectiveOperationException e) {
             throw new AssertionError(
                     "Cannot construct object of type " + this.getClass());
@@ -221,6 +457,11 @@ public class List3<T> extends ListSecondary<T> {
         assert this.conventionHolds();
     }
 
+    /*
+     * The pool belongs to the List3 object, not to its value: clear keeps it,
+     * and transferFrom moves the value but leaves each pool where it is.
+     */
+
     @Override
     public final void transferFrom(List<T> source) {
         assert source instanceof List3<?> : ""
@@ -247,7 +488,7 @@ public class List3<T> extends ListSecondary<T> {
         /*
          * Create a new current node to represent the added node.
          */
-        Node current = new Node();
+        Node current = this.newNode();
         /*
          * Set its data as x, its next as the node after lastLeft, and its
          * previous as the lastLeft node.
@@ -271,7 +512,8 @@ public class List3<T> extends ListSecondary<T> {
     public final T removeRightFront() {
         assert this.rightLength() > 0 : "Violation of: this.right /= <>";
         // Create a variable to represent the soon-to-be removed node's data.
-        T removed = this.lastLeft.next.data;
+        Node removedNode = this.lastLeft.next;
+        T removed = removedNode.data;
         /*
          * Set the previous reference of the node to the right of the node that
          * will soon-to-be removed, as lastLeft.
@@ -282,6 +524,7 @@ public class List3<T> extends ListSecondary<T> {
          * soon-to-be removed node.
          */
         this.lastLeft.next = this.lastLeft.next.next;
+        this.recycle(removedNode);
         // Decrement rightLength.
         this.rightLength--;
         assert this.conventionHolds();
@@ -333,6 +576,39 @@ public class List3<T> extends ListSecondary<T> {
         return new List3Iterator();
     }
 
+    @Override
+    public final Spliterator<T> spliterator() {
+        assert this.conventionHolds();
+        return new List3Spliterator(null, this.preStart.next, 0,
+                this.leftLength + this.rightLength);
+    }
+
+    /**
+     * Reports the number of recycled nodes kept in the pool.
+     *
+     * @return the number of nodes in the pool
+     */
+    public final int poolSize() {
+        assert this.conventionHolds();
+        return this.poolSize;
+    }
+
+    /**
+     * Reports the fraction of the nodes {@code addRightFront} has needed that
+     * came from the pool rather than being allocated.
+     *
+     * @return the pool hit rate, between 0 and 1 (0 if no node has been
+     *         needed yet)
+     */
+    public final double poolHitRate() {
+        assert this.conventionHolds();
+        double rate = 0.0;
+        if (this.poolRequests > 0) {
+            rate = (double) this.poolHits / this.poolRequests;
+        }
+        return rate;
+    }
+
     /**
      * Implementation of {@code Iterator} interface for {@code List3}.
      */
@@ -373,6 +649,22 @@ public class List3<T> extends ListSecondary<T> {
             return x;
         }
 
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            assert action != null : "Violation of: action is not null";
+            /*
+             * Check the convention once, not once per entry as next does.
+             */
+            assert List3.this.conventionHolds();
+            Node n = this.current;
+            Node end = List3.this.postFinish;
+            while (n != end) {
+                action.accept(n.data);
+                n = n.next;
+            }
+            this.current = end;
+        }
+
         @Override
         public void remove() {
             throw new UnsupportedOperationException(
@@ -381,6 +673,145 @@ public class List3<T> extends ListSecondary<T> {
 
     }
 
+    /**
+     * Implementation of {@code Spliterator} interface for {@code List3}.
+     *
+     * <p>
+     * A linked list cannot jump to its middle, so the first {@code trySplit}
+     * walks the list once and records every {@code SPLIT_STRIDE}-th node (the
+     * "marks"), which it and all the spliterators split from it share. Every
+     * {@code trySplit} after that finds a split point near the middle of its
+     * range in O(1) time. A spliterator that is never split (as for a
+     * sequential stream) never walks the list more than once.
+     * </p>
+     *
+     * <p>
+     * The spliterator is bound to the first node of the list when it is made,
+     * and the marks to the nodes found by that first walk, so it is not
+     * late-binding. Nothing records changes to the list, so it is not
+     * fail-fast either: if the list changes while the spliterator is in use,
+     * it may skip, repeat, or run past entries.
+     * </p>
+     */
+    private final class List3Spliterator implements Spliterator<T> {
+
+        /**
+         * Node at position i * SPLIT_STRIDE for each i, or null if not yet
+         * computed.
+         */
+        private Object[] marks;
+
+        /**
+         * Node at position {@code index}.
+         */
+        private Node current;
+
+        /**
+         * Position of the next entry.
+         */
+        private int index;
+
+        /**
+         * Position just after the last entry of this spliterator.
+         */
+        private final int fence;
+
+        /**
+         * Constructor.
+         *
+         * @param marks
+         *            the shared marks, or null
+         * @param current
+         *            the node at position {@code index}
+         * @param index
+         *            the position of the first entry
+         * @param fence
+         *            the position just after the last entry
+         */
+        private List3Spliterator(Object[] marks, Node current, int index,
+                int fence) {
+            this.marks = marks;
+            this.current = current;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            assert action != null : "Violation of: action is not null";
+            boolean advanced = false;
+            if (this.index < this.fence) {
+                action.accept(this.current.data);
+                this.current = this.current.next;
+                this.index++;
+                advanced = true;
+            }
+            return advanced;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            assert action != null : "Violation of: action is not null";
+            Node n = this.current;
+            for (int i = this.index; i < this.fence; i++) {
+                action.accept(n.data);
+                n = n.next;
+            }
+            this.current = n;
+            this.index = this.fence;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Spliterator<T> trySplit() {
+            Spliterator<T> prefix = null;
+            if (this.fence - this.index >= 2 * SPLIT_STRIDE) {
+                if (this.marks == null) {
+                    /*
+                     * Only the spliterator made by List3.spliterator has no
+                     * marks, and it covers the whole list, so walk from its
+                     * start.
+                     */
+                    int length = List3.this.leftLength
+                            + List3.this.rightLength;
+                    this.marks = new Object[(length - 1) / SPLIT_STRIDE + 1];
+                    Node n = List3.this.preStart.next;
+                    for (int i = 0; i < length; i++) {
+                        if (i % SPLIT_STRIDE == 0) {
+                            this.marks[i / SPLIT_STRIDE] = n;
+                        }
+                        n = n.next;
+                    }
+                }
+                int mid = (this.index + this.fence) / 2;
+                mid -= mid % SPLIT_STRIDE;
+                if (mid > this.index) {
+                    prefix = new List3Spliterator(this.marks, this.current,
+                            this.index, mid);
+                    /*
+                     * This cast cannot fail, because only nodes are ever put
+                     * into marks.
+                     */
+                    this.current = (Node) this.marks[mid / SPLIT_STRIDE];
+                    this.index = mid;
+                }
+            }
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.fence - this.index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED
+                    | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+
+    }
+
     /*
      * Other methods (overridden for performance reasons) ---------------------
      */
@@ -414,4 +845,112 @@ public class List3<T> extends ListSecondary<T> {
         assert this.conventionHolds();
     }
 
+    /*
+     * Additional methods -----------------------------------------------------
+     */
+
+    /**
+     * Links the nodes of {@code other} (all of them, in order) in between
+     * {@code before} and {@code before.next}, and makes {@code other} empty.
+     *
+     * @param before
+     *            the node of this list to link the nodes of {@code other} after
+     * @param other
+     *            the list whose nodes are moved
+     * @return the number of nodes moved
+     * @requires <pre>
+     * [before is a node of this list other than $this.postFinish]  and
+     * other is not this
+     * </pre>
+     */
+    private int linkAfter(Node before, List3<T> other) {
+        int moved = other.leftLength + other.rightLength;
+        if (moved > 0) {
+            Node firstMoved = other.preStart.next;
+            Node lastMoved = other.postFinish.previous;
+            Node after = before.next;
+            before.next = firstMoved;
+            firstMoved.previous = before;
+            lastMoved.next = after;
+            after.previous = lastMoved;
+        }
+        other.createNewRep();
+        return moved;
+    }
+
+    /**
+     * Concatenates ("appends") {@code extension} to the end of this.right, by
+     * relinking nodes, in O(1) time.
+     *
+     * @param extension
+     *            the {@code List3} to be appended to the end of this.right
+     * @updates this.right
+     * @clears extension
+     * @requires extension is not this
+     * @ensures <pre>
+     * this.left = #this.left  and
+     * this.right = #this.right * #extension.left * #extension.right
+     * </pre>
+     */
+    public final void spliceAppend(List3<T> extension) {
+        assert extension != null : "Violation of: extension is not null";
+        assert extension != this : "Violation of: extension is not this";
+        this.rightLength += this.linkAfter(this.postFinish.previous, extension);
+        assert this.conventionHolds();
+        assert extension.conventionHolds();
+    }
+
+    /**
+     * Inserts {@code insertion} at the front of this.right, by relinking nodes,
+     * in O(1) time.
+     *
+     * @param insertion
+     *            the {@code List3} to be inserted at the front of this.right
+     * @updates this.right
+     * @clears insertion
+     * @requires insertion is not this
+     * @ensures <pre>
+     * this.left = #this.left  and
+     * this.right = #insertion.left * #insertion.right * #this.right
+     * </pre>
+     */
+    public final void spliceAtCursor(List3<T> insertion) {
+        assert insertion != null : "Violation of: insertion is not null";
+        assert insertion != this : "Violation of: insertion is not this";
+        this.rightLength += this.linkAfter(this.lastLeft, insertion);
+        assert this.conventionHolds();
+        assert insertion.conventionHolds();
+    }
+
+    /**
+     * Removes this.right and returns it as a new {@code List3}, by relinking
+     * nodes, in O(1) time.
+     *
+     * @return the new {@code List3}, with this.left = <> and this.right =
+     *         #this.right
+     * @updates this.right
+     * @ensures <pre>
+     * this.left = #this.left  and  this.right = <>  and
+     * splitRight.left = <>  and  splitRight.right = #this.right
+     * </pre>
+     */
+    public final List3<T> splitRight() {
+        List3<T> split = this.newInstance();
+        if (this.rightLength > 0) {
+            Node firstMoved = this.lastLeft.next;
+            Node lastMoved = this.postFinish.previous;
+            this.lastLeft.next = this.postFinish;
+            this.postFinish.previous = this.lastLeft;
+            split.preStart.next = firstMoved;
+            firstMoved.previous = split.preStart;
+            lastMoved.next = split.postFinish;
+            split.postFinish.previous = lastMoved;
+            split.rightLength = this.rightLength;
+            this.rightLength = 0;
+        }
+        assert this.conventionHolds();
+        assert split.conventionHolds();
+        return split;
+    }
+
 }
@@ -0,0 +1,525 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List} represented as an unrolled linked list: a doubly linked list of
+ * blocks, each holding up to {@code BLOCK_CAPACITY} entries in an array, with
+ * implementations of primary methods and {@code retreat} secondary method.
+ *
+ * <p>
+ * Execution-time performance of {@code addRightFront} and
+ * {@code removeRightFront} is O({@code BLOCK_CAPACITY}), i.e., O(1); all other
+ * methods implemented in this class are O(1). Compared to {@code List3}, which
+ * has a node with three references for every entry, this keeps the entries in
+ * arrays, and iterating visits consecutive array slots.
+ * </p>
+ *
+ * <p>
+ * A full block is split into two half-full blocks, and a block that drops
+ * below half full is merged with a neighbor if the two fit in one block, so
+ * no two neighboring blocks are both less than half full. Any two neighboring
+ * blocks therefore hold at least {@code BLOCK_CAPACITY / 2 + 1} entries, and
+ * the arrays have fewer than four slots per entry in the worst case (plus one
+ * block for a short list), and at most two while entries are only being
+ * added; each block also has a count and two links.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ * @convention <pre>
+ * $this.leftLength >= 0  and
+ * $this.rightLength >= 0  and
+ * [$this.first, $this.last, and $this.cursor are not null]  and
+ * [$this.first points to the first block of a doubly linked list of blocks
+ *  and $this.last to the last one]  and
+ * [$this.first.previous = null  and  $this.last.next = null]  and
+ * [for every block b in that list, except the last, b.next.previous = b]  and
+ * [every block b in that list has 0 <= b.count <= BLOCK_CAPACITY, and
+ *  b.count > 0 unless it is the only block]  and
+ * [for every block b in that list, except the last,
+ *  b.count >= BLOCK_CAPACITY / 2  or  b.next.count >= BLOCK_CAPACITY / 2]  and
+ * [for every block b in that list, b.entries[0, b.count) are not null and
+ *  b.entries[b.count, BLOCK_CAPACITY) are null]  and
+ * [the sum of b.count over all blocks b in that list is
+ *  $this.leftLength + $this.rightLength]  and
+ * [$this.cursor points to a block in that list]  and
+ * 0 <= $this.cursorIndex <= $this.cursor.count  and
+ * [the sum of b.count over the blocks b before $this.cursor in that list,
+ *  plus $this.cursorIndex, is $this.leftLength]
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  ([entries of the blocks before $this.cursor, in order, followed by
+ *    $this.cursor.entries[0, $this.cursorIndex)],
+ *   [$this.cursor.entries[$this.cursorIndex, $this.cursor.count) followed by
+ *    the entries of the blocks after $this.cursor, in order])
+ * </pre>
+ *
+ * @author K. Abukar
+ *
+ */
+public class List4<T> extends ListSecondary<T> {
+
+    /**
+     * Maximum number of entries in a block.
+     */
+    private static final int BLOCK_CAPACITY = 64;
+
+    /**
+     * Block class for the doubly linked list of blocks.
+     */
+    private final class Block {
+
+        /**
+         * Entries of the block, in positions 0 through count - 1.
+         */
+        private final Object[] entries = new Object[BLOCK_CAPACITY];
+
+        /**
+         * Number of entries in the block.
+         */
+        private int count;
+
+        /**
+         * Next block in doubly linked list, or null if this is the last one.
+         */
+        private Block next;
+
+        /**
+         * Previous block in doubly linked list, or null if this is the first
+         * one.
+         */
+        private Block previous;
+
+        /**
+         * Reports the entry at position {@code i} of this block.
+         *
+         * @param i
+         *            the position
+         * @return the entry at position {@code i}
+         * @requires 0 <= i < this.count
+         */
+        @SuppressWarnings("unchecked")
+        private T entry(int i) {
+            /*
+             * This cast cannot fail, because only entries of type T are ever
+             * put into the array.
+             */
+            return (T) this.entries[i];
+        }
+
+    }
+
+    /**
+     * First block of doubly linked list.
+     */
+    private Block first;
+
+    /**
+     * Last block of doubly linked list.
+     */
+    private Block last;
+
+    /**
+     * Block holding the front of this.right, or the end of this.left.
+     */
+    private Block cursor;
+
+    /**
+     * Position in {@code cursor} of the front of this.right.
+     */
+    private int cursorIndex;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Length of this.right.
+     */
+    private int rightLength;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.leftLength >= 0  and
+     * $this.rightLength >= 0  and
+     * [$this.first, $this.last, and $this.cursor are not null]  and
+     * [$this.first points to the first block of a doubly linked list of blocks
+     *  and $this.last to the last one]  and
+     * [$this.first.previous = null  and  $this.last.next = null]  and
+     * [for every block b in that list, except the last, b.next.previous = b]  and
+     * [every block b in that list has 0 <= b.count <= BLOCK_CAPACITY, and
+     *  b.count > 0 unless it is the only block]  and
+     * [for every block b in that list, except the last,
+     *  b.count >= BLOCK_CAPACITY / 2  or
+     *  b.next.count >= BLOCK_CAPACITY / 2]  and
+     * [the sum of b.count over all blocks b in that list is
+     *  $this.leftLength + $this.rightLength]  and
+     * [$this.cursor points to a block in that list]  and
+     * 0 <= $this.cursorIndex <= $this.cursor.count  and
+     * [the sum of b.count over the blocks b before $this.cursor in that list,
+     *  plus $this.cursorIndex, is $this.leftLength]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert this.first != null : "Violation of: $this.first is not null";
+        assert this.last != null : "Violation of: $this.last is not null";
+        assert this.cursor != null : "Violation of: $this.cursor is not null";
+        assert this.first.previous == null : ""
+                + "Violation of: $this.first.previous = null";
+        assert this.last.next == null : "Violation of: $this.last.next = null";
+        assert 0 <= this.cursorIndex
+                && this.cursorIndex <= this.cursor.count : ""
+                        + "Violation of: 0 <= $this.cursorIndex <= $this.cursor.count";
+
+        /*
+         * Only the blocks are walked, not the entries in them, so this takes
+         * O(number of blocks) time.
+         */
+        int total = 0;
+        int beforeCursor = -1;
+        Block b = this.first;
+        while (b != null) {
+            assert 0 <= b.count && b.count <= BLOCK_CAPACITY : ""
+                    + "Violation of: [every block b in that list has"
+                    + " 0 <= b.count <= BLOCK_CAPACITY]";
+            assert b.count > 0 || (this.first == this.last) : ""
+                    + "Violation of: [every block b in that list has"
+                    + " b.count > 0 unless it is the only block]";
+            if (b == this.cursor) {
+                beforeCursor = total;
+            }
+            total += b.count;
+            if (b.next == null) {
+                assert b == this.last : ""
+                        + "Violation of: [$this.last points to the last block]";
+            } else {
+                assert b.next.previous == b : ""
+                        + "Violation of: [for every block b in that list,"
+                        + " except the last, b.next.previous = b]";
+                assert b.count >= BLOCK_CAPACITY / 2
+                        || b.next.count >= BLOCK_CAPACITY / 2 : ""
+                                + "Violation of: [for every block b in that"
+                                + " list, except the last, b.count >="
+                                + " BLOCK_CAPACITY / 2 or b.next.count >="
+                                + " BLOCK_CAPACITY / 2]";
+            }
+            b = b.next;
+        }
+        assert total == this.leftLength + this.rightLength : ""
+                + "Violation of: [the sum of b.count over all blocks b in that"
+                + " list is $this.leftLength + $this.rightLength]";
+        assert beforeCursor >= 0 : ""
+                + "Violation of: [$this.cursor points to a block in that list]";
+        assert beforeCursor + this.cursorIndex == this.leftLength : ""
+                + "Violation of: [the sum of b.count over the blocks b before"
+                + " $this.cursor in that list, plus $this.cursorIndex, is"
+                + " $this.leftLength]";
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        // A single empty block, with the cursor at its start.
+        this.first = new Block();
+        this.last = this.first;
+        this.cursor = this.first;
+        this.cursorIndex = 0;
+        this.leftLength = 0;
+        this.rightLength = 0;
+    }
+
+    /**
+     * Inserts a new, empty block after {@code b}.
+     *
+     * @param b
+     *            the block to insert after
+     * @return the new block
+     */
+    private Block insertBlockAfter(Block b) {
+        Block added = new Block();
+        added.previous = b;
+        added.next = b.next;
+        if (b.next == null) {
+            this.last = added;
+        } else {
+            b.next.previous = added;
+        }
+        b.next = added;
+        return added;
+    }
+
+    /**
+     * Moves the entries of {@code b.next} to the end of {@code b} and removes
+     * {@code b.next} from the list.
+     *
+     * @param b
+     *            the block to merge into
+     * @requires b.next /= null and b.count + b.next.count <= BLOCK_CAPACITY
+     */
+    private void mergeWithNext(Block b) {
+        Block gone = b.next;
+        System.arraycopy(gone.entries, 0, b.entries, b.count, gone.count);
+        if (this.cursor == gone) {
+            this.cursor = b;
+            this.cursorIndex += b.count;
+        }
+        b.count += gone.count;
+        b.next = gone.next;
+        if (gone.next == null) {
+            this.last = b;
+        } else {
+            gone.next.previous = b;
+        }
+    }
+
+    /**
+     * No-argument constructor.
+     */
+    public List4() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final List4<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof List4<?> : ""
+                + "Violation of: source is of dynamic type List4<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List4<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List4<T> localSource = (List4<T>) source;
+        this.first = localSource.first;
+        this.last = localSource.last;
+        this.cursor = localSource.cursor;
+        this.cursorIndex = localSource.cursorIndex;
+        this.leftLength = localSource.leftLength;
+        this.rightLength = localSource.rightLength;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+        Block b = this.cursor;
+        if (b.count == BLOCK_CAPACITY) {
+            /*
+             * The block is full: move its upper half to a new block after it,
+             * and put the cursor in whichever half it belongs to.
+             */
+            Block upper = this.insertBlockAfter(b);
+            int half = BLOCK_CAPACITY / 2;
+            System.arraycopy(b.entries, half, upper.entries, 0, half);
+            Arrays.fill(b.entries, half, BLOCK_CAPACITY, null);
+            upper.count = half;
+            b.count = half;
+            if (this.cursorIndex > half) {
+                this.cursor = upper;
+                this.cursorIndex -= half;
+            }
+            b = this.cursor;
+        }
+        // Shift the entries at and after the cursor up one, and put x there.
+        System.arraycopy(b.entries, this.cursorIndex, b.entries,
+                this.cursorIndex + 1, b.count - this.cursorIndex);
+        b.entries[this.cursorIndex] = x;
+        b.count++;
+        this.rightLength++;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        if (this.cursorIndex == this.cursor.count) {
+            // The front of this.right is the first entry of the next block.
+            this.cursor = this.cursor.next;
+            this.cursorIndex = 0;
+        }
+        Block b = this.cursor;
+        T removed = b.entry(this.cursorIndex);
+        // Shift the entries after the cursor down one.
+        System.arraycopy(b.entries, this.cursorIndex + 1, b.entries,
+                this.cursorIndex, b.count - this.cursorIndex - 1);
+        b.count--;
+        b.entries[b.count] = null;
+        this.rightLength--;
+        /*
+         * Keep any two neighboring blocks from both being less than half full:
+         * merge a block that has dropped below half full with a neighbor, if
+         * they fit in one block. Either neighbor it cannot be merged with is
+         * more than half full.
+         */
+        if (b.count < BLOCK_CAPACITY / 2) {
+            if (b.next != null && b.count + b.next.count <= BLOCK_CAPACITY) {
+                this.mergeWithNext(b);
+            } else if (b.previous != null
+                    && b.previous.count + b.count <= BLOCK_CAPACITY) {
+                this.mergeWithNext(b.previous);
+            }
+        }
+        assert this.conventionHolds();
+        return removed;
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        if (this.cursorIndex == this.cursor.count) {
+            this.cursor = this.cursor.next;
+            this.cursorIndex = 0;
+        }
+        this.cursorIndex++;
+        this.leftLength++;
+        this.rightLength--;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void moveToStart() {
+        this.cursor = this.first;
+        this.cursorIndex = 0;
+        this.rightLength += this.leftLength;
+        this.leftLength = 0;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int leftLength() {
+        assert this.conventionHolds();
+        return this.leftLength;
+    }
+
+    @Override
+    public final int rightLength() {
+        assert this.conventionHolds();
+        return this.rightLength;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        assert this.conventionHolds();
+        return new List4Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List4}.
+     */
+    private final class List4Iterator implements Iterator<T> {
+
+        /**
+         * Current block in the list of blocks.
+         */
+        private Block current;
+
+        /**
+         * Position in {@code current} of the next entry.
+         */
+        private int index;
+
+        /**
+         * No-argument constructor.
+         */
+        private List4Iterator() {
+            this.current = List4.this.first;
+            this.index = 0;
+            assert List4.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.index == this.current.count && this.current.next != null) {
+                this.current = this.current.next;
+                this.index = 0;
+            }
+            return this.index < this.current.count;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = this.current.entry(this.index);
+            this.index++;
+            assert List4.this.conventionHolds();
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void moveToFinish() {
+        this.cursor = this.last;
+        this.cursorIndex = this.last.count;
+        this.leftLength += this.rightLength;
+        this.rightLength = 0;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+        if (this.cursorIndex == 0) {
+            this.cursor = this.cursor.previous;
+            this.cursorIndex = this.cursor.count;
+        }
+        this.cursorIndex--;
+        this.rightLength++;
+        this.leftLength--;
+        assert this.conventionHolds();
+    }
+
+}
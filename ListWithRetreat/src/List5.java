@@ -0,0 +1,637 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List} represented as an implicit treap: a binary tree of nodes whose
+ * in-order traversal gives the entries of the list, with each node knowing the
+ * size of its subtree (so the node at any position can be found in one walk
+ * down from the root) and its parent (so the cursor can move to a neighbor
+ * without starting from the root). Kept balanced, with high probability, by
+ * giving each node a random priority and keeping the tree a heap with respect
+ * to priorities. Includes implementations of primary methods, {@code retreat}
+ * secondary method, and {@code moveToPosition}.
+ *
+ * <p>
+ * Execution-time performance: {@code moveToPosition}, {@code moveToStart},
+ * {@code addRightFront}, and {@code removeRightFront} are expected
+ * O(log(|this|)); {@code advance} and {@code retreat} are O(1) amortized over
+ * a sequence of moves in one direction and O(log(|this|)) expected each; all
+ * other methods implemented in this class are O(1).
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ * @convention <pre>
+ * $this.leftLength >= 0  and
+ * $this.rightLength >= 0  and
+ * [$this.root is null or points to the root of a binary tree of nodes, with
+ *  $this.root.parent = null]  and
+ * [for every node n in the tree, each child c of n has c.parent = n]  and
+ * [for every node n in the tree,
+ *  n.size = 1 + [size of n.left subtree] + [size of n.right subtree]]  and
+ * [for every node n in the tree, each child c of n has
+ *  c.priority <= n.priority]  and
+ * [the number of nodes in the tree is $this.leftLength + $this.rightLength]
+ *  and
+ * if $this.rightLength = 0 then
+ *   $this.cursor = null
+ * else
+ *   [$this.cursor points to the node at (0-based) in-order position
+ *    $this.leftLength in the tree]
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  ([data in the first $this.leftLength nodes of the tree, in order],
+ *   [data in the other nodes of the tree, in order])
+ * </pre>
+ *
+ * @author K. Abukar
+ *
+ */
+public class List5<T> extends ListSecondary<T> {
+
+    /**
+     * Node class for tree nodes.
+     */
+    private final class Node {
+
+        /**
+         * Data in node.
+         */
+        private T data;
+
+        /**
+         * Left child, or null.
+         */
+        private Node left;
+
+        /**
+         * Right child, or null.
+         */
+        private Node right;
+
+        /**
+         * Parent, or null if this is the root.
+         */
+        private Node parent;
+
+        /**
+         * Number of nodes in the subtree rooted at this node.
+         */
+        private int size;
+
+        /**
+         * Random priority; no child has a higher priority than its parent.
+         */
+        private int priority;
+
+    }
+
+    /**
+     * Root of the tree, or null if the tree is empty.
+     */
+    private Node root;
+
+    /**
+     * Node with the front of this.right, or null if this.right is empty.
+     */
+    private Node cursor;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Length of this.right.
+     */
+    private int rightLength;
+
+    /**
+     * Reports the size of the subtree rooted at {@code n}.
+     *
+     * @param n
+     *            the root of the subtree, or null
+     * @return the number of nodes in the subtree (0 if {@code n} is null)
+     */
+    private int size(Node n) {
+        int size = 0;
+        if (n != null) {
+            size = n.size;
+        }
+        return size;
+    }
+
+    /**
+     * Recomputes {@code n.size} from the sizes of its children.
+     *
+     * @param n
+     *            the node
+     * @updates n.size
+     */
+    private void updateSize(Node n) {
+        n.size = 1 + this.size(n.left) + this.size(n.right);
+    }
+
+    /**
+     * Reports the first node, in order, of the subtree rooted at {@code n}.
+     *
+     * @param n
+     *            the root of the subtree
+     * @return the first node of the subtree
+     * @requires n is not null
+     */
+    private Node first(Node n) {
+        Node first = n;
+        while (first.left != null) {
+            first = first.left;
+        }
+        return first;
+    }
+
+    /**
+     * Reports the last node, in order, of the subtree rooted at {@code n}.
+     *
+     * @param n
+     *            the root of the subtree
+     * @return the last node of the subtree
+     * @requires n is not null
+     */
+    private Node last(Node n) {
+        Node last = n;
+        while (last.right != null) {
+            last = last.right;
+        }
+        return last;
+    }
+
+    /**
+     * Reports the node following {@code n} in order.
+     *
+     * @param n
+     *            the node
+     * @return the next node, or null if {@code n} is the last node
+     * @requires n is not null
+     */
+    private Node successor(Node n) {
+        Node next;
+        if (n.right != null) {
+            next = this.first(n.right);
+        } else {
+            Node child = n;
+            next = n.parent;
+            while (next != null && next.right == child) {
+                child = next;
+                next = next.parent;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Reports the node preceding {@code n} in order.
+     *
+     * @param n
+     *            the node
+     * @return the previous node, or null if {@code n} is the first node
+     * @requires n is not null
+     */
+    private Node predecessor(Node n) {
+        Node previous;
+        if (n.left != null) {
+            previous = this.last(n.left);
+        } else {
+            Node child = n;
+            previous = n.parent;
+            while (previous != null && previous.left == child) {
+                child = previous;
+                previous = previous.parent;
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Reports the node at (0-based) in-order position {@code k}.
+     *
+     * @param k
+     *            the position
+     * @return the node at position {@code k}
+     * @requires 0 <= k < [number of nodes in the tree]
+     */
+    private Node select(int k) {
+        Node n = this.root;
+        int position = k;
+        int leftSize = this.size(n.left);
+        while (position != leftSize) {
+            if (position < leftSize) {
+                n = n.left;
+            } else {
+                position -= leftSize + 1;
+                n = n.right;
+            }
+            leftSize = this.size(n.left);
+        }
+        return n;
+    }
+
+    /**
+     * Rotates {@code x} up above its parent, keeping the in-order sequence of
+     * nodes the same.
+     *
+     * @param x
+     *            the node to rotate up
+     * @requires x.parent is not null
+     */
+    private void rotateUp(Node x) {
+        Node p = x.parent;
+        Node g = p.parent;
+        if (p.left == x) {
+            p.left = x.right;
+            if (x.right != null) {
+                x.right.parent = p;
+            }
+            x.right = p;
+        } else {
+            p.right = x.left;
+            if (x.left != null) {
+                x.left.parent = p;
+            }
+            x.left = p;
+        }
+        p.parent = x;
+        x.parent = g;
+        if (g == null) {
+            this.root = x;
+        } else if (g.left == p) {
+            g.left = x;
+        } else {
+            g.right = x;
+        }
+        this.updateSize(p);
+        this.updateSize(x);
+    }
+
+    /**
+     * Checks that the subtree rooted at {@code n} satisfies the parts of the
+     * convention about nodes, and reports its size.
+     *
+     * @param n
+     *            the root of the subtree, or null
+     * @return the number of nodes in the subtree
+     */
+    private int checkSubtree(Node n) {
+        int size = 0;
+        if (n != null) {
+            assert n.data != null : "Violation of: [data in nodes is not null]";
+            if (n.left != null) {
+                assert n.left.parent == n : ""
+                        + "Violation of: [each child c of n has c.parent = n]";
+                assert n.left.priority <= n.priority : ""
+                        + "Violation of: [each child c of n has"
+                        + " c.priority <= n.priority]";
+            }
+            if (n.right != null) {
+                assert n.right.parent == n : ""
+                        + "Violation of: [each child c of n has c.parent = n]";
+                assert n.right.priority <= n.priority : ""
+                        + "Violation of: [each child c of n has"
+                        + " c.priority <= n.priority]";
+            }
+            size = 1 + this.checkSubtree(n.left) + this.checkSubtree(n.right);
+            assert n.size == size : ""
+                    + "Violation of: [n.size = 1 + [size of n.left subtree]"
+                    + " + [size of n.right subtree]]";
+        }
+        return size;
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.leftLength >= 0  and
+     * $this.rightLength >= 0  and
+     * [$this.root is null or points to the root of a binary tree of nodes, with
+     *  $this.root.parent = null]  and
+     * [for every node n in the tree, each child c of n has c.parent = n]  and
+     * [for every node n in the tree,
+     *  n.size = 1 + [size of n.left subtree] + [size of n.right subtree]]  and
+     * [for every node n in the tree, each child c of n has
+     *  c.priority <= n.priority]  and
+     * [the number of nodes in the tree is $this.leftLength + $this.rightLength]
+     *  and
+     * if $this.rightLength = 0 then
+     *   $this.cursor = null
+     * else
+     *   [$this.cursor points to the node at (0-based) in-order position
+     *    $this.leftLength in the tree]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert this.root == null || this.root.parent == null : ""
+                + "Violation of: $this.root.parent = null";
+        assert this.checkSubtree(this.root) == this.leftLength
+                + this.rightLength : ""
+                        + "Violation of: [the number of nodes in the tree is"
+                        + " $this.leftLength + $this.rightLength]";
+        if (this.rightLength == 0) {
+            assert this.cursor == null : ""
+                    + "Violation of: if $this.rightLength = 0 then"
+                    + " $this.cursor = null";
+        } else {
+            assert this.cursor == this.select(this.leftLength) : ""
+                    + "Violation of: [$this.cursor points to the node at"
+                    + " in-order position $this.leftLength in the tree]";
+        }
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.root = null;
+        this.cursor = null;
+        this.leftLength = 0;
+        this.rightLength = 0;
+    }
+
+    /**
+     * No-argument constructor.
+     */
+    public List5() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final List5<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof List5<?> : ""
+                + "Violation of: source is of dynamic type List5<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List5<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List5<T> localSource = (List5<T>) source;
+        this.root = localSource.root;
+        this.cursor = localSource.cursor;
+        this.leftLength = localSource.leftLength;
+        this.rightLength = localSource.rightLength;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+        Node added = new Node();
+        added.data = x;
+        added.size = 1;
+        added.priority = ThreadLocalRandom.current().nextInt();
+        /*
+         * Attach the new node as a leaf just before the cursor node in order
+         * (or after the last node, if this.right is empty).
+         */
+        Node parent = null;
+        if (this.cursor == null) {
+            if (this.root != null) {
+                parent = this.last(this.root);
+                parent.right = added;
+            }
+        } else if (this.cursor.left == null) {
+            parent = this.cursor;
+            parent.left = added;
+        } else {
+            parent = this.last(this.cursor.left);
+            parent.right = added;
+        }
+        added.parent = parent;
+        if (parent == null) {
+            this.root = added;
+        }
+        for (Node n = parent; n != null; n = n.parent) {
+            n.size++;
+        }
+        // Restore the heap ordering of priorities.
+        while (added.parent != null && added.parent.priority < added.priority) {
+            this.rotateUp(added);
+        }
+        this.cursor = added;
+        this.rightLength++;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        Node removed = this.cursor;
+        Node next = this.successor(removed);
+        // Rotate the node down until it is a leaf, then unlink it.
+        while (removed.left != null || removed.right != null) {
+            Node child;
+            if (removed.left == null) {
+                child = removed.right;
+            } else if (removed.right == null
+                    || removed.left.priority > removed.right.priority) {
+                child = removed.left;
+            } else {
+                child = removed.right;
+            }
+            this.rotateUp(child);
+        }
+        Node parent = removed.parent;
+        if (parent == null) {
+            this.root = null;
+        } else if (parent.left == removed) {
+            parent.left = null;
+        } else {
+            parent.right = null;
+        }
+        for (Node n = parent; n != null; n = n.parent) {
+            n.size--;
+        }
+        this.cursor = next;
+        this.rightLength--;
+        assert this.conventionHolds();
+        return removed.data;
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        this.cursor = this.successor(this.cursor);
+        this.leftLength++;
+        this.rightLength--;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void moveToStart() {
+        this.rightLength += this.leftLength;
+        this.leftLength = 0;
+        if (this.root == null) {
+            this.cursor = null;
+        } else {
+            this.cursor = this.first(this.root);
+        }
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int leftLength() {
+        assert this.conventionHolds();
+        return this.leftLength;
+    }
+
+    @Override
+    public final int rightLength() {
+        assert this.conventionHolds();
+        return this.rightLength;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        assert this.conventionHolds();
+        return new List5Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List5}.
+     */
+    private final class List5Iterator implements Iterator<T> {
+
+        /**
+         * Node with the next entry, or null if there is none.
+         */
+        private Node current;
+
+        /**
+         * No-argument constructor.
+         */
+        private List5Iterator() {
+            if (List5.this.root == null) {
+                this.current = null;
+            } else {
+                this.current = List5.this.first(List5.this.root);
+            }
+            assert List5.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != null;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = this.current.data;
+            this.current = List5.this.successor(this.current);
+            assert List5.this.conventionHolds();
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void moveToFinish() {
+        this.cursor = null;
+        this.leftLength += this.rightLength;
+        this.rightLength = 0;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+        if (this.cursor == null) {
+            this.cursor = this.last(this.root);
+        } else {
+            this.cursor = this.predecessor(this.cursor);
+        }
+        this.rightLength++;
+        this.leftLength--;
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Additional methods -----------------------------------------------------
+     */
+
+    /**
+     * Moves the cursor so that this.left has length {@code k}, in expected
+     * O(log(|this|)) time.
+     *
+     * @param k
+     *            the new length of this.left
+     * @updates this
+     * @requires 0 <= k <= |this.left * this.right|
+     * @ensures <pre>
+     * this.left * this.right = #this.left * #this.right  and
+     * |this.left| = k
+     * </pre>
+     */
+    public final void moveToPosition(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k <= this.leftLength + this.rightLength : ""
+                + "Violation of: k <= |this.left * this.right|";
+        int length = this.leftLength + this.rightLength;
+        if (k == length) {
+            this.cursor = null;
+        } else {
+            this.cursor = this.select(k);
+        }
+        this.leftLength = k;
+        this.rightLength = length - k;
+        assert this.conventionHolds();
+    }
+
+}
@@ -0,0 +1,365 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List} represented as a gap buffer: one array holding this.left at its
+ * start and this.right at its end, with the unused slots (the "gap") in
+ * between, at the cursor. Includes implementations of primary methods and
+ * {@code retreat} secondary method.
+ *
+ * <p>
+ * Execution-time performance: {@code addRightFront} is O(1) amortized (the
+ * array doubles when the gap is used up); {@code removeRightFront} is O(1)
+ * amortized (the array halves when it is less than a quarter full);
+ * {@code advance}, {@code retreat}, and all other methods implemented in this
+ * class are O(1), except {@code moveToStart} and {@code moveToFinish}, which
+ * move the gap and so are O(|this.left|) and O(|this.right|). Edits near the
+ * cursor touch only neighboring array slots, and iterating scans the array.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ * @convention <pre>
+ * $this.leftLength >= 0  and
+ * $this.rightLength >= 0  and
+ * |$this.entries| >= INITIAL_CAPACITY  and
+ * $this.leftLength + $this.rightLength <= |$this.entries|  and
+ * [entries at positions 0 through $this.leftLength - 1 of $this.entries are
+ *  not null]  and
+ * [entries at positions |$this.entries| - $this.rightLength through
+ *  |$this.entries| - 1 of $this.entries are not null]  and
+ * [all other entries of $this.entries are null]
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  ($this.entries[0, $this.leftLength),
+ *   $this.entries[|$this.entries| - $this.rightLength, |$this.entries|))
+ * </pre>
+ *
+ * @author K. Abukar
+ *
+ */
+public class List6<T> extends ListSecondary<T> {
+
+    /**
+     * Initial (and smallest) length of the array.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Entries of this.left, then the gap, then the entries of this.right.
+     */
+    private Object[] entries;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Length of this.right.
+     */
+    private int rightLength;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.leftLength >= 0  and
+     * $this.rightLength >= 0  and
+     * |$this.entries| >= INITIAL_CAPACITY  and
+     * $this.leftLength + $this.rightLength <= |$this.entries|  and
+     * [entries at positions 0 through $this.leftLength - 1 of $this.entries are
+     *  not null]  and
+     * [entries at positions |$this.entries| - $this.rightLength through
+     *  |$this.entries| - 1 of $this.entries are not null]  and
+     * [all other entries of $this.entries are null]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert this.entries != null : "Violation of: $this.entries is not null";
+        assert this.entries.length >= INITIAL_CAPACITY : ""
+                + "Violation of: |$this.entries| >= INITIAL_CAPACITY";
+        assert this.leftLength + this.rightLength <= this.entries.length : ""
+                + "Violation of: $this.leftLength + $this.rightLength"
+                + " <= |$this.entries|";
+        int gapEnd = this.entries.length - this.rightLength;
+        for (int i = 0; i < this.entries.length; i++) {
+            boolean inGap = this.leftLength <= i && i < gapEnd;
+            assert (this.entries[i] == null) == inGap : ""
+                    + "Violation of: [entries of this.left and this.right are"
+                    + " not null and all other entries of $this.entries are"
+                    + " null]";
+        }
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.entries = new Object[INITIAL_CAPACITY];
+        this.leftLength = 0;
+        this.rightLength = 0;
+    }
+
+    /**
+     * Replaces {@code $this.entries} with an array of length {@code capacity}
+     * holding the same this.left and this.right.
+     *
+     * @param capacity
+     *            the new length of the array
+     * @requires <pre>
+     * capacity >= INITIAL_CAPACITY  and
+     * capacity >= $this.leftLength + $this.rightLength
+     * </pre>
+     */
+    private void resize(int capacity) {
+        Object[] resized = new Object[capacity];
+        System.arraycopy(this.entries, 0, resized, 0, this.leftLength);
+        System.arraycopy(this.entries, this.entries.length - this.rightLength,
+                resized, capacity - this.rightLength, this.rightLength);
+        this.entries = resized;
+    }
+
+    /**
+     * Reports the entry at position {@code i} of {@code $this.entries}.
+     *
+     * @param i
+     *            the position
+     * @return the entry at position {@code i}
+     * @requires [entry at position i of $this.entries is not in the gap]
+     */
+    @SuppressWarnings("unchecked")
+    private T entry(int i) {
+        /*
+         * This cast cannot fail, because only entries of type T are ever put
+         * into the array.
+         */
+        return (T) this.entries[i];
+    }
+
+    /**
+     * No-argument constructor.
+     */
+    public List6() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final List6<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof List6<?> : ""
+                + "Violation of: source is of dynamic type List6<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List6<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List6<T> localSource = (List6<T>) source;
+        this.entries = localSource.entries;
+        this.leftLength = localSource.leftLength;
+        this.rightLength = localSource.rightLength;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+        if (this.leftLength + this.rightLength == this.entries.length) {
+            // No gap left: double the array.
+            this.resize(2 * this.entries.length);
+        }
+        this.rightLength++;
+        this.entries[this.entries.length - this.rightLength] = x;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        int front = this.entries.length - this.rightLength;
+        T removed = this.entry(front);
+        this.entries[front] = null;
+        this.rightLength--;
+        final int quarter = 4;
+        if (this.entries.length > INITIAL_CAPACITY && quarter
+                * (this.leftLength + this.rightLength) < this.entries.length) {
+            // Mostly gap: halve the array.
+            this.resize(this.entries.length / 2);
+        }
+        assert this.conventionHolds();
+        return removed;
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        /*
+         * Move the front of this.right across the gap to the end of this.left
+         * (if there is no gap, it is already there).
+         */
+        int front = this.entries.length - this.rightLength;
+        if (front != this.leftLength) {
+            this.entries[this.leftLength] = this.entries[front];
+            this.entries[front] = null;
+        }
+        this.leftLength++;
+        this.rightLength--;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void moveToStart() {
+        // Move all of this.left across the gap to the front of this.right.
+        int newFront = this.entries.length - this.rightLength - this.leftLength;
+        System.arraycopy(this.entries, 0, this.entries, newFront,
+                this.leftLength);
+        for (int i = 0; i < Math.min(this.leftLength, newFront); i++) {
+            this.entries[i] = null;
+        }
+        this.rightLength += this.leftLength;
+        this.leftLength = 0;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int leftLength() {
+        assert this.conventionHolds();
+        return this.leftLength;
+    }
+
+    @Override
+    public final int rightLength() {
+        assert this.conventionHolds();
+        return this.rightLength;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        assert this.conventionHolds();
+        return new List6Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List6}.
+     */
+    private final class List6Iterator implements Iterator<T> {
+
+        /**
+         * Position in the array of the next entry.
+         */
+        private int index;
+
+        /**
+         * No-argument constructor.
+         */
+        private List6Iterator() {
+            this.index = 0;
+            if (this.index == List6.this.leftLength) {
+                this.index = List6.this.entries.length
+                        - List6.this.rightLength;
+            }
+            assert List6.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.index < List6.this.entries.length;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = List6.this.entry(this.index);
+            this.index++;
+            if (this.index == List6.this.leftLength) {
+                // Skip the gap.
+                this.index = List6.this.entries.length
+                        - List6.this.rightLength;
+            }
+            assert List6.this.conventionHolds();
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void moveToFinish() {
+        // Move all of this.right across the gap to the end of this.left.
+        int front = this.entries.length - this.rightLength;
+        System.arraycopy(this.entries, front, this.entries, this.leftLength,
+                this.rightLength);
+        int newEnd = this.leftLength + this.rightLength;
+        for (int i = Math.max(front, newEnd); i < this.entries.length; i++) {
+            this.entries[i] = null;
+        }
+        this.leftLength += this.rightLength;
+        this.rightLength = 0;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+        /*
+         * Move the end of this.left across the gap to the front of this.right
+         * (if there is no gap, it is already there).
+         */
+        this.leftLength--;
+        this.rightLength++;
+        int front = this.entries.length - this.rightLength;
+        if (front != this.leftLength) {
+            this.entries[front] = this.entries[this.leftLength];
+            this.entries[this.leftLength] = null;
+        }
+        assert this.conventionHolds();
+    }
+
+}
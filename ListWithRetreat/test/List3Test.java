@@ -1,3 +1,13 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.Test;
+
 import components.list.List;
 import components.list.List1L;
 
@@ -16,4 +26,184 @@ public class List3Test extends ListTest {
         return new List1L<String>();
     }
 
+    /**
+     * Tests that checkingLevel matches names in any case, even with a Turkish
+     * default locale, and gives FULL for a missing or misspelled name.
+     */
+    @Test
+    public final void testCheckingLevel() {
+        Locale saved = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            assertEquals(List3.Checking.INCREMENTAL,
+                    List3.checkingLevel("Incremental"));
+            assertEquals(List3.Checking.SAMPLED, List3.checkingLevel("sampled"));
+            assertEquals(List3.Checking.OFF, List3.checkingLevel("oFF"));
+            assertEquals(List3.Checking.FULL, List3.checkingLevel("full"));
+            assertEquals(List3.Checking.FULL, List3.checkingLevel("sampeld"));
+            assertEquals(List3.Checking.FULL, List3.checkingLevel(null));
+        } finally {
+            Locale.setDefault(saved);
+        }
+    }
+
+    /**
+     * Tests that alternating addRightFront and removeRightFront reuses
+     * pooled nodes.
+     */
+    @Test
+    public final void testPoolChurn() {
+        List3<String> list = new List3<String>(2);
+        List<String> listExpected = this.constructorRef();
+        list.addRightFront("a");
+        list.addRightFront("b");
+        assertEquals(0, list.poolSize());
+        assertEquals("b", list.removeRightFront());
+        assertEquals(1, list.poolSize());
+        for (int i = 0; i < 10; i++) {
+            list.addRightFront("c");
+            assertEquals(0, list.poolSize());
+            assertEquals("c", list.removeRightFront());
+            assertEquals(1, list.poolSize());
+        }
+        listExpected.addRightFront("a");
+        assertEquals(listExpected, list);
+        assertEquals(10.0 / 12.0, list.poolHitRate(), 0.0);
+    }
+
+    /**
+     * Tests that the pool keeps no more than its capacity, survives clear, and
+     * that newInstance keeps the capacity.
+     */
+    @Test
+    public final void testPoolCapacity() {
+        List3<String> list = new List3<String>(2);
+        list.addRightFront("a");
+        list.addRightFront("b");
+        list.addRightFront("c");
+        list.removeRightFront();
+        list.removeRightFront();
+        list.removeRightFront();
+        assertEquals(2, list.poolSize());
+        list.clear();
+        assertEquals(2, list.poolSize());
+        List3<String> other = list.newInstance();
+        other.addRightFront("d");
+        other.removeRightFront();
+        assertEquals(1, other.poolSize());
+        assertEquals(0.0, new List3<String>().poolHitRate(), 0.0);
+    }
+
+    /**
+     * Tests that a parallel stream over a long list sees every entry, in
+     * order.
+     */
+    @Test
+    public final void testSpliteratorParallelStream() {
+        final int n = 5000;
+        List3<String> list = new List3<String>();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            list.addRightFront(Integer.toString(n - 1 - i));
+            expected.append(i);
+        }
+        list.advance();
+        String joined = StreamSupport.stream(list.spliterator(), true)
+                .collect(Collectors.joining());
+        assertEquals(expected.toString(), joined);
+        assertEquals(1, list.leftLength());
+    }
+
+    /**
+     * Tests that trySplit splits a long list into two sized parts and does
+     * not split a short one.
+     */
+    @Test
+    public final void testSpliteratorTrySplit() {
+        final int n = 1000;
+        List3<String> list = new List3<String>();
+        for (int i = 0; i < n; i++) {
+            list.addRightFront("x");
+        }
+        Spliterator<String> suffix = list.spliterator();
+        Spliterator<String> prefix = suffix.trySplit();
+        assertEquals(n, prefix.estimateSize() + suffix.estimateSize());
+        assertEquals(true, prefix.estimateSize() > 0);
+        assertEquals(true, suffix.estimateSize() > 0);
+        List3<String> shortList = (List3<String>) this.createFromArgsTest(0,
+                "a", "b", "c");
+        assertEquals(null, shortList.spliterator().trySplit());
+    }
+
+    /**
+     * Tests forEachRemaining on an iterator that has already returned an
+     * entry.
+     */
+    @Test
+    public final void testIteratorForEachRemaining() {
+        List<String> list = this.createFromArgsTest(1, "a", "b", "c");
+        Iterator<String> it = list.iterator();
+        assertEquals("a", it.next());
+        StringBuilder rest = new StringBuilder();
+        it.forEachRemaining(rest::append);
+        assertEquals("bc", rest.toString());
+        assertEquals(false, it.hasNext());
+    }
+
+    /**
+     * Tests spliceAppend with both lists non-empty.
+     */
+    @Test
+    public final void testSpliceAppend() {
+        List3<String> list = (List3<String>) this.createFromArgsTest(1, "a",
+                "b");
+        List3<String> extension = (List3<String>) this.createFromArgsTest(1,
+                "c", "d");
+        List<String> listExpected = this.createFromArgsRef(1, "a", "b", "c",
+                "d");
+        List<String> extensionExpected = this.createFromArgsRef(0);
+        list.spliceAppend(extension);
+        assertEquals(listExpected, list);
+        assertEquals(extensionExpected, extension);
+    }
+
+    /**
+     * Tests spliceAtCursor with the cursor in the middle.
+     */
+    @Test
+    public final void testSpliceAtCursor() {
+        List3<String> list = (List3<String>) this.createFromArgsTest(1, "a",
+                "d");
+        List3<String> insertion = (List3<String>) this.createFromArgsTest(2,
+                "b", "c");
+        List<String> listExpected = this.createFromArgsRef(1, "a", "b", "c",
+                "d");
+        List<String> insertionExpected = this.createFromArgsRef(0);
+        list.spliceAtCursor(insertion);
+        assertEquals(listExpected, list);
+        assertEquals(insertionExpected, insertion);
+        list.spliceAtCursor(insertion);
+        assertEquals(listExpected, list);
+    }
+
+    /**
+     * Tests splitRight, then splicing the split-off part back.
+     */
+    @Test
+    public final void testSplitRight() {
+        List3<String> list = (List3<String>) this.createFromArgsTest(2, "a",
+                "b", "c", "d");
+        List<String> listExpected = this.createFromArgsRef(2, "a", "b");
+        List<String> splitExpected = this.createFromArgsRef(0, "c", "d");
+        List3<String> split = list.splitRight();
+        assertEquals(listExpected, list);
+        assertEquals(splitExpected, split);
+        List<String> emptyExpected = this.createFromArgsRef(0);
+        assertEquals(emptyExpected, list.splitRight());
+        list.spliceAppend(split);
+        listExpected.addRightFront("d");
+        listExpected.addRightFront("c");
+        assertEquals(listExpected, list);
+    }
+
 }
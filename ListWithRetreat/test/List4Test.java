@@ -0,0 +1,83 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code List4}.
+ */
+public class List4Test extends ListTest {
+
+    /**
+     * Number of entries used to span several blocks.
+     */
+    private static final int MANY = 1000;
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List4<String>();
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+    /**
+     * Tests adding at the front of this.right, with the cursor in the middle,
+     * enough entries to split blocks, then moving across all of them.
+     */
+    @Test
+    public final void testAddRightFrontManyMiddle() {
+        List<String> list = this.constructorTest();
+        List<String> listExpected = this.constructorRef();
+        for (int i = 0; i < MANY; i++) {
+            list.addRightFront(Integer.toString(i));
+            listExpected.addRightFront(Integer.toString(i));
+            if (i % 3 == 0) {
+                list.advance();
+                listExpected.advance();
+            }
+        }
+        assertEquals(listExpected, list);
+        list.moveToFinish();
+        listExpected.moveToFinish();
+        for (int i = 0; i < MANY / 2; i++) {
+            list.retreat();
+            listExpected.retreat();
+        }
+        assertEquals(listExpected, list);
+    }
+
+    /**
+     * Tests removing many entries, from the middle, so blocks merge.
+     */
+    @Test
+    public final void testRemoveRightFrontManyMiddle() {
+        List<String> list = this.constructorTest();
+        List<String> listExpected = this.constructorRef();
+        for (int i = 0; i < MANY; i++) {
+            list.addRightFront(Integer.toString(i));
+            listExpected.addRightFront(Integer.toString(i));
+        }
+        for (int i = 0; i < MANY / 4; i++) {
+            list.advance();
+            listExpected.advance();
+        }
+        for (int i = 0; i < MANY / 2; i++) {
+            assertEquals(listExpected.removeRightFront(),
+                    list.removeRightFront());
+        }
+        assertEquals(listExpected, list);
+        list.moveToStart();
+        listExpected.moveToStart();
+        while (listExpected.rightLength() > 0) {
+            assertEquals(listExpected.removeRightFront(),
+                    list.removeRightFront());
+        }
+        assertEquals(listExpected, list);
+    }
+
+}
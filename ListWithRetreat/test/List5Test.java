@@ -0,0 +1,80 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code List5}.
+ */
+public class List5Test extends ListTest {
+
+    /**
+     * Number of entries used to build a tree of some depth.
+     */
+    private static final int MANY = 500;
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List5<String>();
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+    /**
+     * Tests moveToPosition to the start, the middle, and the end.
+     */
+    @Test
+    public final void testMoveToPosition() {
+        List5<String> list = new List5<String>();
+        List<String> listExpected = this.createFromArgsRef(1, "red", "green",
+                "blue", "yellow");
+        list.addRightFront("yellow");
+        list.addRightFront("blue");
+        list.addRightFront("green");
+        list.addRightFront("red");
+        list.moveToPosition(1);
+        assertEquals(listExpected, list);
+        list.moveToPosition(4);
+        listExpected.moveToFinish();
+        assertEquals(listExpected, list);
+        list.moveToPosition(0);
+        listExpected.moveToStart();
+        assertEquals(listExpected, list);
+    }
+
+    /**
+     * Tests moveToPosition, then adding and removing there, on a longer list.
+     */
+    @Test
+    public final void testMoveToPositionMany() {
+        List5<String> list = new List5<String>();
+        List<String> listExpected = this.constructorRef();
+        for (int i = 0; i < MANY; i++) {
+            list.addRightFront(Integer.toString(i));
+            listExpected.addRightFront(Integer.toString(i));
+        }
+        for (int k = 0; k <= MANY; k += 37) {
+            list.moveToPosition(k);
+            listExpected.moveToStart();
+            for (int i = 0; i < k; i++) {
+                listExpected.advance();
+            }
+            assertEquals(listExpected, list);
+            list.addRightFront("x");
+            listExpected.addRightFront("x");
+            list.advance();
+            listExpected.advance();
+            if (listExpected.rightLength() > 0) {
+                assertEquals(listExpected.removeRightFront(),
+                        list.removeRightFront());
+            }
+            assertEquals(listExpected, list);
+        }
+    }
+
+}
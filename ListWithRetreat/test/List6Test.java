@@ -0,0 +1,77 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code List6}.
+ */
+public class List6Test extends ListTest {
+
+    /**
+     * Number of entries used to make the array grow and shrink.
+     */
+    private static final int MANY = 200;
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List6<String>();
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+    /**
+     * Tests adding enough entries to fill the array, then moving the cursor
+     * across the full array (with no gap) and to both ends.
+     */
+    @Test
+    public final void testAddRightFrontManyThenMove() {
+        List<String> list = this.constructorTest();
+        List<String> listExpected = this.constructorRef();
+        for (int i = 0; i < MANY; i++) {
+            list.addRightFront(Integer.toString(i));
+            listExpected.addRightFront(Integer.toString(i));
+            if (i % 2 == 0) {
+                list.advance();
+                listExpected.advance();
+            }
+        }
+        assertEquals(listExpected, list);
+        list.retreat();
+        listExpected.retreat();
+        list.moveToStart();
+        listExpected.moveToStart();
+        assertEquals(listExpected, list);
+        list.advance();
+        listExpected.advance();
+        list.moveToFinish();
+        listExpected.moveToFinish();
+        assertEquals(listExpected, list);
+    }
+
+    /**
+     * Tests removing most entries, so the array shrinks.
+     */
+    @Test
+    public final void testRemoveRightFrontManyShrink() {
+        List<String> list = this.constructorTest();
+        List<String> listExpected = this.constructorRef();
+        for (int i = 0; i < MANY; i++) {
+            list.addRightFront(Integer.toString(i));
+            listExpected.addRightFront(Integer.toString(i));
+        }
+        list.advance();
+        listExpected.advance();
+        for (int i = 0; i < MANY - 2; i++) {
+            assertEquals(listExpected.removeRightFront(),
+                    list.removeRightFront());
+        }
+        assertEquals(listExpected, list);
+    }
+
+}
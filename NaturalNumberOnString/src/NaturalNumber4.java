@@ -0,0 +1,2111 @@
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumberSecondary;
+
+/**
+ * {@code NaturalNumber} represented as an array of base-10<sup>9</sup> "limbs"
+ * (least significant first) followed by a short "tail" of decimal digits, with
+ * implementations of primary methods and of {@code add}, {@code subtract},
+ * {@code multiply}, {@code divide}, {@code compareTo}, and {@code toString}
+ * working on whole limbs.
+ *
+ * <p>
+ * {@code multiplyBy10} appends a digit to the tail, and, once the tail has
+ * {@code DIGITS_PER_LIMB} digits, moves it into a new least significant limb
+ * (the array keeps free room below the least significant limb for this);
+ * {@code divideBy10} removes the last digit of the tail, first turning the
+ * least significant limb into the tail if the tail is empty. So both are O(1)
+ * amortized, rather than O(number of digits) as in {@code NaturalNumber3}. The
+ * other methods implemented in this class first fold the tail into the limbs
+ * ("normalize"), and then take O(number of limbs) time, except
+ * {@code multiply} and {@code divide}.
+ * </p>
+ *
+ * <p>
+ * {@code multiply} uses the schoolbook method (O(product of the numbers of
+ * limbs)) for short factors, Karatsuba's method (O(n<sup>1.58</sup>)) from
+ * {@code KARATSUBA_THRESHOLD} limbs, and Toom-3 (O(n<sup>1.46</sup>)) from
+ * {@code TOOM3_THRESHOLD} limbs; from {@code PARALLEL_THRESHOLD} limbs the
+ * subproducts are computed in parallel in the common {@code ForkJoinPool}.
+ * {@code divide} uses Knuth's Algorithm D (O(product of the numbers of limbs))
+ * for short divisors, and Burnikel-Ziegler recursive division, whose cost is
+ * within a logarithmic factor of that of {@code multiply}, from
+ * {@code BURNIKEL_ZIEGLER_THRESHOLD} limbs.
+ * </p>
+ *
+ * @convention <pre>
+ * $this.limbs is not null  and
+ * 0 <= $this.offset  and  0 <= $this.length  and
+ * $this.offset + $this.length <= |$this.limbs|  and
+ * [every entry of $this.limbs[$this.offset, $this.offset + $this.length) is
+ *  between 0 and BASE - 1]  and
+ * [if $this.length > 0 then $this.limbs[$this.offset + $this.length - 1] > 0]
+ *  and
+ * 0 <= $this.tailDigits < DIGITS_PER_LIMB  and
+ * 0 <= $this.tail < 10^($this.tailDigits)  and
+ * [if $this.length = 0 and $this.tail = 0 then $this.tailDigits = 0]
+ * </pre>
+ * @correspondence <pre>
+ * this = (sum over 0 <= i < $this.length of
+ *           $this.limbs[$this.offset + i] * BASE^i)
+ *        * 10^($this.tailDigits) + $this.tail
+ * </pre>
+ *
+ * @author K. Abukar
+ *
+ */
+public class NaturalNumber4 extends NaturalNumberSecondary {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Number of decimal digits in a limb.
+     */
+    private static final int DIGITS_PER_LIMB = 9;
+
+    /**
+     * Base of the limbs, 10^DIGITS_PER_LIMB.
+     */
+    private static final int BASE = 1_000_000_000;
+
+    /**
+     * Powers of 10, from 10^0 through 10^DIGITS_PER_LIMB.
+     */
+    private static final int[] POWERS_OF_10 = { 1, 10, 100, 1_000, 10_000,
+        100_000, 1_000_000, 10_000_000, 100_000_000, BASE };
+
+    /**
+     * Initial length of the limb array.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Number of limbs in the shorter factor from which {@code multiply} uses
+     * Karatsuba's method rather than the schoolbook method.
+     */
+    private static final int KARATSUBA_THRESHOLD = 40;
+
+    /**
+     * Number of limbs in the shorter factor from which {@code multiply} uses
+     * Toom-3 rather than Karatsuba's method.
+     */
+    private static final int TOOM3_THRESHOLD = 160;
+
+    /**
+     * Number of limbs in a factor from which {@code multiply} computes the
+     * subproducts of Karatsuba's method or Toom-3 in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 2_000;
+
+    /**
+     * Number of limbs in the divisor from which {@code divide} uses
+     * Burnikel-Ziegler recursive division rather than Knuth's Algorithm D.
+     */
+    private static final int BURNIKEL_ZIEGLER_THRESHOLD = 80;
+
+    /**
+     * Number of limbs by which the dividend must be longer than the divisor
+     * for {@code divide} to use Burnikel-Ziegler recursive division.
+     */
+    private static final int BURNIKEL_ZIEGLER_OFFSET = 40;
+
+    /**
+     * Number of limbs up to which conversion to and from {@code BigInteger}
+     * goes limb by limb rather than by divide and conquer.
+     */
+    private static final int BIG_INTEGER_LEAF_LIMBS = 32;
+
+    /**
+     * Limbs, least significant first, in positions offset through offset +
+     * length - 1.
+     */
+    private int[] limbs;
+
+    /**
+     * Position in {@code limbs} of the least significant limb.
+     */
+    private int offset;
+
+    /**
+     * Number of limbs.
+     */
+    private int length;
+
+    /**
+     * Value of the trailing decimal digits not yet in a limb.
+     */
+    private int tail;
+
+    /**
+     * Number of trailing decimal digits not yet in a limb.
+     */
+    private int tailDigits;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.limbs is not null  and
+     * 0 <= $this.offset  and  0 <= $this.length  and
+     * $this.offset + $this.length <= |$this.limbs|  and
+     * [if $this.length > 0 then $this.limbs[$this.offset + $this.length - 1] > 0]
+     *  and
+     * 0 <= $this.tailDigits < DIGITS_PER_LIMB  and
+     * 0 <= $this.tail < 10^($this.tailDigits)  and
+     * [if $this.length = 0 and $this.tail = 0 then $this.tailDigits = 0]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.limbs != null : "Violation of: $this.limbs is not null";
+        assert 0 <= this.offset : "Violation of: 0 <= $this.offset";
+        assert 0 <= this.length : "Violation of: 0 <= $this.length";
+        assert this.offset + this.length <= this.limbs.length : ""
+                + "Violation of: $this.offset + $this.length <= |$this.limbs|";
+        assert this.length == 0
+                || this.limbs[this.offset + this.length - 1] > 0 : ""
+                        + "Violation of: [if $this.length > 0 then"
+                        + " $this.limbs[$this.offset + $this.length - 1] > 0]";
+        assert 0 <= this.tailDigits && this.tailDigits < DIGITS_PER_LIMB : ""
+                + "Violation of: 0 <= $this.tailDigits < DIGITS_PER_LIMB";
+        assert 0 <= this.tail && this.tail < POWERS_OF_10[this.tailDigits] : ""
+                + "Violation of: 0 <= $this.tail < 10^($this.tailDigits)";
+        assert this.length > 0 || this.tail > 0 || this.tailDigits == 0 : ""
+                + "Violation of: [if $this.length = 0 and $this.tail = 0 then"
+                + " $this.tailDigits = 0]";
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.limbs = new int[INITIAL_CAPACITY];
+        this.offset = INITIAL_CAPACITY;
+        this.length = 0;
+        this.tail = 0;
+        this.tailDigits = 0;
+    }
+
+    /**
+     * Makes {@code $this.limbs} hold the limbs {@code mag[0, magLength)},
+     * with no tail, dropping most significant zero limbs.
+     *
+     * @param mag
+     *            the limbs, least significant first
+     * @param magLength
+     *            the number of limbs in {@code mag} to use
+     * @requires 0 <= magLength <= |mag|
+     * @ensures this = [value of mag[0, magLength) in base BASE]
+     */
+    private void setLimbs(int[] mag, int magLength) {
+        int n = magLength;
+        while (n > 0 && mag[n - 1] == 0) {
+            n--;
+        }
+        this.limbs = mag;
+        this.offset = 0;
+        this.length = n;
+        this.tail = 0;
+        this.tailDigits = 0;
+    }
+
+    /**
+     * Makes {@code $this} have the value of {@code src[srcOffset, srcOffset +
+     * n)}, copying it into the current limb array if that is big enough.
+     *
+     * @param src
+     *            the limbs, least significant first
+     * @param srcOffset
+     *            position of the least significant limb
+     * @param n
+     *            number of limbs (possibly with most significant zero limbs)
+     * @replaces this
+     * @requires [every entry of src[srcOffset, srcOffset + n) is between 0
+     *           and BASE - 1]
+     */
+    private void copyLimbs(int[] src, int srcOffset, int n) {
+        int k = n;
+        while (k > 0 && src[srcOffset + k - 1] == 0) {
+            k--;
+        }
+        if (this.limbs.length < k) {
+            this.limbs = new int[k + INITIAL_CAPACITY];
+        }
+        System.arraycopy(src, srcOffset, this.limbs, 0, k);
+        this.offset = 0;
+        this.length = k;
+        this.tail = 0;
+        this.tailDigits = 0;
+    }
+
+    /**
+     * Makes sure there are at least {@code low} free positions below the
+     * least significant limb and {@code high} free positions above the most
+     * significant one, moving the limbs to a bigger array if needed.
+     *
+     * @param low
+     *            number of free positions needed below the limbs
+     * @param high
+     *            number of free positions needed above the limbs
+     * @ensures this = #this
+     */
+    private void ensureRoom(int low, int high) {
+        int above = this.limbs.length - this.offset - this.length;
+        if (this.offset < low || above < high) {
+            /*
+             * Double the room that is short, so that repeatedly adding limbs
+             * at either end takes O(1) amortized time.
+             */
+            int newLow = Math.max(low, this.offset);
+            if (this.offset < low) {
+                newLow = Math.max(low, this.length + INITIAL_CAPACITY);
+            }
+            int newHigh = Math.max(high, above);
+            if (above < high) {
+                newHigh = Math.max(high, this.length + INITIAL_CAPACITY);
+            }
+            int[] grown = new int[newLow + this.length + newHigh];
+            System.arraycopy(this.limbs, this.offset, grown, newLow,
+                    this.length);
+            this.limbs = grown;
+            this.offset = newLow;
+        }
+    }
+
+    /**
+     * Folds the tail into the limbs, so that {@code $this.tailDigits = 0} and
+     * all of the value is in the limbs.
+     *
+     * @ensures this = #this and $this.tailDigits = 0
+     */
+    private void normalize() {
+        if (this.tailDigits > 0) {
+            /*
+             * limbs * 10^tailDigits + tail: one pass of multiplying by a small
+             * number, with the tail as the initial carry.
+             */
+            long factor = POWERS_OF_10[this.tailDigits];
+            long carry = this.tail;
+            int end = this.offset + this.length;
+            for (int i = this.offset; i < end; i++) {
+                long v = this.limbs[i] * factor + carry;
+                this.limbs[i] = (int) (v % BASE);
+                carry = v / BASE;
+            }
+            if (carry > 0) {
+                this.ensureRoom(0, 1);
+                this.limbs[this.offset + this.length] = (int) carry;
+                this.length++;
+            }
+            this.tail = 0;
+            this.tailDigits = 0;
+        }
+    }
+
+    /**
+     * Reports the number of decimal digits of {@code x}.
+     *
+     * @param x
+     *            the number
+     * @return the number of digits of x
+     * @requires 0 < x < BASE
+     * @ensures digitCount = |TO_STRING(x)|
+     */
+    private static int digitCount(int x) {
+        int result = 1;
+        while (result < DIGITS_PER_LIMB && x >= POWERS_OF_10[result]) {
+            result++;
+        }
+        return result;
+    }
+
+    /**
+     * Compares the limbs of two normalized {@code NaturalNumber4}s.
+     *
+     * @param a
+     *            one number
+     * @param b
+     *            the other number
+     * @return negative, zero, or positive as a is less than, equal to, or
+     *         greater than b
+     * @requires a.tailDigits = 0 and b.tailDigits = 0
+     */
+    private static int compareLimbs(NaturalNumber4 a, NaturalNumber4 b) {
+        return compareLimbs(a.limbs, a.offset, a.length, b.limbs, b.offset,
+                b.length);
+    }
+
+    /**
+     * Compares two magnitudes without most significant zero limbs.
+     *
+     * @param a
+     *            limbs of one number
+     * @param aOffset
+     *            position of the least significant limb of {@code a}
+     * @param aLength
+     *            number of limbs of {@code a}
+     * @param b
+     *            limbs of the other number
+     * @param bOffset
+     *            position of the least significant limb of {@code b}
+     * @param bLength
+     *            number of limbs of {@code b}
+     * @return negative, zero, or positive as a is less than, equal to, or
+     *         greater than b
+     */
+    private static int compareLimbs(int[] a, int aOffset, int aLength,
+            int[] b, int bOffset, int bLength) {
+        int result = Integer.compare(aLength, bLength);
+        for (int i = aLength - 1; result == 0 && i >= 0; i--) {
+            result = Integer.compare(a[aOffset + i], b[bOffset + i]);
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies the magnitude {@code a[0, aLength)} by {@code b[0, bLength)}
+     * into {@code r[0, aLength + bLength)} by the schoolbook method.
+     *
+     * @param a
+     *            limbs of one factor
+     * @param aOffset
+     *            position of the least significant limb of {@code a}
+     * @param aLength
+     *            number of limbs of {@code a}
+     * @param b
+     *            limbs of the other factor
+     * @param bOffset
+     *            position of the least significant limb of {@code b}
+     * @param bLength
+     *            number of limbs of {@code b}
+     * @return the limbs of the product, aLength + bLength of them
+     */
+    private static int[] multiplyLimbs(int[] a, int aOffset, int aLength,
+            int[] b, int bOffset, int bLength) {
+        int[] r = new int[aLength + bLength];
+        multiplyLimbsInto(a, aOffset, aLength, b, bOffset, bLength, r);
+        return r;
+    }
+
+    /**
+     * Multiplies the magnitude {@code a[0, aLength)} by {@code b[0, bLength)}
+     * into a caller-provided {@code r[0, aLength + bLength)} by the schoolbook
+     * method.
+     *
+     * @param a
+     *            limbs of one factor
+     * @param aOffset
+     *            position of the least significant limb of {@code a}
+     * @param aLength
+     *            number of limbs of {@code a}
+     * @param b
+     *            limbs of the other factor
+     * @param bOffset
+     *            position of the least significant limb of {@code b}
+     * @param bLength
+     *            number of limbs of {@code b}
+     * @param r
+     *            room for the product
+     * @updates r
+     * @requires |r| >= aLength + bLength and [r is not a or b]
+     */
+    private static void multiplyLimbsInto(int[] a, int aOffset, int aLength,
+            int[] b, int bOffset, int bLength, int[] r) {
+        for (int i = 0; i < aLength + bLength; i++) {
+            r[i] = 0;
+        }
+        for (int i = 0; i < aLength; i++) {
+            long ai = a[aOffset + i];
+            if (ai != 0) {
+                long carry = 0;
+                for (int j = 0; j < bLength; j++) {
+                    long v = r[i + j] + ai * b[bOffset + j] + carry;
+                    r[i + j] = (int) (v % BASE);
+                    carry = v / BASE;
+                }
+                r[i + bLength] = (int) carry;
+            }
+        }
+    }
+
+    /**
+     * Returns {@code a[from, to)} (clamped to the length of {@code a}) as a new
+     * array without most significant zero limbs.
+     *
+     * @param a
+     *            the limbs
+     * @param from
+     *            position of the first limb to copy
+     * @param to
+     *            position just after the last limb to copy
+     * @return the copied limbs, trimmed
+     */
+    private static int[] slice(int[] a, int from, int to) {
+        int end = Math.min(to, a.length);
+        while (end > from && a[end - 1] == 0) {
+            end--;
+        }
+        int[] s = new int[Math.max(0, end - from)];
+        if (s.length > 0) {
+            System.arraycopy(a, from, s, 0, s.length);
+        }
+        return s;
+    }
+
+    /**
+     * Returns {@code a} without most significant zero limbs.
+     *
+     * @param a
+     *            the limbs
+     * @return {@code a} itself if it has no most significant zero limbs, or a
+     *         trimmed copy
+     */
+    private static int[] trim(int[] a) {
+        int[] trimmed = a;
+        if (a.length > 0 && a[a.length - 1] == 0) {
+            trimmed = slice(a, 0, a.length);
+        }
+        return trimmed;
+    }
+
+    /**
+     * Compares two trimmed magnitudes.
+     *
+     * @param a
+     *            one magnitude
+     * @param b
+     *            the other magnitude
+     * @return negative, zero, or positive as a is less than, equal to, or
+     *         greater than b
+     */
+    private static int compareMag(int[] a, int[] b) {
+        int result = Integer.compare(a.length, b.length);
+        for (int i = a.length - 1; result == 0 && i >= 0; i--) {
+            result = Integer.compare(a[i], b[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the trimmed sum of two trimmed magnitudes.
+     *
+     * @param a
+     *            one magnitude
+     * @param b
+     *            the other magnitude
+     * @return a + b
+     */
+    private static int[] addMag(int[] a, int[] b) {
+        int[] r = new int[Math.max(a.length, b.length) + 1];
+        System.arraycopy(a, 0, r, 0, a.length);
+        addInto(r, 0, b);
+        return trim(r);
+    }
+
+    /**
+     * Returns the trimmed difference of two trimmed magnitudes.
+     *
+     * @param a
+     *            the larger magnitude
+     * @param b
+     *            the smaller magnitude
+     * @return a - b
+     * @requires a >= b
+     */
+    private static int[] subtractMag(int[] a, int[] b) {
+        int[] r = a.clone();
+        int borrow = 0;
+        for (int i = 0; i < r.length && (i < b.length || borrow > 0); i++) {
+            int s = r[i] - borrow;
+            if (i < b.length) {
+                s -= b[i];
+            }
+            if (s < 0) {
+                s += BASE;
+                borrow = 1;
+            } else {
+                borrow = 0;
+            }
+            r[i] = s;
+        }
+        return trim(r);
+    }
+
+    /**
+     * Adds {@code p} into {@code r}, starting at limb {@code at}.
+     *
+     * @param r
+     *            the limbs to add into
+     * @param at
+     *            the position in {@code r} of the least significant limb of
+     *            {@code p}
+     * @param p
+     *            the limbs to add
+     * @updates r
+     * @requires [r is long enough to hold the sum]
+     */
+    private static void addInto(int[] r, int at, int[] p) {
+        int carry = 0;
+        int i = 0;
+        while (i < p.length || carry > 0) {
+            int s = r[at + i] + carry;
+            if (i < p.length) {
+                s += p[i];
+            }
+            if (s >= BASE) {
+                s -= BASE;
+                carry = 1;
+            } else {
+                carry = 0;
+            }
+            r[at + i] = s;
+            i++;
+        }
+    }
+
+    /**
+     * Returns the trimmed product of a trimmed magnitude and a small number.
+     *
+     * @param a
+     *            the magnitude
+     * @param m
+     *            the small factor
+     * @return a * m
+     * @requires 0 <= m < BASE
+     */
+    private static int[] multiplySmall(int[] a, int m) {
+        int[] r = new int[a.length + 1];
+        long carry = 0;
+        for (int i = 0; i < a.length; i++) {
+            long v = (long) a[i] * m + carry;
+            r[i] = (int) (v % BASE);
+            carry = v / BASE;
+        }
+        r[a.length] = (int) carry;
+        return trim(r);
+    }
+
+    /**
+     * Returns the trimmed quotient of a trimmed magnitude and a small number
+     * that divides it exactly.
+     *
+     * @param a
+     *            the magnitude
+     * @param m
+     *            the small divisor
+     * @return a / m
+     * @requires 0 < m < BASE and [m divides a]
+     */
+    private static int[] divideSmallExact(int[] a, int m) {
+        int[] q = new int[a.length];
+        long rem = 0;
+        for (int i = a.length - 1; i >= 0; i--) {
+            long x = rem * BASE + a[i];
+            q[i] = (int) (x / m);
+            rem = x % m;
+        }
+        assert rem == 0 : "Violation of: [m divides a]";
+        return trim(q);
+    }
+
+    /**
+     * Signed number for Toom-3 interpolation: a trimmed magnitude and a sign.
+     */
+    private static final class Signed {
+
+        /**
+         * Zero.
+         */
+        private static final Signed ZERO = new Signed(new int[0], 0);
+
+        /**
+         * Magnitude.
+         */
+        private final int[] mag;
+
+        /**
+         * Sign: -1, 0, or 1.
+         */
+        private final int sign;
+
+        /**
+         * Constructor.
+         *
+         * @param mag
+         *            trimmed magnitude
+         * @param sign
+         *            sign (ignored if mag is zero)
+         */
+        private Signed(int[] mag, int sign) {
+            this.mag = mag;
+            if (mag.length == 0) {
+                this.sign = 0;
+            } else {
+                this.sign = sign;
+            }
+        }
+
+        /**
+         * Returns this + y.
+         *
+         * @param y
+         *            the other addend
+         * @return the sum
+         */
+        private Signed plus(Signed y) {
+            Signed sum;
+            if (this.sign == 0) {
+                sum = y;
+            } else if (y.sign == 0) {
+                sum = this;
+            } else if (this.sign == y.sign) {
+                sum = new Signed(addMag(this.mag, y.mag), this.sign);
+            } else {
+                int c = compareMag(this.mag, y.mag);
+                if (c == 0) {
+                    sum = ZERO;
+                } else if (c > 0) {
+                    sum = new Signed(subtractMag(this.mag, y.mag), this.sign);
+                } else {
+                    sum = new Signed(subtractMag(y.mag, this.mag), y.sign);
+                }
+            }
+            return sum;
+        }
+
+        /**
+         * Returns this - y.
+         *
+         * @param y
+         *            the subtrahend
+         * @return the difference
+         */
+        private Signed minus(Signed y) {
+            return this.plus(new Signed(y.mag, -y.sign));
+        }
+
+        /**
+         * Returns this * m.
+         *
+         * @param m
+         *            small non-negative factor
+         * @return the product
+         */
+        private Signed times(int m) {
+            return new Signed(multiplySmall(this.mag, m), this.sign);
+        }
+
+        /**
+         * Returns this / m, which must be exact.
+         *
+         * @param m
+         *            small positive divisor
+         * @return the quotient
+         */
+        private Signed dividedBy(int m) {
+            return new Signed(divideSmallExact(this.mag, m), this.sign);
+        }
+
+    }
+
+    /**
+     * Task computing one product, so subproducts of large multiplications can
+     * run in parallel in a {@code ForkJoinPool}.
+     */
+    private static final class MultiplyTask extends RecursiveTask<int[]> {
+
+        /**
+         * Serialization version (required by {@code RecursiveTask}).
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * One factor.
+         */
+        private final int[] a;
+
+        /**
+         * The other factor.
+         */
+        private final int[] b;
+
+        /**
+         * Constructor.
+         *
+         * @param a
+         *            one trimmed factor
+         * @param b
+         *            the other trimmed factor
+         */
+        private MultiplyTask(int[] a, int[] b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        protected int[] compute() {
+            return multiplyMag(this.a, this.b);
+        }
+
+    }
+
+    /**
+     * Returns the products {@code xs[i] * ys[i]}, computed in parallel if the
+     * factors have at least {@code PARALLEL_THRESHOLD} limbs and this is
+     * running in a {@code ForkJoinPool}.
+     *
+     * @param xs
+     *            the left factors, trimmed
+     * @param ys
+     *            the right factors, trimmed
+     * @param size
+     *            the number of limbs of the factors being split
+     * @return the trimmed products
+     */
+    private static int[][] multiplyAll(int[][] xs, int[][] ys, int size) {
+        int[][] products = new int[xs.length][];
+        if (size >= PARALLEL_THRESHOLD && ForkJoinTask.inForkJoinPool()) {
+            MultiplyTask[] tasks = new MultiplyTask[xs.length];
+            for (int i = 0; i < xs.length; i++) {
+                tasks[i] = new MultiplyTask(xs[i], ys[i]);
+            }
+            ForkJoinTask.invokeAll(tasks);
+            for (int i = 0; i < xs.length; i++) {
+                products[i] = tasks[i].join();
+            }
+        } else {
+            for (int i = 0; i < xs.length; i++) {
+                products[i] = multiplyMag(xs[i], ys[i]);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Returns the trimmed product of two trimmed magnitudes, choosing the
+     * schoolbook method, Karatsuba, or Toom-3 by the size of the shorter one.
+     *
+     * @param x
+     *            one factor
+     * @param y
+     *            the other factor
+     * @return x * y
+     */
+    private static int[] multiplyMag(int[] x, int[] y) {
+        int[] a = x;
+        int[] b = y;
+        if (a.length < b.length) {
+            a = y;
+            b = x;
+        }
+        // Now a is at least as long as b.
+        int[] r;
+        if (b.length == 0) {
+            r = b;
+        } else if (b.length < KARATSUBA_THRESHOLD) {
+            r = trim(multiplyLimbs(a, 0, a.length, b, 0, b.length));
+        } else if (a.length >= 2 * b.length) {
+            r = multiplyUnbalanced(a, b);
+        } else if (b.length < TOOM3_THRESHOLD) {
+            r = multiplyKaratsuba(a, b);
+        } else {
+            r = multiplyToom3(a, b);
+        }
+        return r;
+    }
+
+    /**
+     * Returns the trimmed product of {@code a} and a much shorter {@code b},
+     * multiplying {@code b} by pieces of {@code a} as long as {@code b}.
+     *
+     * @param a
+     *            the longer factor, trimmed
+     * @param b
+     *            the shorter factor, trimmed
+     * @return a * b
+     * @requires |a| >= 2 * |b| > 0
+     */
+    private static int[] multiplyUnbalanced(int[] a, int[] b) {
+        int[] r = new int[a.length + b.length + 1];
+        for (int start = 0; start < a.length; start += b.length) {
+            int[] piece = slice(a, start, start + b.length);
+            addInto(r, start, multiplyMag(piece, b));
+        }
+        return trim(r);
+    }
+
+    /**
+     * Returns the trimmed product of {@code a} and {@code b} by Karatsuba's
+     * method: three half-size products instead of four.
+     *
+     * @param a
+     *            the longer factor, trimmed
+     * @param b
+     *            the shorter factor, trimmed
+     * @return a * b
+     * @requires |b| <= |a| < 2 * |b|
+     */
+    private static int[] multiplyKaratsuba(int[] a, int[] b) {
+        int k = (a.length + 1) / 2;
+        int[] a0 = slice(a, 0, k);
+        int[] a1 = slice(a, k, a.length);
+        int[] b0 = slice(b, 0, k);
+        int[] b1 = slice(b, k, b.length);
+        int[][] p = multiplyAll(
+                new int[][] { a0, a1, addMag(a0, a1) },
+                new int[][] { b0, b1, addMag(b0, b1) }, a.length);
+        // (a0 + a1)(b0 + b1) - a0 b0 - a1 b1 = a0 b1 + a1 b0
+        int[] middle = subtractMag(subtractMag(p[2], p[0]), p[1]);
+        int[] r = new int[a.length + b.length + 1];
+        addInto(r, 0, p[0]);
+        addInto(r, k, middle);
+        addInto(r, 2 * k, p[1]);
+        return trim(r);
+    }
+
+    /**
+     * Returns the trimmed product of {@code a} and {@code b} by Toom-3: five
+     * third-size products, evaluating at 0, 1, -1, -2, and infinity and
+     * interpolating with Bodrato's sequence.
+     *
+     * @param a
+     *            the longer factor, trimmed
+     * @param b
+     *            the shorter factor, trimmed
+     * @return a * b
+     * @requires |b| <= |a| < 2 * |b|
+     */
+    private static int[] multiplyToom3(int[] a, int[] b) {
+        final int three = 3;
+        int k = (a.length + 2) / three;
+        Signed[] ea = evaluateToom3(a, k);
+        Signed[] eb = evaluateToom3(b, k);
+        int[][] p = multiplyAll(
+                new int[][] { ea[0].mag, ea[1].mag, ea[2].mag, ea[three].mag,
+                    ea[2 + 2].mag },
+                new int[][] { eb[0].mag, eb[1].mag, eb[2].mag, eb[three].mag,
+                    eb[2 + 2].mag },
+                a.length);
+        Signed r0 = new Signed(p[0], 1);
+        Signed r1 = new Signed(p[1], 1);
+        Signed rm1 = new Signed(p[2], ea[2].sign * eb[2].sign);
+        Signed rm2 = new Signed(p[three], ea[three].sign * eb[three].sign);
+        Signed rInf = new Signed(p[2 + 2], 1);
+        // Bodrato's interpolation sequence.
+        Signed r3 = rm2.minus(r1).dividedBy(three);
+        r1 = r1.minus(rm1).dividedBy(2);
+        Signed r2 = rm1.minus(r0);
+        r3 = r2.minus(r3).dividedBy(2).plus(rInf.times(2));
+        r2 = r2.plus(r1).minus(rInf);
+        r1 = r1.minus(r3);
+        assert r1.sign >= 0 && r2.sign >= 0 && r3.sign >= 0 : ""
+                + "Violation of: [Toom-3 coefficients are not negative]";
+        int[] r = new int[a.length + b.length + 1];
+        addInto(r, 0, r0.mag);
+        addInto(r, k, r1.mag);
+        addInto(r, 2 * k, r2.mag);
+        addInto(r, three * k, r3.mag);
+        addInto(r, 2 * 2 * k, rInf.mag);
+        return trim(r);
+    }
+
+    /**
+     * Splits {@code a} into three pieces of {@code k} limbs, as the
+     * coefficients of a polynomial, and evaluates it at 0, 1, -1, -2, and
+     * infinity.
+     *
+     * @param a
+     *            the number, trimmed
+     * @param k
+     *            the number of limbs in a piece
+     * @return the values at 0, 1, -1, -2, and infinity, in that order
+     */
+    private static Signed[] evaluateToom3(int[] a, int k) {
+        Signed m0 = new Signed(slice(a, 0, k), 1);
+        Signed m1 = new Signed(slice(a, k, 2 * k), 1);
+        Signed m2 = new Signed(slice(a, 2 * k, a.length), 1);
+        Signed p = m0.plus(m2);
+        Signed atMinus1 = p.minus(m1);
+        Signed atMinus2 = atMinus1.plus(m2).times(2).minus(m0);
+        return new Signed[] { m0, p.plus(m1), atMinus1, atMinus2, m2 };
+    }
+
+    /**
+     * Divides the magnitude {@code u} by {@code v}, by Knuth's Algorithm D
+     * (TAOCP vol. 2, 4.3.1) in base BASE.
+     *
+     * @param u
+     *            limbs of the dividend, least significant first
+     * @param uLength
+     *            number of limbs of the dividend
+     * @param v
+     *            limbs of the divisor, least significant first
+     * @param vLength
+     *            number of limbs of the divisor
+     * @return the quotient limbs (uLength - vLength + 1 of them) and the
+     *         remainder limbs (vLength of them), in that order
+     * @requires <pre>
+     * vLength >= 2  and  uLength >= vLength  and  v[vLength - 1] > 0
+     * </pre>
+     */
+    private static int[][] divideLimbs(int[] u, int uLength, int[] v,
+            int vLength) {
+        int[] q = new int[uLength - vLength + 1];
+        int[] r = new int[vLength];
+        divideLimbsInto(u, 0, uLength, v, 0, vLength, new int[uLength + 1],
+                new int[vLength], q, r);
+        return new int[][] { q, r };
+    }
+
+    /**
+     * Divides the magnitude {@code u[uOffset, uOffset + uLength)} by
+     * {@code v[vOffset, vOffset + vLength)}, by Knuth's Algorithm D (TAOCP vol.
+     * 2, 4.3.1) in base BASE, using caller-provided arrays for the scaled
+     * operands and the results.
+     *
+     * @param u
+     *            limbs of the dividend, least significant first
+     * @param uOffset
+     *            position of the least significant limb of the dividend
+     * @param uLength
+     *            number of limbs of the dividend
+     * @param v
+     *            limbs of the divisor, least significant first
+     * @param vOffset
+     *            position of the least significant limb of the divisor
+     * @param vLength
+     *            number of limbs of the divisor
+     * @param un
+     *            room for the scaled dividend
+     * @param vn
+     *            room for the scaled divisor
+     * @param q
+     *            room for the quotient, or null if it is not wanted
+     * @param r
+     *            room for the remainder
+     * @updates un, vn, q, r
+     * @requires <pre>
+     * vLength >= 2  and  uLength >= vLength  and
+     * v[vOffset + vLength - 1] > 0  and
+     * |un| > uLength  and  |vn| >= vLength  and
+     * (q = null  or  |q| > uLength - vLength)  and  |r| >= vLength
+     * </pre>
+     * @ensures <pre>
+     * [q[0, uLength - vLength + 1) holds the quotient (if q /= null)]  and
+     * [r[0, vLength) holds the remainder]
+     * </pre>
+     */
+    private static void divideLimbsInto(int[] u, int uOffset, int uLength,
+            int[] v, int vOffset, int vLength, int[] un, int[] vn, int[] q,
+            int[] r) {
+        /*
+         * Scale both so the top limb of the divisor is at least BASE / 2,
+         * which makes each estimated quotient limb at most 2 too big.
+         */
+        long d = BASE / (v[vOffset + vLength - 1] + 1L);
+        long carry = 0;
+        for (int i = 0; i < uLength; i++) {
+            long x = u[uOffset + i] * d + carry;
+            un[i] = (int) (x % BASE);
+            carry = x / BASE;
+        }
+        un[uLength] = (int) carry;
+        carry = 0;
+        for (int i = 0; i < vLength; i++) {
+            long x = v[vOffset + i] * d + carry;
+            vn[i] = (int) (x % BASE);
+            carry = x / BASE;
+        }
+        int m = uLength - vLength;
+        long vTop = vn[vLength - 1];
+        long vNext = vn[vLength - 2];
+        for (int j = m; j >= 0; j--) {
+            long top = un[j + vLength] * (long) BASE + un[j + vLength - 1];
+            long qhat = top / vTop;
+            long rhat = top % vTop;
+            while (qhat >= BASE || qhat * vNext > rhat * BASE
+                    + un[j + vLength - 2]) {
+                qhat--;
+                rhat += vTop;
+                if (rhat >= BASE) {
+                    break;
+                }
+            }
+            // Subtract qhat * vn from un[j, j + vLength].
+            long borrow = 0;
+            carry = 0;
+            for (int i = 0; i < vLength; i++) {
+                long p = qhat * vn[i] + carry;
+                carry = p / BASE;
+                long s = un[i + j] - (p % BASE) - borrow;
+                if (s < 0) {
+                    s += BASE;
+                    borrow = 1;
+                } else {
+                    borrow = 0;
+                }
+                un[i + j] = (int) s;
+            }
+            long s = un[j + vLength] - carry - borrow;
+            if (s < 0) {
+                // qhat was one too big: add vn back.
+                qhat--;
+                carry = 0;
+                for (int i = 0; i < vLength; i++) {
+                    long x = (long) un[i + j] + vn[i] + carry;
+                    un[i + j] = (int) (x % BASE);
+                    carry = x / BASE;
+                }
+                s += carry;
+            }
+            un[j + vLength] = (int) s;
+            if (q != null) {
+                q[j] = (int) qhat;
+            }
+        }
+        // Unscale the remainder.
+        long rem = 0;
+        for (int i = vLength - 1; i >= 0; i--) {
+            long x = rem * BASE + un[i];
+            r[i] = (int) (x / d);
+            rem = x % d;
+        }
+    }
+
+    /**
+     * Returns {@code a} * BASE^{@code k}, that is, {@code a} with {@code k}
+     * zero limbs added at the least significant end.
+     *
+     * @param a
+     *            the number, trimmed
+     * @param k
+     *            the number of zero limbs to add
+     * @return a * BASE^k, trimmed
+     * @requires k >= 0
+     */
+    private static int[] shiftLimbs(int[] a, int k) {
+        int[] shifted = a;
+        if (a.length > 0 && k > 0) {
+            shifted = new int[a.length + k];
+            System.arraycopy(a, 0, shifted, k, a.length);
+        }
+        return shifted;
+    }
+
+    /**
+     * Divides trimmed {@code a} by trimmed {@code b} with the quadratic
+     * methods: short division if {@code b} has one limb, Knuth's Algorithm D
+     * otherwise.
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @return the trimmed quotient and the trimmed remainder, in that order
+     * @requires |b| > 0
+     */
+    private static int[][] divideBasecase(int[] a, int[] b) {
+        int[][] qr;
+        if (compareMag(a, b) < 0) {
+            qr = new int[][] { new int[0], a };
+        } else if (b.length == 1) {
+            long divisor = b[0];
+            int[] q = new int[a.length];
+            long rem = 0;
+            for (int i = a.length - 1; i >= 0; i--) {
+                long x = rem * BASE + a[i];
+                q[i] = (int) (x / divisor);
+                rem = x % divisor;
+            }
+            qr = new int[][] { trim(q), trim(new int[] { (int) rem }) };
+        } else {
+            qr = divideLimbs(a, a.length, b, b.length);
+            qr[0] = trim(qr[0]);
+            qr[1] = trim(qr[1]);
+        }
+        return qr;
+    }
+
+    /**
+     * Divides trimmed {@code a} by trimmed {@code b}, choosing Knuth's
+     * Algorithm D or Burnikel-Ziegler recursive division by size.
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @return the trimmed quotient and the trimmed remainder, in that order
+     * @requires |b| > 0
+     */
+    private static int[][] divideMag(int[] a, int[] b) {
+        int[][] qr;
+        if (b.length < BURNIKEL_ZIEGLER_THRESHOLD
+                || a.length - b.length < BURNIKEL_ZIEGLER_OFFSET) {
+            qr = divideBasecase(a, b);
+        } else {
+            qr = divideBurnikelZiegler(a, b);
+        }
+        return qr;
+    }
+
+    /**
+     * Divides trimmed {@code a} by trimmed {@code b} by Burnikel and Ziegler's
+     * recursive division ("Fast Recursive Division", MPI-I-98-1-022, 1998),
+     * which costs a small multiple of the time to multiply numbers of the size
+     * of {@code b}, since it does its work with {@code multiplyMag}.
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @return the trimmed quotient and the trimmed remainder, in that order
+     * @requires |b| > 0
+     */
+    private static int[][] divideBurnikelZiegler(int[] a, int[] b) {
+        /*
+         * Pick a block size n >= |b| that can be halved until it is below
+         * BURNIKEL_ZIEGLER_THRESHOLD; then scale both numbers, by a small
+         * factor and by a power of BASE, so the divisor fills exactly n limbs
+         * and its top limb is at least BASE / 2. Scaling both does not change
+         * the quotient.
+         */
+        int halvings = Integer.SIZE - Integer.numberOfLeadingZeros(
+                b.length / BURNIKEL_ZIEGLER_THRESHOLD);
+        int m = 1 << halvings;
+        int n = (b.length + m - 1) / m * m;
+        int scale = (int) (BASE / (b[b.length - 1] + 1L));
+        int sigma = n - b.length;
+        int[] bs = shiftLimbs(multiplySmall(b, scale), sigma);
+        int[] as = shiftLimbs(multiplySmall(a, scale), sigma);
+        /*
+         * Split the dividend into t blocks of n limbs, with at least one zero
+         * limb on top so the top block is less than the divisor, and divide
+         * two blocks at a time by the divisor, from the top down.
+         */
+        int t = Math.max(2, as.length / n + 1);
+        int[] q = new int[t * n];
+        int[] z = slice(as, (t - 2) * n, t * n);
+        int[] r = z;
+        for (int i = t - 2; i >= 0; i--) {
+            int[][] qr = divide2n1n(z, bs, n);
+            addInto(q, i * n, qr[0]);
+            r = qr[1];
+            if (i > 0) {
+                z = addMag(shiftLimbs(r, n), slice(as, (i - 1) * n, i * n));
+            }
+        }
+        // Undo the scaling of the remainder.
+        r = divideSmallExact(slice(r, sigma, r.length), scale);
+        return new int[][] { trim(q), r };
+    }
+
+    /**
+     * Divides {@code a}, of at most 2{@code n} limbs, by {@code b}, of
+     * {@code n} limbs: the outer recursive step of Burnikel-Ziegler division.
+     *
+     * @param a
+     *            the dividend, trimmed
+     * @param b
+     *            the divisor, trimmed
+     * @param n
+     *            the number of limbs of b
+     * @return the trimmed quotient and the trimmed remainder, in that order
+     * @requires <pre>
+     * |b| = n  and  b[n - 1] >= BASE / 2  and  a < b * BASE^n
+     * </pre>
+     */
+    private static int[][] divide2n1n(int[] a, int[] b, int n) {
+        int[][] qr;
+        if (n % 2 != 0 || n < BURNIKEL_ZIEGLER_THRESHOLD) {
+            qr = divideBasecase(a, b);
+        } else {
+            int half = n / 2;
+            int[][] high = divide3n2n(slice(a, half, a.length), b, half);
+            int[] next = addMag(shiftLimbs(high[1], half), slice(a, 0, half));
+            int[][] low = divide3n2n(next, b, half);
+            int[] q = new int[n + 1];
+            addInto(q, half, high[0]);
+            addInto(q, 0, low[0]);
+            qr = new int[][] { trim(q), low[1] };
+        }
+        return qr;
+    }
+
+    /**
+     * Divides {@code a}, of at most 3{@code half} limbs, by {@code b}, of
+     * 2{@code half} limbs: the inner recursive step of Burnikel-Ziegler
+     * division, which estimates the quotient from the top halves and then
+     * corrects it (at most twice).
+     *
+     * @param a
+     *            the dividend, trimmed
+     * @param b
+     *            the divisor, trimmed
+     * @param half
+     *            half the number of limbs of b
+     * @return the trimmed quotient and the trimmed remainder, in that order
+     * @requires <pre>
+     * |b| = 2 * half  and  b[2 * half - 1] >= BASE / 2  and
+     * a < b * BASE^half
+     * </pre>
+     */
+    private static int[][] divide3n2n(int[] a, int[] b, int half) {
+        int[] a12 = slice(a, half, a.length);
+        int[] b1 = slice(b, half, b.length);
+        int[] b2 = slice(b, 0, half);
+        int[] q;
+        int[] r1;
+        if (compareMag(slice(a, 2 * half, a.length), b1) < 0) {
+            int[][] qr = divide2n1n(a12, b1, half);
+            q = qr[0];
+            r1 = qr[1];
+        } else {
+            // The quotient is BASE^half - 1, or less.
+            q = new int[half];
+            for (int i = 0; i < half; i++) {
+                q[i] = BASE - 1;
+            }
+            r1 = subtractMag(addMag(a12, b1), shiftLimbs(b1, half));
+        }
+        int[] d = multiplyMag(q, b2);
+        int[] r = addMag(shiftLimbs(r1, half), slice(a, 0, half));
+        final int[] one = { 1 };
+        while (compareMag(r, d) < 0) {
+            r = addMag(r, b);
+            q = subtractMag(q, one);
+        }
+        return new int[][] { q, subtractMag(r, d) };
+    }
+
+    /**
+     * Returns BASE^(2^i) for 0 <= i < {@code count}, for converting to and
+     * from {@code BigInteger}.
+     *
+     * @param count
+     *            the number of powers
+     * @return the powers, in increasing order
+     * @requires count >= 1
+     */
+    private static BigInteger[] bigIntegerPowers(int count) {
+        BigInteger[] powers = new BigInteger[count];
+        powers[0] = BigInteger.valueOf(BASE);
+        for (int i = 1; i < count; i++) {
+            powers[i] = powers[i - 1].multiply(powers[i - 1]);
+        }
+        return powers;
+    }
+
+    /**
+     * Returns the value of {@code a[from, from + n)} as a {@code BigInteger},
+     * converting the two halves recursively and combining them with one
+     * multiplication, so it takes about as long as {@code BigInteger}
+     * multiplication of numbers of that size.
+     *
+     * @param a
+     *            the limbs
+     * @param from
+     *            the position of the least significant limb
+     * @param n
+     *            the number of limbs
+     * @param powers
+     *            BASE^(2^i) for every i with 2^i < n
+     * @return the value of the limbs
+     */
+    private static BigInteger limbsToBigInteger(int[] a, int from, int n,
+            BigInteger[] powers) {
+        BigInteger result;
+        if (n <= BIG_INTEGER_LEAF_LIMBS) {
+            result = BigInteger.ZERO;
+            BigInteger base = powers[0];
+            for (int i = from + n - 1; i >= from; i--) {
+                result = result.multiply(base).add(BigInteger.valueOf(a[i]));
+            }
+        } else {
+            // Split at the largest power of 2 less than n.
+            int level = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(n - 1);
+            int k = 1 << level;
+            BigInteger low = limbsToBigInteger(a, from, k, powers);
+            BigInteger high = limbsToBigInteger(a, from + k, n - k, powers);
+            result = high.multiply(powers[level]).add(low);
+        }
+        return result;
+    }
+
+    /**
+     * Writes the limbs of {@code v} into {@code a[from, from + 2^level)},
+     * splitting it recursively with one {@code BigInteger} division, so it
+     * takes about as long as {@code BigInteger} division of numbers of that
+     * size.
+     *
+     * @param v
+     *            the value
+     * @param a
+     *            the limbs
+     * @param from
+     *            the position for the least significant limb
+     * @param level
+     *            log base 2 of the number of limbs to write
+     * @param powers
+     *            BASE^(2^i) for every i < level
+     * @updates a
+     * @requires 0 <= v < BASE^(2^level)
+     */
+    private static void bigIntegerToLimbs(BigInteger v, int[] a, int from,
+            int level, BigInteger[] powers) {
+        if (1 << level <= BIG_INTEGER_LEAF_LIMBS) {
+            BigInteger rest = v;
+            int i = from;
+            while (rest.signum() > 0) {
+                BigInteger[] qr = rest.divideAndRemainder(powers[0]);
+                a[i] = qr[1].intValue();
+                rest = qr[0];
+                i++;
+            }
+        } else {
+            BigInteger[] qr = v.divideAndRemainder(powers[level - 1]);
+            bigIntegerToLimbs(qr[1], a, from, level - 1, powers);
+            bigIntegerToLimbs(qr[0], a, from + (1 << (level - 1)), level - 1,
+                    powers);
+        }
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public NaturalNumber4() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from {@code int}.
+     *
+     * @param i
+     *            {@code int} to initialize from
+     */
+    public NaturalNumber4(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+        this.createNewRep();
+        if (i > 0) {
+            int[] mag = { i % BASE, i / BASE };
+            this.setLimbs(mag, 2);
+        }
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from {@code String}.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     */
+    public NaturalNumber4(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+        this.setFromString(s);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from {@code NaturalNumber}.
+     *
+     * @param n
+     *            {@code NaturalNumber} to initialize from
+     */
+    public NaturalNumber4(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        if (n instanceof NaturalNumber4) {
+            NaturalNumber4 localN = (NaturalNumber4) n;
+            int[] mag = new int[localN.length];
+            System.arraycopy(localN.limbs, localN.offset, mag, 0,
+                    localN.length);
+            this.setLimbs(mag, localN.length);
+            this.tail = localN.tail;
+            this.tailDigits = localN.tailDigits;
+        } else {
+            this.setFromString(n.toString());
+        }
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final NaturalNumber newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(NaturalNumber source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof NaturalNumber4 : ""
+                + "Violation of: source is of dynamic type NaturalNumber4";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        NaturalNumber4 localSource = (NaturalNumber4) source;
+        this.limbs = localSource.limbs;
+        this.offset = localSource.offset;
+        this.length = localSource.length;
+        this.tail = localSource.tail;
+        this.tailDigits = localSource.tailDigits;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void multiplyBy10(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k < RADIX : "Violation of: k < 10";
+        if (this.length > 0 || this.tail > 0 || k > 0) {
+            this.tail = this.tail * RADIX + k;
+            this.tailDigits++;
+            if (this.tailDigits == DIGITS_PER_LIMB) {
+                // The tail is a whole limb: make it the least significant one.
+                this.ensureRoom(1, 0);
+                this.offset--;
+                this.limbs[this.offset] = this.tail;
+                this.length++;
+                this.tail = 0;
+                this.tailDigits = 0;
+            }
+        }
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int divideBy10() {
+        if (this.tailDigits == 0 && this.length > 0) {
+            // Make the least significant limb the tail.
+            this.tail = this.limbs[this.offset];
+            this.tailDigits = DIGITS_PER_LIMB;
+            this.offset++;
+            this.length--;
+        }
+        int returned = this.tail % RADIX;
+        if (this.tailDigits > 0) {
+            this.tail /= RADIX;
+            this.tailDigits--;
+            if (this.length == 0 && this.tail == 0) {
+                this.tailDigits = 0;
+            }
+        }
+        assert this.conventionHolds();
+        return returned;
+    }
+
+    @Override
+    public final boolean isZero() {
+        assert this.conventionHolds();
+        return this.length == 0 && this.tail == 0;
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void setFromString(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+        // Read s DIGITS_PER_LIMB digits at a time, from the right.
+        int n = (s.length() + DIGITS_PER_LIMB - 1) / DIGITS_PER_LIMB;
+        int[] mag = new int[n];
+        int end = s.length();
+        for (int i = 0; i < n; i++) {
+            int start = Math.max(0, end - DIGITS_PER_LIMB);
+            mag[i] = Integer.parseInt(s.substring(start, end));
+            end = start;
+        }
+        this.setLimbs(mag, n);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int compareTo(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        int result;
+        if (n instanceof NaturalNumber4) {
+            NaturalNumber4 localN = (NaturalNumber4) n;
+            this.normalize();
+            localN.normalize();
+            result = compareLimbs(this, localN);
+        } else {
+            result = super.compareTo(n);
+        }
+        return result;
+    }
+
+    @Override
+    public final void add(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        if (n instanceof NaturalNumber4) {
+            NaturalNumber4 localN = (NaturalNumber4) n;
+            this.normalize();
+            localN.normalize();
+            int[] b = localN.limbs;
+            int bOffset = localN.offset;
+            int bLength = localN.length;
+            int[] a = this.limbs;
+            int aOffset = this.offset;
+            int aLength = this.length;
+            int rLength = Math.max(aLength, bLength) + 1;
+            int[] r = new int[rLength];
+            int carry = 0;
+            for (int i = 0; i < rLength - 1; i++) {
+                int s = carry;
+                if (i < aLength) {
+                    s += a[aOffset + i];
+                }
+                if (i < bLength) {
+                    s += b[bOffset + i];
+                }
+                // s < 2 * BASE, which fits in an int.
+                if (s >= BASE) {
+                    s -= BASE;
+                    carry = 1;
+                } else {
+                    carry = 0;
+                }
+                r[i] = s;
+            }
+            r[rLength - 1] = carry;
+            this.setLimbs(r, rLength);
+        } else {
+            super.add(n);
+        }
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void subtract(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        if (n instanceof NaturalNumber4) {
+            NaturalNumber4 localN = (NaturalNumber4) n;
+            this.normalize();
+            localN.normalize();
+            assert compareLimbs(this, localN) >= 0 : "Violation of: this >= n";
+            int[] b = localN.limbs;
+            int bOffset = localN.offset;
+            int bLength = localN.length;
+            int[] r = new int[this.length];
+            int borrow = 0;
+            for (int i = 0; i < this.length; i++) {
+                int s = this.limbs[this.offset + i] - borrow;
+                if (i < bLength) {
+                    s -= b[bOffset + i];
+                }
+                if (s < 0) {
+                    s += BASE;
+                    borrow = 1;
+                } else {
+                    borrow = 0;
+                }
+                r[i] = s;
+            }
+            this.setLimbs(r, r.length);
+        } else {
+            super.subtract(n);
+        }
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void multiply(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        if (n instanceof NaturalNumber4) {
+            NaturalNumber4 localN = (NaturalNumber4) n;
+            this.normalize();
+            localN.normalize();
+            int[] a = slice(this.limbs, this.offset,
+                    this.offset + this.length);
+            int[] b = slice(localN.limbs, localN.offset,
+                    localN.offset + localN.length);
+            int[] r;
+            if (Math.min(a.length, b.length) >= PARALLEL_THRESHOLD) {
+                r = ForkJoinPool.commonPool().invoke(new MultiplyTask(a, b));
+            } else {
+                r = multiplyMag(a, b);
+            }
+            this.setLimbs(r, r.length);
+        } else {
+            super.multiply(n);
+        }
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final NaturalNumber divide(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert !n.isZero() : "Violation of: n > 0";
+        NaturalNumber remainder;
+        if (n instanceof NaturalNumber4) {
+            NaturalNumber4 localN = (NaturalNumber4) n;
+            this.normalize();
+            localN.normalize();
+            NaturalNumber4 r = new NaturalNumber4();
+            if (compareLimbs(this, localN) < 0) {
+                // Quotient 0, remainder this.
+                r.transferFrom(this);
+            } else {
+                int[] u = slice(this.limbs, this.offset,
+                        this.offset + this.length);
+                int[] v = slice(localN.limbs, localN.offset,
+                        localN.offset + localN.length);
+                int[][] qr = divideMag(u, v);
+                this.setLimbs(qr[0], qr[0].length);
+                r.setLimbs(qr[1], qr[1].length);
+            }
+            remainder = r;
+        } else {
+            remainder = super.divide(n);
+        }
+        assert this.conventionHolds();
+        return remainder;
+    }
+
+    @Override
+    public final String toString() {
+        StringBuilder sb = new StringBuilder(
+                (this.length + 1) * DIGITS_PER_LIMB);
+        if (this.length > 0) {
+            int top = this.offset + this.length - 1;
+            sb.append(this.limbs[top]);
+            for (int i = top - 1; i >= this.offset; i--) {
+                appendPadded(sb, this.limbs[i], DIGITS_PER_LIMB);
+            }
+            appendPadded(sb, this.tail, this.tailDigits);
+        } else {
+            sb.append(this.tail);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends {@code value} to {@code sb} as exactly {@code digits} decimal
+     * digits, with leading zeros.
+     *
+     * @param sb
+     *            the {@code StringBuilder} to append to
+     * @param value
+     *            the value to append
+     * @param digits
+     *            the number of digits to append
+     * @updates sb
+     * @requires 0 <= value < 10^digits
+     */
+    private static void appendPadded(StringBuilder sb, int value,
+            int digits) {
+        for (int p = digits - 1; p >= 0; p--) {
+            sb.append((char) ('0' + (value / POWERS_OF_10[p]) % RADIX));
+        }
+    }
+
+    /*
+     * Additional methods -----------------------------------------------------
+     */
+
+    /**
+     * Reports the number of decimal digits of {@code this}, from the limbs
+     * and the tail, in O(1) time.
+     *
+     * @return the number of digits of this
+     * @ensures digitCount = |TO_STRING(this)|
+     */
+    public final int digitCount() {
+        int result = 1;
+        if (this.length > 0) {
+            result = (this.length - 1) * DIGITS_PER_LIMB
+                    + digitCount(this.limbs[this.offset + this.length - 1])
+                    + this.tailDigits;
+        } else if (this.tail > 0) {
+            result = digitCount(this.tail);
+        }
+        assert this.conventionHolds();
+        return result;
+    }
+
+    /**
+     * Reports the value of {@code this} as a {@code BigInteger}, converting
+     * the limbs by divide and conquer rather than through a decimal string.
+     *
+     * @return the value of this
+     * @ensures toBigInteger = this
+     */
+    public final BigInteger toBigInteger() {
+        this.normalize();
+        BigInteger result = BigInteger.ZERO;
+        if (this.length > 0) {
+            int levels = Integer.SIZE - Integer.numberOfLeadingZeros(
+                    this.length);
+            result = limbsToBigInteger(this.limbs, this.offset, this.length,
+                    bigIntegerPowers(levels));
+        }
+        assert this.conventionHolds();
+        return result;
+    }
+
+    /**
+     * Sets the value of {@code this} to that of {@code b}, converting the
+     * limbs by divide and conquer rather than through a decimal string.
+     *
+     * @param b
+     *            the value to set this to
+     * @replaces this
+     * @requires b >= 0
+     * @ensures this = b
+     */
+    public final void setFromBigInteger(BigInteger b) {
+        assert b != null : "Violation of: b is not null";
+        assert b.signum() >= 0 : "Violation of: b >= 0";
+        /*
+         * A limb holds log base 2 of BASE (about 29.9) bits, so this many
+         * limbs is enough; round it up to a power of 2.
+         */
+        final int bitsPerLimb = 29;
+        int n = b.bitLength() / bitsPerLimb + 1;
+        int level = Integer.SIZE - Integer.numberOfLeadingZeros(n - 1);
+        int[] mag = new int[1 << level];
+        bigIntegerToLimbs(b, mag, 0, level, bigIntegerPowers(level + 1));
+        this.setLimbs(mag, mag.length);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Scratch space for arithmetic on {@code NaturalNumber4}s that puts each
+     * result into a caller-provided destination, so loops that repeat the same
+     * operations (modular exponentiation, bisection) need not create
+     * temporaries. The limb buffers grow to the largest size used and are then
+     * reused, as is the limb array of each destination, so once sizes settle
+     * these operations allocate nothing (for factors shorter than
+     * {@code KARATSUBA_THRESHOLD} limbs and divisors shorter than
+     * {@code BURNIKEL_ZIEGLER_THRESHOLD} limbs; longer ones use the
+     * sub-quadratic methods, which allocate).
+     *
+     * <p>
+     * A destination may be the same object as an operand. A
+     * {@code Workspace} must not be used by more than one thread at a time.
+     * </p>
+     */
+    public static final class Workspace {
+
+        /**
+         * Buffer for products, sums, and quotients.
+         */
+        private int[] product;
+
+        /**
+         * Buffer for the scaled dividend of Knuth's Algorithm D.
+         */
+        private int[] scaledDividend;
+
+        /**
+         * Buffer for the scaled divisor of Knuth's Algorithm D.
+         */
+        private int[] scaledDivisor;
+
+        /**
+         * Buffer for remainders.
+         */
+        private int[] remainder;
+
+        /**
+         * No-argument constructor.
+         */
+        public Workspace() {
+            this.product = new int[INITIAL_CAPACITY];
+            this.scaledDividend = new int[INITIAL_CAPACITY];
+            this.scaledDivisor = new int[INITIAL_CAPACITY];
+            this.remainder = new int[INITIAL_CAPACITY];
+        }
+
+        /**
+         * Returns {@code buffer} if it has at least {@code n} entries, and a
+         * new, bigger buffer otherwise.
+         *
+         * @param buffer
+         *            the buffer
+         * @param n
+         *            the number of entries needed
+         * @return a buffer with at least n entries
+         */
+        private static int[] room(int[] buffer, int n) {
+            int[] result = buffer;
+            if (buffer.length < n) {
+                result = new int[Math.max(n, 2 * buffer.length)];
+            }
+            return result;
+        }
+
+        /**
+         * Sets {@code dest} to {@code a + b}.
+         *
+         * @param dest
+         *            the destination
+         * @param a
+         *            one addend
+         * @param b
+         *            the other addend
+         * @replaces dest
+         * @ensures dest = a + b
+         */
+        public void add(NaturalNumber4 dest, NaturalNumber4 a,
+                NaturalNumber4 b) {
+            assert dest != null : "Violation of: dest is not null";
+            assert a != null : "Violation of: a is not null";
+            assert b != null : "Violation of: b is not null";
+            a.normalize();
+            b.normalize();
+            int n = Math.max(a.length, b.length) + 1;
+            this.product = room(this.product, n);
+            int[] r = this.product;
+            int carry = 0;
+            for (int i = 0; i < n - 1; i++) {
+                int s = carry;
+                if (i < a.length) {
+                    s += a.limbs[a.offset + i];
+                }
+                if (i < b.length) {
+                    s += b.limbs[b.offset + i];
+                }
+                if (s >= BASE) {
+                    s -= BASE;
+                    carry = 1;
+                } else {
+                    carry = 0;
+                }
+                r[i] = s;
+            }
+            r[n - 1] = carry;
+            dest.copyLimbs(r, 0, n);
+            assert dest.conventionHolds();
+        }
+
+        /**
+         * Sets {@code dest} to {@code a * b}.
+         *
+         * @param dest
+         *            the destination
+         * @param a
+         *            one factor
+         * @param b
+         *            the other factor
+         * @replaces dest
+         * @ensures dest = a * b
+         */
+        public void multiply(NaturalNumber4 dest, NaturalNumber4 a,
+                NaturalNumber4 b) {
+            assert dest != null : "Violation of: dest is not null";
+            assert a != null : "Violation of: a is not null";
+            assert b != null : "Violation of: b is not null";
+            int n = this.multiplyIntoProduct(a, b);
+            dest.copyLimbs(this.product, 0, n);
+            assert dest.conventionHolds();
+        }
+
+        /**
+         * Sets {@code dest} to {@code a mod m}.
+         *
+         * @param dest
+         *            the destination
+         * @param a
+         *            the dividend
+         * @param m
+         *            the modulus
+         * @replaces dest
+         * @requires m > 0
+         * @ensures dest = a mod m
+         */
+        public void mod(NaturalNumber4 dest, NaturalNumber4 a,
+                NaturalNumber4 m) {
+            assert dest != null : "Violation of: dest is not null";
+            assert a != null : "Violation of: a is not null";
+            assert m != null : "Violation of: m is not null";
+            assert !m.isZero() : "Violation of: m > 0";
+            a.normalize();
+            m.normalize();
+            this.modInto(dest, a.limbs, a.offset, a.length, m);
+            assert dest.conventionHolds();
+        }
+
+        /**
+         * Sets {@code dest} to {@code a * b mod m}, without keeping the
+         * product anywhere but in this workspace.
+         *
+         * @param dest
+         *            the destination
+         * @param a
+         *            one factor
+         * @param b
+         *            the other factor
+         * @param m
+         *            the modulus
+         * @replaces dest
+         * @requires m > 0
+         * @ensures dest = a * b mod m
+         */
+        public void multiplyMod(NaturalNumber4 dest, NaturalNumber4 a,
+                NaturalNumber4 b, NaturalNumber4 m) {
+            assert dest != null : "Violation of: dest is not null";
+            assert a != null : "Violation of: a is not null";
+            assert b != null : "Violation of: b is not null";
+            assert m != null : "Violation of: m is not null";
+            assert !m.isZero() : "Violation of: m > 0";
+            m.normalize();
+            int n = this.multiplyIntoProduct(a, b);
+            while (n > 0 && this.product[n - 1] == 0) {
+                n--;
+            }
+            this.modInto(dest, this.product, 0, n, m);
+            assert dest.conventionHolds();
+        }
+
+        /**
+         * Sets {@code dest} to {@code a / d} and reports {@code a mod d}.
+         *
+         * @param dest
+         *            the destination
+         * @param a
+         *            the dividend
+         * @param d
+         *            the divisor
+         * @return a mod d
+         * @replaces dest
+         * @requires 0 < d < BASE
+         * @ensures dest = a / d  and  divideBySmall = a mod d
+         */
+        public int divideBySmall(NaturalNumber4 dest, NaturalNumber4 a,
+                int d) {
+            assert dest != null : "Violation of: dest is not null";
+            assert a != null : "Violation of: a is not null";
+            assert 0 < d && d < BASE : "Violation of: 0 < d < BASE";
+            a.normalize();
+            this.product = room(this.product, a.length);
+            long rem = 0;
+            for (int i = a.length - 1; i >= 0; i--) {
+                long x = rem * BASE + a.limbs[a.offset + i];
+                this.product[i] = (int) (x / d);
+                rem = x % d;
+            }
+            dest.copyLimbs(this.product, 0, a.length);
+            assert dest.conventionHolds();
+            return (int) rem;
+        }
+
+        /**
+         * Puts the product of {@code a} and {@code b} in
+         * {@code this.product}.
+         *
+         * @param a
+         *            one factor
+         * @param b
+         *            the other factor
+         * @return the number of limbs of the product (possibly with most
+         *         significant zero limbs)
+         * @updates this.product
+         */
+        private int multiplyIntoProduct(NaturalNumber4 a, NaturalNumber4 b) {
+            a.normalize();
+            b.normalize();
+            int n = a.length + b.length;
+            if (Math.min(a.length, b.length) < KARATSUBA_THRESHOLD) {
+                this.product = room(this.product, n);
+                multiplyLimbsInto(a.limbs, a.offset, a.length, b.limbs,
+                        b.offset, b.length, this.product);
+            } else {
+                int[] r = multiplyMag(slice(a.limbs, a.offset,
+                        a.offset + a.length), slice(b.limbs, b.offset,
+                                b.offset + b.length));
+                this.product = room(this.product, r.length);
+                System.arraycopy(r, 0, this.product, 0, r.length);
+                n = r.length;
+            }
+            return n;
+        }
+
+        /**
+         * Sets {@code dest} to {@code u[uOffset, uOffset + uLength) mod m}.
+         *
+         * @param dest
+         *            the destination
+         * @param u
+         *            limbs of the dividend
+         * @param uOffset
+         *            position of the least significant limb of the dividend
+         * @param uLength
+         *            number of limbs of the dividend
+         * @param m
+         *            the modulus
+         * @replaces dest
+         * @requires <pre>
+         * [u[uOffset + uLength - 1] > 0 if uLength > 0]  and
+         * m > 0  and  m.tailDigits = 0
+         * </pre>
+         */
+        private void modInto(NaturalNumber4 dest, int[] u, int uOffset,
+                int uLength, NaturalNumber4 m) {
+            if (compareLimbs(u, uOffset, uLength, m.limbs, m.offset,
+                    m.length) < 0) {
+                dest.copyLimbs(u, uOffset, uLength);
+            } else if (m.length == 1) {
+                long divisor = m.limbs[m.offset];
+                long rem = 0;
+                for (int i = uLength - 1; i >= 0; i--) {
+                    rem = (rem * BASE + u[uOffset + i]) % divisor;
+                }
+                this.remainder[0] = (int) rem;
+                dest.copyLimbs(this.remainder, 0, 1);
+            } else if (m.length >= BURNIKEL_ZIEGLER_THRESHOLD
+                    && uLength - m.length >= BURNIKEL_ZIEGLER_OFFSET) {
+                int[][] qr = divideMag(slice(u, uOffset, uOffset + uLength),
+                        slice(m.limbs, m.offset, m.offset + m.length));
+                dest.copyLimbs(qr[1], 0, qr[1].length);
+            } else {
+                this.scaledDividend = room(this.scaledDividend, uLength + 1);
+                this.scaledDivisor = room(this.scaledDivisor, m.length);
+                this.remainder = room(this.remainder, m.length);
+                divideLimbsInto(u, uOffset, uLength, m.limbs, m.offset,
+                        m.length, this.scaledDividend, this.scaledDivisor,
+                        null, this.remainder);
+                dest.copyLimbs(this.remainder, 0, m.length);
+            }
+        }
+
+    }
+
+}
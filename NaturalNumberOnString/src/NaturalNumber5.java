@@ -0,0 +1,510 @@
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumberSecondary;
+
+/**
+ * {@code NaturalNumber} represented as a {@code long} while it is less than
+ * 10^18, and as a {@code NaturalNumber4} from then on, with implementations of
+ * primary methods.
+ *
+ * <p>
+ * Execution-time performance: while both operands are less than
+ * {@code SMALL_LIMIT}, all methods implemented in this class are O(1) and do
+ * not allocate (other than {@code divide}'s remainder and {@code toString}'s
+ * result): they work on the {@code long} directly. A result of
+ * {@code SMALL_LIMIT} or more is moved ("promoted") into a
+ * {@code NaturalNumber4}, which then does the work, and a result less than
+ * {@code SMALL_LIMIT} is moved back ("demoted") into the {@code long}.
+ * {@code divideBy10} keeps count of the digits of a promoted value, so it can
+ * demote without comparing.
+ * </p>
+ *
+ * @convention <pre>
+ * if $this.big = null then
+ *   0 <= $this.small < SMALL_LIMIT
+ * else
+ *   $this.small = 0  and
+ *   $this.big >= SMALL_LIMIT  and
+ *   $this.bigDigits = |TO_STRING($this.big)|
+ * </pre>
+ * @correspondence <pre>
+ * this = (if $this.big = null then $this.small else $this.big)
+ * </pre>
+ *
+ * @author K. Abukar
+ *
+ */
+public class NaturalNumber5 extends NaturalNumberSecondary {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Values less than this are kept in {@code small}: 10^18.
+     */
+    private static final long SMALL_LIMIT = 1_000_000_000_000_000_000L;
+
+    /**
+     * Number of decimal digits in {@code SMALL_LIMIT}.
+     */
+    private static final int SMALL_LIMIT_DIGITS = 19;
+
+    /**
+     * Value, if less than {@code SMALL_LIMIT}.
+     */
+    private long small;
+
+    /**
+     * Value, if at least {@code SMALL_LIMIT}; otherwise null.
+     */
+    private NaturalNumber4 big;
+
+    /**
+     * Number of decimal digits of {@code big}.
+     */
+    private int bigDigits;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * if $this.big = null then
+     *   0 <= $this.small < SMALL_LIMIT
+     * else
+     *   $this.small = 0  and
+     *   $this.big >= SMALL_LIMIT  and
+     *   $this.bigDigits = |TO_STRING($this.big)|
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        if (this.big == null) {
+            assert 0 <= this.small : "Violation of: 0 <= $this.small";
+            assert this.small < SMALL_LIMIT : ""
+                    + "Violation of: $this.small < SMALL_LIMIT";
+        } else {
+            assert this.small == 0 : "Violation of: $this.small = 0";
+            int digits = this.big.digitCount();
+            assert digits >= SMALL_LIMIT_DIGITS : ""
+                    + "Violation of: $this.big >= SMALL_LIMIT";
+            assert this.bigDigits == digits : ""
+                    + "Violation of: $this.bigDigits = |TO_STRING($this.big)|";
+        }
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.small = 0;
+        this.big = null;
+        this.bigDigits = 0;
+    }
+
+    /**
+     * Sets this to the value {@code v}, demoting it if it is small enough.
+     *
+     * @param v
+     *            the value
+     * @param digits
+     *            the number of decimal digits of {@code v}, or a negative
+     *            number if not known
+     * @replaces this
+     * @ensures this = v
+     */
+    private void setBig(NaturalNumber4 v, int digits) {
+        int d = digits;
+        if (d < 0) {
+            d = v.digitCount();
+        }
+        if (d < SMALL_LIMIT_DIGITS) {
+            this.small = Long.parseLong(v.toString());
+            this.big = null;
+            this.bigDigits = 0;
+        } else {
+            this.small = 0;
+            this.big = v;
+            this.bigDigits = d;
+        }
+    }
+
+    /**
+     * Sets this to the value {@code v}, promoting it if it is too big to keep
+     * in a {@code long}.
+     *
+     * @param v
+     *            the value
+     * @replaces this
+     * @requires v >= 0
+     * @ensures this = v
+     */
+    private void setSmall(long v) {
+        if (v < SMALL_LIMIT) {
+            this.small = v;
+            this.big = null;
+            this.bigDigits = 0;
+        } else {
+            this.setBig(new NaturalNumber4(Long.toString(v)),
+                    SMALL_LIMIT_DIGITS);
+        }
+    }
+
+    /**
+     * Returns the value of {@code n} as a {@code NaturalNumber4}: the one
+     * {@code n} holds, if it is promoted, or a new one otherwise.
+     *
+     * @param n
+     *            the number
+     * @return a {@code NaturalNumber4} equal to n
+     */
+    private static NaturalNumber4 toBig(NaturalNumber5 n) {
+        NaturalNumber4 result = n.big;
+        if (result == null) {
+            result = new NaturalNumber4(Long.toString(n.small));
+        }
+        return result;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public NaturalNumber5() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from {@code int}.
+     *
+     * @param i
+     *            {@code int} to initialize from
+     */
+    public NaturalNumber5(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+        this.createNewRep();
+        this.small = i;
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from {@code String}.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     */
+    public NaturalNumber5(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+        this.createNewRep();
+        if (s.length() < SMALL_LIMIT_DIGITS) {
+            this.small = Long.parseLong(s);
+        } else {
+            this.setBig(new NaturalNumber4(s), s.length());
+        }
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from {@code NaturalNumber}.
+     *
+     * @param n
+     *            {@code NaturalNumber} to initialize from
+     */
+    public NaturalNumber5(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        this.createNewRep();
+        if (n instanceof NaturalNumber5) {
+            NaturalNumber5 localN = (NaturalNumber5) n;
+            this.small = localN.small;
+            if (localN.big != null) {
+                this.big = new NaturalNumber4(localN.big);
+                this.bigDigits = localN.bigDigits;
+            }
+        } else {
+            String s = n.toString();
+            if (s.length() < SMALL_LIMIT_DIGITS) {
+                this.small = Long.parseLong(s);
+            } else {
+                this.setBig(new NaturalNumber4(s), s.length());
+            }
+        }
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final NaturalNumber newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(NaturalNumber source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof NaturalNumber5 : ""
+                + "Violation of: source is of dynamic type NaturalNumber5";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        NaturalNumber5 localSource = (NaturalNumber5) source;
+        this.small = localSource.small;
+        this.big = localSource.big;
+        this.bigDigits = localSource.bigDigits;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void multiplyBy10(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k < RADIX : "Violation of: k < 10";
+        if (this.big == null) {
+            if (this.small < SMALL_LIMIT / RADIX) {
+                this.small = this.small * RADIX + k;
+            } else {
+                /*
+                 * small has SMALL_LIMIT_DIGITS - 1 digits, so the result has
+                 * SMALL_LIMIT_DIGITS (and may not fit in a long).
+                 */
+                this.big = new NaturalNumber4(Long.toString(this.small));
+                this.big.multiplyBy10(k);
+                this.small = 0;
+                this.bigDigits = SMALL_LIMIT_DIGITS;
+            }
+        } else {
+            this.big.multiplyBy10(k);
+            this.bigDigits++;
+        }
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int divideBy10() {
+        int returned;
+        if (this.big == null) {
+            returned = (int) (this.small % RADIX);
+            this.small /= RADIX;
+        } else {
+            returned = this.big.divideBy10();
+            this.bigDigits--;
+            if (this.bigDigits < SMALL_LIMIT_DIGITS) {
+                this.setBig(this.big, this.bigDigits);
+            }
+        }
+        assert this.conventionHolds();
+        return returned;
+    }
+
+    @Override
+    public final boolean isZero() {
+        assert this.conventionHolds();
+        return this.big == null && this.small == 0;
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void setFromInt(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+        this.createNewRep();
+        this.small = i;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final boolean canConvertToInt() {
+        assert this.conventionHolds();
+        return this.big == null && this.small <= Integer.MAX_VALUE;
+    }
+
+    @Override
+    public final int toInt() {
+        assert this.canConvertToInt() : ""
+                + "Violation of: this <= Integer.MAX_VALUE";
+        return (int) this.small;
+    }
+
+    @Override
+    public final int compareTo(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        int result;
+        if (n instanceof NaturalNumber5) {
+            NaturalNumber5 localN = (NaturalNumber5) n;
+            if (this.big == null && localN.big == null) {
+                result = Long.compare(this.small, localN.small);
+            } else if (this.big == null) {
+                // Only localN is at least SMALL_LIMIT.
+                result = -1;
+            } else if (localN.big == null) {
+                // Only this is at least SMALL_LIMIT.
+                result = 1;
+            } else {
+                result = this.big.compareTo(localN.big);
+            }
+        } else {
+            result = super.compareTo(n);
+        }
+        return result;
+    }
+
+    @Override
+    public final void increment() {
+        if (this.big == null) {
+            this.setSmall(this.small + 1);
+        } else {
+            // Never demotes: the value only grows.
+            this.big.increment();
+            this.bigDigits = this.big.digitCount();
+        }
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void decrement() {
+        assert !this.isZero() : "Violation of: this > 0";
+        if (this.big == null) {
+            this.small--;
+        } else {
+            this.big.decrement();
+            this.bigDigits = this.big.digitCount();
+            if (this.bigDigits < SMALL_LIMIT_DIGITS) {
+                this.setBig(this.big, this.bigDigits);
+            }
+        }
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void add(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        if (n instanceof NaturalNumber5) {
+            NaturalNumber5 localN = (NaturalNumber5) n;
+            if (this.big == null && localN.big == null) {
+                // Less than 2 * SMALL_LIMIT, so no overflow.
+                this.setSmall(this.small + localN.small);
+            } else {
+                NaturalNumber4 sum = toBig(this);
+                sum.add(toBig(localN));
+                this.setBig(sum, -1);
+            }
+        } else {
+            super.add(n);
+        }
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void subtract(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        if (n instanceof NaturalNumber5) {
+            NaturalNumber5 localN = (NaturalNumber5) n;
+            assert this.compareTo(localN) >= 0 : "Violation of: this >= n";
+            if (this.big == null) {
+                // Then localN is small too.
+                this.small -= localN.small;
+            } else {
+                this.big.subtract(toBig(localN));
+                this.setBig(this.big, -1);
+            }
+        } else {
+            super.subtract(n);
+        }
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void multiply(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        if (n instanceof NaturalNumber5) {
+            NaturalNumber5 localN = (NaturalNumber5) n;
+            if (this.big == null && localN.big == null && (this.small == 0
+                    || localN.small <= (SMALL_LIMIT - 1) / this.small)) {
+                // The product is less than SMALL_LIMIT.
+                this.small *= localN.small;
+            } else {
+                NaturalNumber4 product = toBig(this);
+                product.multiply(toBig(localN));
+                this.setBig(product, -1);
+            }
+        } else {
+            super.multiply(n);
+        }
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final NaturalNumber divide(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert !n.isZero() : "Violation of: n > 0";
+        NaturalNumber remainder;
+        if (n instanceof NaturalNumber5) {
+            NaturalNumber5 localN = (NaturalNumber5) n;
+            NaturalNumber5 r = new NaturalNumber5();
+            if (this.big == null && localN.big == null) {
+                r.small = this.small % localN.small;
+                this.small /= localN.small;
+            } else if (this.big == null) {
+                // this < SMALL_LIMIT <= n: quotient 0, remainder this.
+                r.small = this.small;
+                this.small = 0;
+            } else {
+                /*
+                 * This cast cannot fail: NaturalNumber4 returns a
+                 * NaturalNumber4 remainder when n is a NaturalNumber4.
+                 */
+                NaturalNumber4 rem = (NaturalNumber4) this.big
+                        .divide(toBig(localN));
+                this.setBig(this.big, -1);
+                r.setBig(rem, -1);
+            }
+            remainder = r;
+        } else {
+            remainder = super.divide(n);
+        }
+        assert this.conventionHolds();
+        return remainder;
+    }
+
+    @Override
+    public final String toString() {
+        String result;
+        if (this.big == null) {
+            result = Long.toString(this.small);
+        } else {
+            result = this.big.toString();
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,250 @@
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber1L;
+
+/**
+ * Customized JUnit test fixture for {@code NaturalNumber4}.
+ *
+
+ * @author K. Abukar
+ */
+
+public class NaturalNumber4Test extends NaturalNumberTest {
+
+    @Override
+    protected final NaturalNumber constructorTest() {
+        // Using NaturalNumber4 constructor.
+        return new NaturalNumber4();
+
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(int i) {
+        return new NaturalNumber4(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(String s) {
+        return new NaturalNumber4(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(NaturalNumber n) {
+        return new NaturalNumber4(n);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef() {
+        // Using NaturalNumber1L constructor.
+        return new NaturalNumber1L();
+
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(int i) {
+        return new NaturalNumber1L(i);
+
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(String s) {
+        return new NaturalNumber1L(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(NaturalNumber n) {
+        return new NaturalNumber1L(n);
+    }
+
+    /**
+     * Returns a string of {@code n} copies of {@code c}.
+     *
+     * @param c
+     *            the character
+     * @param n
+     *            the number of copies
+     * @return the string
+     */
+    private static String repeat(char c, int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Test setFromString, called through the {@code NaturalNumber} interface,
+     * on a number with digits not yet in a limb; the old value is replaced.
+     */
+    @Test
+    public void testSetFromStringReplacesValue() {
+        NaturalNumber test = this.constructorTest("12345678901234567890");
+        test.multiplyBy10(7);
+        test.setFromString("98765432109876543210987");
+        assertEquals("98765432109876543210987", test.toString());
+        test.setFromString("0");
+        assertEquals("0", test.toString());
+        assertEquals(true, test.isZero());
+    }
+
+    /**
+     * Test digitCount on zero, and on a number with a partial tail of digits
+     * as it grows and shrinks a digit at a time.
+     */
+    @Test
+    public void testDigitCount() {
+        final int digits = 30;
+        final int radix = 10;
+        NaturalNumber4 test = new NaturalNumber4();
+        assertEquals(1, test.digitCount());
+        for (int i = 0; i < digits; i++) {
+            test.multiplyBy10((i + 1) % radix);
+            assertEquals(test.toString().length(), test.digitCount());
+        }
+        for (int i = 0; i < digits; i++) {
+            test.divideBy10();
+            assertEquals(test.toString().length(), test.digitCount());
+        }
+    }
+
+    /**
+     * Test multiply of (10^n - 1) by itself, for n large enough to use
+     * Karatsuba's method; the product is 10^(2n) - 2 * 10^n + 1.
+     */
+    @Test
+    public void testMultiplyKaratsuba() {
+        final int n = 1000;
+        NaturalNumber test = this.constructorTest(repeat('9', n));
+        NaturalNumber other = this.constructorTest(repeat('9', n));
+        test.multiply(other);
+        assertEquals(repeat('9', n - 1) + "8" + repeat('0', n - 1) + "1",
+                test.toString());
+        assertEquals(repeat('9', n), other.toString());
+    }
+
+    /**
+     * Test multiply of (10^n - 1) by itself, for n large enough to use Toom-3
+     * with subproducts computed in parallel; the product is 10^(2n) - 2 *
+     * 10^n + 1.
+     */
+    @Test
+    public void testMultiplyToom3Parallel() {
+        final int n = 30000;
+        NaturalNumber test = this.constructorTest(repeat('9', n));
+        NaturalNumber other = this.constructorTest(repeat('9', n));
+        test.multiply(other);
+        assertEquals(repeat('9', n - 1) + "8" + repeat('0', n - 1) + "1",
+                test.toString());
+        assertEquals(repeat('9', n), other.toString());
+    }
+
+    /**
+     * Test divide of 10^(2n) - 1 by 10^n - 1, for n large enough to use
+     * Burnikel-Ziegler division; the quotient is 10^n + 1.
+     */
+    @Test
+    public void testDivideBurnikelZieglerExact() {
+        final int n = 3000;
+        NaturalNumber test = this.constructorTest(repeat('9', 2 * n));
+        NaturalNumber divisor = this.constructorTest(repeat('9', n));
+        NaturalNumber remainder = test.divide(divisor);
+        assertEquals("1" + repeat('0', n - 1) + "1", test.toString());
+        assertEquals("0", remainder.toString());
+        assertEquals(repeat('9', n), divisor.toString());
+    }
+
+    /**
+     * Test divide of (10^n - 1)^2 + 5 by 10^n - 1, for n large enough to use
+     * Burnikel-Ziegler division; the quotient is 10^n - 1 and the remainder
+     * is 5.
+     */
+    @Test
+    public void testDivideBurnikelZieglerRemainder() {
+        final int n = 3000;
+        NaturalNumber test = this.constructorTest(
+                repeat('9', n - 1) + "8" + repeat('0', n - 1) + "6");
+        NaturalNumber divisor = this.constructorTest(repeat('9', n));
+        NaturalNumber remainder = test.divide(divisor);
+        assertEquals(repeat('9', n), test.toString());
+        assertEquals("5", remainder.toString());
+    }
+
+    /**
+     * Test toBigInteger and setFromBigInteger on a number long enough to be
+     * converted by divide and conquer.
+     */
+    @Test
+    public void testBigIntegerRoundTrip() {
+        final int n = 5000;
+        String digits = "1" + repeat('0', n - 2) + "7";
+        BigInteger expected = new BigInteger(digits);
+        NaturalNumber4 test = new NaturalNumber4(digits);
+        test.multiplyBy10(3);
+        assertEquals(expected.multiply(BigInteger.TEN).add(
+                BigInteger.valueOf(3)), test.toBigInteger());
+        test.setFromBigInteger(expected);
+        assertEquals(digits, test.toString());
+    }
+
+    /**
+     * Test toBigInteger and setFromBigInteger on zero.
+     */
+    @Test
+    public void testBigIntegerZero() {
+        NaturalNumber4 test = new NaturalNumber4();
+        assertEquals(BigInteger.ZERO, test.toBigInteger());
+        test.setFromBigInteger(BigInteger.ZERO);
+        assertEquals("0", test.toString());
+    }
+
+    /**
+     * Test Workspace multiplyMod, with the destination the same as the
+     * factors, repeated to compute 3^(2^10) mod 1000000007.
+     */
+    @Test
+    public void testWorkspaceMultiplyModSquaring() {
+        final int squarings = 10;
+        NaturalNumber4.Workspace ws = new NaturalNumber4.Workspace();
+        NaturalNumber4 test = new NaturalNumber4(3);
+        NaturalNumber4 m = new NaturalNumber4("1000000007");
+        for (int i = 0; i < squarings; i++) {
+            ws.multiplyMod(test, test, test, m);
+        }
+        assertEquals(BigInteger.valueOf(3).modPow(BigInteger.valueOf(2)
+                .pow(squarings), new BigInteger("1000000007")).toString(),
+                test.toString());
+        assertEquals("1000000007", m.toString());
+    }
+
+    /**
+     * Test Workspace add, multiply, mod, and divideBySmall into a separate
+     * destination, leaving the operands unchanged.
+     */
+    @Test
+    public void testWorkspaceIntoDestination() {
+        final int seven = 7;
+        final int four = 4;
+        NaturalNumber4.Workspace ws = new NaturalNumber4.Workspace();
+        NaturalNumber4 a = new NaturalNumber4("123456789012345678901");
+        NaturalNumber4 b = new NaturalNumber4("98765432109876543210");
+        NaturalNumber4 dest = new NaturalNumber4();
+        ws.add(dest, a, b);
+        assertEquals("222222221122222222111", dest.toString());
+        ws.multiply(dest, a, b);
+        assertEquals("12193263113702179522473403443222511812210",
+                dest.toString());
+        ws.mod(dest, a, b);
+        assertEquals("24691356902469135691", dest.toString());
+        assertEquals(four, ws.divideBySmall(dest, a, seven));
+        assertEquals("17636684144620811271", dest.toString());
+        assertEquals("123456789012345678901", a.toString());
+        assertEquals("98765432109876543210", b.toString());
+    }
+
+}
@@ -0,0 +1,133 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber1L;
+
+/**
+ * Customized JUnit test fixture for {@code NaturalNumber5}.
+ *
+
+ * @author K. Abukar
+ */
+
+public class NaturalNumber5Test extends NaturalNumberTest {
+
+    @Override
+    protected final NaturalNumber constructorTest() {
+        // Using NaturalNumber5 constructor.
+        return new NaturalNumber5();
+
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(int i) {
+        return new NaturalNumber5(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(String s) {
+        return new NaturalNumber5(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(NaturalNumber n) {
+        return new NaturalNumber5(n);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef() {
+        // Using NaturalNumber1L constructor.
+        return new NaturalNumber1L();
+
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(int i) {
+        return new NaturalNumber1L(i);
+
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(String s) {
+        return new NaturalNumber1L(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(NaturalNumber n) {
+        return new NaturalNumber1L(n);
+    }
+
+    /**
+     * Test add and subtract across 10^18, where the value moves from the
+     * {@code long} to a {@code NaturalNumber4} and back.
+     */
+    @Test
+    public void testAddSubtractAcrossLimit() {
+        NaturalNumber test = this.constructorTest("999999999999999999");
+        NaturalNumber one = this.constructorTest(1);
+        test.add(one);
+        assertEquals("1000000000000000000", test.toString());
+        test.subtract(one);
+        assertEquals("999999999999999999", test.toString());
+        test.add(test);
+        assertEquals("1999999999999999998", test.toString());
+    }
+
+    /**
+     * Test multiplyBy10 and divideBy10 across 10^18.
+     */
+    @Test
+    public void testMultiplyBy10DivideBy10AcrossLimit() {
+        final int seven = 7;
+        final int digits = 17;
+        NaturalNumber test = this.constructorTest("987654321098765432");
+        test.multiplyBy10(seven);
+        assertEquals("9876543210987654327", test.toString());
+        assertEquals(seven, test.divideBy10());
+        assertEquals("987654321098765432", test.toString());
+        for (int i = 0; i < digits; i++) {
+            test.divideBy10();
+        }
+        final int nine = 9;
+        assertEquals(nine, test.toInt());
+    }
+
+    /**
+     * Test multiply and divide of values whose product overflows a
+     * {@code long}.
+     */
+    @Test
+    public void testMultiplyDivideBeyondLong() {
+        NaturalNumber test = this.constructorTest("100000000000000003");
+        NaturalNumber factor = this.constructorTest("100000000000000007");
+        test.multiply(factor);
+        assertEquals("10000000000000001000000000000000021", test.toString());
+        NaturalNumber remainder = test.divide(factor);
+        assertEquals("100000000000000003", test.toString());
+        assertEquals("0", remainder.toString());
+    }
+
+    /**
+     * Test increment and decrement across 10^19 and 10^18, where the number of
+     * digits changes and the value is demoted.
+     */
+    @Test
+    public void testIncrementDecrementAcrossPowersOf10() {
+        NaturalNumber test = this.constructorTest("9999999999999999999");
+        test.increment();
+        assertEquals("10000000000000000000", test.toString());
+        test.decrement();
+        assertEquals("9999999999999999999", test.toString());
+        NaturalNumber limit = this.constructorTest("1000000000000000000");
+        limit.decrement();
+        assertEquals("999999999999999999", limit.toString());
+        limit.increment();
+        assertEquals("1000000000000000000", limit.toString());
+        limit.decrement();
+        limit.add(this.constructorTest(1));
+        assertEquals(this.constructorTest("1000000000000000000"), limit);
+    }
+
+}
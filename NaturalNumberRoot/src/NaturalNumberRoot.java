@@ -33,54 +33,56 @@ public final class NaturalNumberRoot {
         assert n != null : "Violation of: n is  not null";
         assert r >= 2 : "Violation of: r >= 2";
 
-        // Initialize variables for tooLow, tooHigh, and estimate.
-        NaturalNumber tooLow = new NaturalNumber2(0);
-        NaturalNumber tooHigh = n.newInstance();
-        NaturalNumber estimate = n.newInstance();
-
-        // Create NaturalNumber variables for constants 1 and 2.
-        NaturalNumber one = new NaturalNumber2(1);
-        NaturalNumber two = new NaturalNumber2(2);
-
-        // Adjust upper boundary.
-        tooHigh.copyFrom(n);
-        tooHigh.increment();
-
-        // Set initial estimate to the midpoint between tooLow and tooHigh.
-        estimate.copyFrom(tooHigh);
-        estimate.add(tooLow);
-        estimate.divide(two);
-
-        // Variable to hold the range difference.
-        NaturalNumber difference = n.newInstance();
-        difference.copyFrom(tooHigh);
-        difference.subtract(tooLow);
+        /*
+         * Work on NaturalNumber4 copies, with the arithmetic done in the
+         * buffers of a workspace, so the loop creates no temporaries.
+         */
+        NaturalNumber4.Workspace ws = new NaturalNumber4.Workspace();
+        NaturalNumber4 target = new NaturalNumber4(n);
+        NaturalNumber4 one = new NaturalNumber4(1);
+        NaturalNumber4 powerEstimate = new NaturalNumber4();
+        NaturalNumber4 lowPlusOne = new NaturalNumber4();
 
-        // The loop continues until difference is greater than one.
-        while (difference.compareTo(one) > 0) {
-
-            // Create a NaturalNumber to store the power of the estimate.
-            NaturalNumber powerEstimate = n.newInstance();
-            powerEstimate.copyFrom(estimate);
-            powerEstimate.power(r);
+        // Initialize variables for tooLow, tooHigh, and estimate.
+        NaturalNumber4 tooLow = new NaturalNumber4(0);
+        NaturalNumber4 tooHigh = new NaturalNumber4();
+        ws.add(tooHigh, target, one);
+        NaturalNumber4 estimate = new NaturalNumber4();
+
+        // The loop continues until tooHigh - tooLow is no more than one.
+        ws.add(lowPlusOne, tooLow, one);
+        while (lowPlusOne.compareTo(tooHigh) < 0) {
+
+            // Set estimate to the midpoint between tooLow and tooHigh.
+            ws.add(estimate, tooLow, tooHigh);
+            ws.divideBySmall(estimate, estimate, 2);
+
+            /*
+             * Compute the power of the estimate, stopping early once it is
+             * bigger than n (it can only grow from there).
+             */
+            ws.multiply(powerEstimate, estimate, estimate);
+            int power = 2;
+            while (power < r && powerEstimate.compareTo(target) <= 0) {
+                ws.multiply(powerEstimate, powerEstimate, estimate);
+                power++;
+            }
 
             // Compare n with the power of the estimate.
-            if (n.compareTo(powerEstimate) > 0
-                    || n.compareTo(powerEstimate) == 0) {
+            NaturalNumber4 previous;
+            if (target.compareTo(powerEstimate) >= 0) {
                 // If n is greater than or equal to the estimate, update tooLow.
-                tooLow.copyFrom(estimate);
+                previous = tooLow;
+                tooLow = estimate;
             } else {
                 // If n is less than the estimate, update tooHigh.
-                tooHigh.copyFrom(estimate);
+                previous = tooHigh;
+                tooHigh = estimate;
             }
+            // Reuse the replaced bound for the next estimate.
+            estimate = previous;
 
-            // Updates estimate and difference.
-            estimate.copyFrom(tooHigh);
-            estimate.add(tooLow);
-            estimate.divide(two);
-
-            difference.copyFrom(tooHigh);
-            difference.subtract(tooLow);
+            ws.add(lowPlusOne, tooLow, one);
 
         }
 
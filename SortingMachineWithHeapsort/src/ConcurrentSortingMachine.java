@@ -0,0 +1,328 @@
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe relaxed priority queue ordered like a {@code SortingMachine}
+ * (by a {@code Comparator}), for producer/consumer pipelines in which many
+ * threads add entries while others remove them, represented as a "MultiQueue":
+ * several heaps, each guarded by its own lock.
+ *
+ * <p>
+ * Unlike a {@code SortingMachine} there is no insertion or extraction mode:
+ * {@code add} and {@code removeFirst} may be called at any time, from any
+ * thread. {@code add} puts the entry into a randomly chosen heap whose lock is
+ * free. {@code removeFirst} looks at the first entries of two randomly chosen
+ * heaps (without locking) and removes the better of the two. So no lock is
+ * ever contended for long, and throughput grows with the number of threads, at
+ * the price of ordering: {@code removeFirst} returns an entry that is close to
+ * the front, not necessarily the very first one. With {@code queueCount} equal
+ * to 1 the order is exact (and there is a single lock).
+ * </p>
+ *
+ * @param <T>
+ *            type of entries
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method])  and
+ * |$this.queues| > 0  and
+ * [each $this.queues[i].heap is only accessed while holding
+ *  $this.queues[i].lock]  and
+ * [when $this.queues[i].lock is not held, $this.queues[i].top is the first
+ *  entry of $this.queues[i].heap, or null if that heap is empty]  and
+ * [$this.count is at least the total number of entries in all the heaps,
+ *  and equal to it when no operation is in progress]
+ * </pre>
+ * @correspondence <pre>
+ * this = (order: $this.machineOrder,
+ *         contents: [union of the entries of all of $this.queues[i].heap])
+ * </pre>
+ *
+ * @author K. Abukar
+ *
+ */
+public class ConcurrentSortingMachine<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Number of heaps per available processor when none is given.
+     */
+    private static final int QUEUES_PER_PROCESSOR = 2;
+
+    /**
+     * Number of times to find a lock taken before waiting for one; waiting
+     * instead of spinning matters when there are more threads than processors
+     * and the holder of the lock is not running.
+     */
+    private static final int ATTEMPTS_BEFORE_WAITING = 4;
+
+    /**
+     * One heap of the MultiQueue with its lock.
+     *
+     * @param <T>
+     *            type of entries
+     */
+    private static final class Lane<T> {
+
+        /**
+         * Lock guarding {@code heap}.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Entries of this lane.
+         */
+        private final PriorityQueue<T> heap;
+
+        /**
+         * First entry of {@code heap}, or null, readable without the lock.
+         */
+        private volatile T top;
+
+        /**
+         * Constructor from order.
+         *
+         * @param order
+         *            total preorder for the heap
+         */
+        private Lane(Comparator<T> order) {
+            this.heap = new PriorityQueue<>(order);
+            this.top = null;
+        }
+
+    }
+
+    /**
+     * Order.
+     */
+    private final Comparator<T> machineOrder;
+
+    /**
+     * The heaps.
+     */
+    private final Lane<T>[] queues;
+
+    /**
+     * Number of entries.
+     */
+    private final AtomicInteger count;
+
+    /**
+     * Reports the lane among {@code a} and {@code b} whose first entry comes
+     * first in the order, judging by the (unlocked) cached first entries.
+     *
+     * @param a
+     *            one lane
+     * @param b
+     *            the other lane
+     * @return the better lane, or null if both look empty
+     */
+    private Lane<T> better(Lane<T> a, Lane<T> b) {
+        T topA = a.top;
+        T topB = b.top;
+        Lane<T> result;
+        if (topA == null) {
+            result = (topB == null) ? null : b;
+        } else if (topB == null) {
+            result = a;
+        } else {
+            result = (this.machineOrder.compare(topA, topB) <= 0) ? a : b;
+        }
+        return result;
+    }
+
+    /**
+     * Removes and returns the first entry of {@code lane}, if it is not empty
+     * and (unless {@code wait}) its lock can be acquired without waiting.
+     *
+     * @param lane
+     *            the lane to remove from
+     * @param wait
+     *            whether to wait for the lock if it is taken
+     * @return the removed entry, or null if nothing was removed
+     */
+    private T poll(Lane<T> lane, boolean wait) {
+        T removed = null;
+        if (wait) {
+            lane.lock.lock();
+        }
+        if (wait || lane.lock.tryLock()) {
+            try {
+                removed = lane.heap.poll();
+                lane.top = lane.heap.peek();
+            } finally {
+                lane.lock.unlock();
+            }
+            if (removed != null) {
+                this.count.decrementAndGet();
+            }
+        }
+        return removed;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order, with twice as many heaps as there are available
+     * processors.
+     *
+     * @param order
+     *            total preorder for removing entries
+     */
+    public ConcurrentSortingMachine(Comparator<T> order) {
+        this(order, QUEUES_PER_PROCESSOR
+                * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor from order and number of heaps.
+     *
+     * @param order
+     *            total preorder for removing entries
+     * @param queueCount
+     *            number of heaps; more heaps means less lock contention and a
+     *            looser order
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentSortingMachine(Comparator<T> order, int queueCount) {
+        assert order != null : "Violation of: order is not null";
+        assert queueCount > 0 : "Violation of: queueCount > 0";
+        this.machineOrder = order;
+        /*
+         * With "new Lane<T>[...]" it does not compile; as shown, it results in
+         * a warning about an unchecked cast, though it cannot fail.
+         */
+        this.queues = (Lane<T>[]) (new Lane<?>[queueCount]);
+        for (int i = 0; i < queueCount; i++) {
+            this.queues[i] = new Lane<>(order);
+        }
+        this.count = new AtomicInteger(0);
+    }
+
+    /*
+     * Public methods ---------------------------------------------------------
+     */
+
+    /**
+     * Adds {@code x} to the contents of {@code this}. Safe to call from any
+     * thread at any time.
+     *
+     * @param x
+     *            the element to be added
+     * @aliases reference x
+     * @updates this.contents
+     * @requires x is not null
+     * @ensures this.contents = #this.contents union {x}
+     */
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        /*
+         * Pick random lanes until one is not locked, so a thread only waits for
+         * a lock when many lanes are taken (or there is only one lane).
+         */
+        Lane<T> lane = this.queues[random.nextInt(this.queues.length)];
+        int attempts = 1;
+        while (attempts < ATTEMPTS_BEFORE_WAITING && this.queues.length > 1
+                && !lane.lock.tryLock()) {
+            lane = this.queues[random.nextInt(this.queues.length)];
+            attempts++;
+        }
+        if (attempts == ATTEMPTS_BEFORE_WAITING || this.queues.length == 1) {
+            lane.lock.lock();
+        }
+        try {
+            /*
+             * Count x before publishing it, so count is never less than the
+             * number of entries a consumer can see: otherwise a consumer could
+             * remove x and decrement count first (making size negative), and
+             * removeFirst could find count at 0 and return null while x is
+             * still in a heap.
+             */
+            this.count.incrementAndGet();
+            lane.heap.add(x);
+            lane.top = lane.heap.peek();
+        } finally {
+            lane.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns an entry close to the front of {@code this}, in the
+     * order; with one heap, the very first entry. Safe to call from any thread
+     * at any time.
+     *
+     * @return the entry removed, or null if {@code this} was empty
+     * @updates this.contents
+     * @ensures <pre>
+     * if #this.contents = {} then
+     *   removeFirst = null  and  this.contents = #this.contents
+     * else
+     *   removeFirst is in #this.contents  and
+     *   this.contents = #this.contents \ {removeFirst}  and
+     *   [removeFirst comes first among the entries of two (or, with one heap,
+     *    all) of the heaps]
+     * </pre>
+     */
+    public final T removeFirst() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        T removed = null;
+        int attempts = 0;
+        while (removed == null && this.count.get() > 0) {
+            Lane<T> lane;
+            if (this.queues.length == 1) {
+                removed = this.poll(this.queues[0], true);
+            } else {
+                lane = this.better(
+                        this.queues[random.nextInt(this.queues.length)],
+                        this.queues[random.nextInt(this.queues.length)]);
+                if (lane == null) {
+                    /*
+                     * Both sampled lanes look empty but some entry is
+                     * somewhere: look for any non-empty lane.
+                     */
+                    for (int i = 0; i < this.queues.length
+                            && lane == null; i++) {
+                        if (this.queues[i].top != null) {
+                            lane = this.queues[i];
+                        }
+                    }
+                }
+                if (lane != null) {
+                    attempts++;
+                    removed = this.poll(lane,
+                            attempts >= ATTEMPTS_BEFORE_WAITING);
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Reports the number of entries in {@code this}; with other threads adding
+     * or removing, the result may be out of date as soon as it is returned.
+     *
+     * @return the number of entries in this.contents
+     * @ensures size = |this.contents|
+     */
+    public final int size() {
+        return this.count.get();
+    }
+
+    /**
+     * Reports the order of {@code this}.
+     *
+     * @return the order of {@code this}
+     * @ensures order = this.order
+     */
+    public final Comparator<T> order() {
+        return this.machineOrder;
+    }
+
+}
@@ -0,0 +1,134 @@
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Measures the throughput of {@code ConcurrentSortingMachine} used as a work
+ * queue, with 1 to 64 threads, half of them adding random entries and half of
+ * them removing entries (or, with 1 thread, adding all entries and then
+ * removing them all), compared to the same machine with a single heap (and
+ * so a single lock).
+ *
+ * @author K. Abukar
+ *
+ */
+public final class ConcurrentSortingMachineBenchmark {
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private ConcurrentSortingMachineBenchmark() {
+    }
+
+    /**
+     * Total number of entries added (and removed) in each run.
+     */
+    private static final int ENTRIES = 1_000_000;
+
+    /**
+     * Largest number of threads to try.
+     */
+    private static final int MAX_THREADS = 64;
+
+    /**
+     * Number of runs before timing, to let the JIT compiler warm up.
+     */
+    private static final int WARMUP_RUNS = 3;
+
+    /**
+     * Integer order.
+     */
+    private static final Comparator<Integer> ORDER = Integer::compare;
+
+    /**
+     * Adds and removes {@code ENTRIES} entries using {@code threads} threads,
+     * and reports the elapsed time. With one thread, the calling thread adds
+     * all the entries and then removes them all; otherwise half of the threads
+     * (rounded down) add entries while the rest remove them.
+     *
+     * @param machine
+     *            the (empty) machine to use
+     * @param threads
+     *            number of threads
+     * @return the elapsed time, in nanoseconds
+     * @requires machine.contents = {} and threads > 0
+     */
+    private static long run(ConcurrentSortingMachine<Integer> machine,
+            int threads) {
+        if (threads == 1) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long start = System.nanoTime();
+            for (int k = 0; k < ENTRIES; k++) {
+                machine.add(random.nextInt());
+            }
+            for (int k = 0; k < ENTRIES; k++) {
+                machine.removeFirst();
+            }
+            return System.nanoTime() - start;
+        }
+        int producers = threads / 2;
+        int consumers = threads - producers;
+        int perProducer = ENTRIES / producers;
+        int total = perProducer * producers;
+        AtomicInteger removed = new AtomicInteger(0);
+        Thread[] workers = new Thread[producers + consumers];
+        for (int i = 0; i < producers; i++) {
+            workers[i] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int k = 0; k < perProducer; k++) {
+                    machine.add(random.nextInt());
+                }
+            });
+        }
+        for (int i = producers; i < workers.length; i++) {
+            workers[i] = new Thread(() -> {
+                while (removed.get() < total) {
+                    if (machine.removeFirst() != null) {
+                        removed.incrementAndGet();
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        out.println("threads\tMultiQueue ops/ms\tsingle lock ops/ms");
+        for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                run(new ConcurrentSortingMachine<>(ORDER), threads);
+            }
+            long multi = run(new ConcurrentSortingMachine<>(ORDER), threads);
+            long single = run(new ConcurrentSortingMachine<>(ORDER, 1),
+                    threads);
+            final double nanosPerMilli = 1e6;
+            out.println(threads + "\t" + (2.0 * ENTRIES * nanosPerMilli / multi)
+                    + "\t" + (2.0 * ENTRIES * nanosPerMilli / single));
+        }
+        out.close();
+    }
+
+}
@@ -1,5 +1,6 @@
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Locale;
 import java.util.NoSuchElementException;
 
 import components.queue.Queue;
@@ -69,6 +70,52 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * Private members --------------------------------------------------------
      */
 
+    /**
+     * How much of the convention (and of the requires clauses of the private
+     * heap methods) is checked when assertion checking is on.
+     */
+    enum Checking {
+        /**
+         * Nothing is checked.
+         */
+        OFF,
+        /**
+         * The O(1) parts are checked on every operation; the whole heap is
+         * checked right after it is built and on every
+         * {@code SAMPLE_PERIOD}-th operation.
+         */
+        SAMPLED,
+        /**
+         * The O(1) parts, and the heap ordering along the path from the root
+         * that {@code siftDown} followed, are checked on every operation; the
+         * whole heap is checked right after it is built.
+         */
+        INCREMENTAL,
+        /**
+         * Everything is checked on every operation.
+         */
+        FULL
+    }
+
+    /**
+     * Checking level, from the system property "SortingMachine5a.checking"
+     * (OFF, SAMPLED, INCREMENTAL, or FULL, in any case; FULL if not set or not
+     * one of those).
+     */
+    private static final Checking CHECKING = checkingLevel(
+            System.getProperty("SortingMachine5a.checking"));
+
+    /**
+     * Number of operations between whole-heap checks when
+     * {@code CHECKING = SAMPLED}.
+     */
+    private static final int SAMPLE_PERIOD = 1024;
+
+    /**
+     * Number of convention checks made, used when {@code CHECKING = SAMPLED}.
+     */
+    private int checkCount;
+
     /**
      * Order.
      */
@@ -94,6 +141,14 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      */
     private int heapSize;
 
+    /**
+     * Index at which the sift down in the last {@code removeFirst} left the
+     * entry it moved (0 if there has been none since the heap was built, which
+     * {@code changeToExtractionMode} checks in full), used when
+     * {@code CHECKING = INCREMENTAL}.
+     */
+    private int siftEnd;
+
     /**
      * Exchanges entries at indices {@code i} and {@code j} of {@code array}.
      *
@@ -138,6 +193,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      *            the index of the last entry in the heap
      * @param order
      *            total preorder for sorting
+     * @return the index at which the entry at {@code top} came to rest
      * @updates array
      * @requires <pre>
      * 0 <= top  and  last < |array|  and
@@ -160,22 +216,26 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * [the other entries in array are the same as in #array]
      * </pre>
      */
-    private static <T> void siftDown(T[] array, int top, int last,
+    private static <T> int siftDown(T[] array, int top, int last,
             Comparator<T> order) {
         assert array != null : "Violation of: array is not null";
         assert order != null : "Violation of: order is not null";
         assert 0 <= top : "Violation of: 0 <= top";
         assert last < array.length : "Violation of: last < |array|";
-        for (int i = 0; i < array.length; i++) {
-            assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
-        }
-        assert isHeap(array, 2 * top + 1, last, order) : ""
-                + "Violation of: SUBTREE_IS_HEAP(array, 2 * top + 1, last,"
-                + " [relation computed by order.compare method])";
-        assert isHeap(array, 2 * top + 2, last, order) : ""
-                + "Violation of: SUBTREE_IS_HEAP(array, 2 * top + 2, last,"
-                + " [relation computed by order.compare method])";
+        /*
+         * These checks take O(|array|) time on every (recursive) call, so they
+         * are only made when CHECKING = FULL.
+         */
+        assert CHECKING != Checking.FULL || allNotNull(array) : ""
+                + "Violation of: all entries in array are not null";
+        assert CHECKING != Checking.FULL
+                || isHeap(array, 2 * top + 1, last, order) : ""
+                        + "Violation of: SUBTREE_IS_HEAP(array, 2 * top + 1, last,"
+                        + " [relation computed by order.compare method])";
+        assert CHECKING != Checking.FULL
+                || isHeap(array, 2 * top + 2, last, order) : ""
+                        + "Violation of: SUBTREE_IS_HEAP(array, 2 * top + 2, last,"
+                        + " [relation computed by order.compare method])";
         /*
          * Impractical to check last requires clause; no need to check the other
          * requires clause, because it must be true when using the array
@@ -185,6 +245,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         // Define indexes of left and right entries.
         int left = 2 * top + 1;
         int right = left + 1;
+        int rest = top;
 
         /*
          * If left does not exceed last entry to siftDown to, and right does
@@ -195,6 +256,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
             if (right > last) {
                 if (order.compare(array[top], array[left]) > 0) {
                     exchangeEntries(array, top, left);
+                    rest = left;
                 }
                 /*
                  * Otherwise, define leftLessThanRight
@@ -210,7 +272,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
                      * the appropriate place.
                      */
                     exchangeEntries(array, top, left);
-                    siftDown(array, left, last, order);
+                    rest = siftDown(array, left, last, order);
                 } else if (order.compare(array[top], array[right]) > 0
                         && !leftLessThanRight) {
                     /*
@@ -219,10 +281,11 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
                      * down to the appropriate place.
                      */
                     exchangeEntries(array, top, right);
-                    siftDown(array, right, last, order);
+                    rest = siftDown(array, right, last, order);
                 }
             }
         }
+        return rest;
     }
 
     /**
@@ -255,10 +318,8 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         assert array != null : "Violation of: array is not null";
         assert order != null : "Violation of: order is not null";
         assert 0 <= top : "Violation of: 0 <= top";
-        for (int i = 0; i < array.length; i++) {
-            assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
-        }
+        assert CHECKING != Checking.FULL || allNotNull(array) : ""
+                + "Violation of: all entries in array are not null";
         /*
          * Impractical to check last requires clause; no need to check the other
          * requires clause, because it must be true when using the array
@@ -377,10 +438,8 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         assert array != null : "Violation of: array is not null";
         assert 0 <= top : "Violation of: 0 <= top";
         assert last < array.length : "Violation of: last < |array|";
-        for (int i = 0; i < array.length; i++) {
-            assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
-        }
+        assert CHECKING != Checking.FULL || allNotNull(array) : ""
+                + "Violation of: all entries in array are not null";
         /*
          * No need to check the other requires clause, because it must be true
          * when using the Array representation for a complete binary tree.
@@ -399,9 +458,109 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         return isHeap;
     }
 
+    /**
+     * Checks whether every entry of {@code array} is not null.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array to check
+     * @return true if every entry of {@code array} is not null
+     * @ensures <pre>
+     * allNotNull = for all i: integer
+     *     where (0 <= i  and  i < |array|)
+     *   ([entry at position i in array is not null])
+     * </pre>
+     */
+    private static <T> boolean allNotNull(T[] array) {
+        boolean allNotNull = true;
+        for (int i = 0; i < array.length && allNotNull; i++) {
+            allNotNull = array[i] != null;
+        }
+        return allNotNull;
+    }
+
+    /**
+     * Checks the heap ordering along the path from the root to position
+     * {@code end}, comparing each entry on the path with both of its
+     * children, in O(log(last)) time. When {@code end} is where
+     * {@code siftDown} left the entry it moved, the path holds every entry
+     * {@code siftDown} moved, and every ordering between two entries that
+     * involves one of them is checked; so if the heap was a heap before, this
+     * check finds any mistake {@code siftDown} made.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete binary tree
+     * @param end
+     *            the index of the last entry on the path
+     * @param last
+     *            the index of the last entry in the heap
+     * @param order
+     *            total preorder for sorting
+     * @return true if no entry on the path comes after one of its children
+     * @requires <pre>
+     * 0 <= end  and  last < |array|  and
+     * [entries at positions 0 through last in array are not null]
+     * </pre>
+     * @ensures <pre>
+     * isHeapAlongPath = [no entry on the path from position 0 to position end
+     *   comes after either of its children]
+     * </pre>
+     */
+    static <T> boolean isHeapAlongPath(T[] array, int end, int last,
+            Comparator<T> order) {
+        boolean isHeap = true;
+        int node = end;
+        boolean done = false;
+        while (isHeap && !done) {
+            int left = 2 * node + 1;
+            int right = left + 1;
+            if (left <= last) {
+                isHeap = order.compare(array[node], array[left]) <= 0;
+            }
+            if (isHeap && right <= last) {
+                isHeap = order.compare(array[node], array[right]) <= 0;
+            }
+            done = node == 0;
+            node = (node - 1) / 2;
+        }
+        return isHeap;
+    }
+
+    /**
+     * Returns the heap checking level given by {@code name}, the value of the
+     * "SortingMachine5a.checking" system property. Case does not matter, in
+     * any default locale; when the property is not set, or names no level,
+     * every operation checks the whole heap (FULL).
+     *
+     * @param name
+     *            the name of a level, or null
+     * @return the level called {@code name}, or FULL if there is none
+     * @ensures <pre>
+     * if [name, in upper case, is the name of a level] then
+     *   checkingLevel = [that level]
+     * else
+     *   checkingLevel = FULL
+     * </pre>
+     */
+    static Checking checkingLevel(String name) {
+        Checking result = Checking.FULL;
+        if (name != null) {
+            String upper = name.toUpperCase(Locale.ROOT);
+            for (Checking level : Checking.values()) {
+                if (level.name().equals(upper)) {
+                    result = level;
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Checks that the part of the convention repeated below holds for the
-     * current representation.
+     * current representation (as much of it as {@code CHECKING} calls for).
      *
      * @return true if the convention holds (or if assertion checking is off);
      *         otherwise reports a violated assertion
@@ -419,28 +578,41 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * </pre>
      */
     private boolean conventionHolds() {
-        if (this.insertionMode) {
-            assert this.heapSize == 0 : ""
-                    + "Violation of: if $this.insertionMode then $this.heapSize = 0";
-        } else {
-            assert this.entries.length() == 0 : ""
-                    + "Violation of: if not $this.insertionMode then $this.entries = <>";
-            assert 0 <= this.heapSize : ""
-                    + "Violation of: if not $this.insertionMode then 0 <= $this.heapSize";
-            assert this.heapSize <= this.heap.length : ""
-                    + "Violation of: if not $this.insertionMode then"
-                    + " $this.heapSize <= |$this.heap|";
-            for (int i = 0; i < this.heap.length; i++) {
-                assert this.heap[i] != null : ""
+        if (CHECKING != Checking.OFF) {
+            if (this.insertionMode) {
+                assert this.heapSize == 0 : ""
+                        + "Violation of: if $this.insertionMode then $this.heapSize = 0";
+            } else {
+                assert this.entries.length() == 0 : ""
+                        + "Violation of: if not $this.insertionMode then $this.entries = <>";
+                assert 0 <= this.heapSize : ""
+                        + "Violation of: if not $this.insertionMode then 0 <= $this.heapSize";
+                assert this.heapSize <= this.heap.length : ""
                         + "Violation of: if not $this.insertionMode then"
-                        + " all entries in $this.heap are not null";
+                        + " $this.heapSize <= |$this.heap|";
+                this.checkCount++;
+                if (CHECKING == Checking.FULL || (CHECKING == Checking.SAMPLED
+                        && this.checkCount % SAMPLE_PERIOD == 0)) {
+                    for (int i = 0; i < this.heap.length; i++) {
+                        assert this.heap[i] != null : ""
+                                + "Violation of: if not $this.insertionMode then"
+                                + " all entries in $this.heap are not null";
+                    }
+                    assert isHeap(this.heap, 0, this.heapSize - 1,
+                            this.machineOrder) : ""
+                                    + "Violation of: if not $this.insertionMode then"
+                                    + " SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,"
+                                    + " [relation computed by $this.machineOrder.compare"
+                                    + " method])";
+                } else if (CHECKING == Checking.INCREMENTAL) {
+                    assert isHeapAlongPath(this.heap, this.siftEnd,
+                            this.heapSize - 1, this.machineOrder) : ""
+                                    + "Violation of: if not $this.insertionMode then"
+                                    + " SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,"
+                                    + " [relation computed by $this.machineOrder.compare"
+                                    + " method])";
+                }
             }
-            assert isHeap(this.heap, 0, this.heapSize - 1,
-                    this.machineOrder) : ""
-                            + "Violation of: if not $this.insertionMode then"
-                            + " SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,"
-                            + " [relation computed by $this.machineOrder.compare"
-                            + " method])";
         }
         return true;
     }
@@ -467,6 +639,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         this.machineOrder = order;
         this.entries = new Queue1L<>();
         this.heapSize = 0;
+        this.siftEnd = 0;
     }
 
     /*
@@ -524,6 +697,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         this.entries = localSource.entries;
         this.heap = localSource.heap;
         this.heapSize = localSource.heapSize;
+        this.siftEnd = localSource.siftEnd;
         localSource.createNewRep(localSource.machineOrder);
         assert this.conventionHolds();
         assert localSource.conventionHolds();
@@ -551,6 +725,18 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         this.heapSize = this.entries.length();
         // Build heap using queue entries and order.
         this.heap = buildHeap(this.entries, this.machineOrder);
+        /*
+         * buildHeap moves entries along many paths, not just the one
+         * conventionHolds looks at with INCREMENTAL checking (or the whole
+         * heap only now and then, with SAMPLED), so check all of it once now;
+         * that costs no more than building it.
+         */
+        assert CHECKING == Checking.OFF || CHECKING == Checking.FULL
+                || isHeap(this.heap, 0, this.heapSize - 1,
+                        this.machineOrder) : ""
+                                + "Violation of: SUBTREE_IS_HEAP($this.heap, 0,"
+                                + " $this.heapSize - 1, [relation computed by"
+                                + " $this.machineOrder.compare method])";
         assert this.conventionHolds();
     }
 
@@ -572,7 +758,8 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
          * Sift down the entry at 0 all the way to the bottom, since you just
          * exchanged it.
          */
-        siftDown(this.heap, 0, this.heapSize - 1, this.machineOrder);
+        this.siftEnd = siftDown(this.heap, 0, this.heapSize - 1,
+                this.machineOrder);
 
         assert this.conventionHolds();
 
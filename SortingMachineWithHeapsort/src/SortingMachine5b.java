@@ -0,0 +1,558 @@
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} represented as a growable array that is kept a heap
+ * while entries are being inserted (using an embedding of heap sort), with
+ * implementations of primary methods.
+ *
+ * <p>
+ * Unlike {@code SortingMachine5a}, which queues the entries and builds the
+ * whole heap in {@code changeToExtractionMode}, each call to {@code add} sifts
+ * the new entry up into place. Execution-time performance of {@code add} is
+ * O(log n) (amortized, because of array doubling), of
+ * {@code changeToExtractionMode} is O(1), and of {@code removeFirst} is O(log
+ * n).
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * SUBTREE_IS_HEAP (
+ *   a: string of T,
+ *   start: integer,
+ *   stop: integer,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  [the subtree of a (when a is interpreted as a complete binary tree) rooted
+ *   at index start and only through entry stop of a satisfies the heap
+ *   ordering property according to the relation r]
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method])  and
+ * 0 <= $this.heapSize <= |$this.heap|  and
+ * |$this.heap| > 0  and
+ * for all i: integer
+ *     where (0 <= i  and  i < $this.heapSize)
+ *   ([entry at position i in $this.heap is not null])  and
+ * for all i: integer
+ *     where ($this.heapSize <= i  and  i < |$this.heap|)
+ *   ([entry at position i in $this.heap is null])  and
+ * SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
+ *   [relation computed by $this.machineOrder.compare method])
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.heap[0, $this.heapSize)))
+ * </pre>
+ *
+ * @author K. Abukar
+ *
+ */
+public class SortingMachine5b<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial capacity of the heap array.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Heap.
+     */
+    private T[] heap;
+
+    /**
+     * Heap size.
+     */
+    private int heapSize;
+
+    /**
+     * Exchanges entries at indices {@code i} and {@code j} of {@code array}.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array whose entries are to be exchanged
+     * @param i
+     *            one index
+     * @param j
+     *            the other index
+     * @updates array
+     * @requires 0 <= i < |array| and 0 <= j < |array|
+     * @ensures array = [#array with entries at indices i and j exchanged]
+     */
+    private static <T> void exchangeEntries(T[] array, int i, int j) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < array.length : "Violation of: i < |array|";
+        assert 0 <= j : "Violation of: 0 <= j";
+        assert j < array.length : "Violation of: j < |array|";
+
+        T temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+
+    /**
+     * Given an array that represents a complete binary tree that is a heap
+     * through entry {@code last - 1}, sifts the entry at {@code last} up to
+     * turn the whole tree through entry {@code last} into a heap.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete binary tree
+     * @param last
+     *            the index of the entry to sift up, also the index of the last
+     *            entry in the heap
+     * @param order
+     *            total preorder for sorting
+     * @updates array
+     * @requires <pre>
+     * 0 <= last < |array|  and
+     * for all i: integer
+     *     where (0 <= i  and  i <= last)
+     *   ([entry at position i in array is not null])  and
+     * SUBTREE_IS_HEAP(array, 0, last - 1,
+     *     [relation computed by order.compare method])  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * SUBTREE_IS_HEAP(array, 0, last,
+     *     [relation computed by order.compare method])  and
+     * perms(array, #array)  and
+     * [the entries in array after index last are the same as in #array]
+     * </pre>
+     */
+    private static <T> void siftUp(T[] array, int last, Comparator<T> order) {
+        assert array != null : "Violation of: array is not null";
+        assert order != null : "Violation of: order is not null";
+        assert 0 <= last : "Violation of: 0 <= last";
+        assert last < array.length : "Violation of: last < |array|";
+        /*
+         * Impractical to check the heap and total preorder requires clauses
+         * here; conventionHolds checks the former for the whole heap.
+         */
+
+        /*
+         * While the entry has a parent that comes after it in the order,
+         * exchange the entry with its parent and continue from there.
+         */
+        int child = last;
+        while (child > 0) {
+            int parent = (child - 1) / 2;
+            if (order.compare(array[parent], array[child]) <= 0) {
+                break;
+            }
+            exchangeEntries(array, parent, child);
+            child = parent;
+        }
+    }
+
+    /**
+     * Given an array that represents a complete binary tree and an index
+     * referring to the root of a subtree that would be a heap except for its
+     * root, sifts the root down to turn that whole subtree into a heap.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete binary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param last
+     *            the index of the last entry in the heap
+     * @param order
+     *            total preorder for sorting
+     * @updates array
+     * @requires <pre>
+     * 0 <= top  and  last < |array|  and
+     * for all i: integer
+     *     where (0 <= i  and  i <= last)
+     *   ([entry at position i in array is not null])  and
+     * SUBTREE_IS_HEAP(array, 2 * top + 1, last,
+     *     [relation computed by order.compare method])  and
+     * SUBTREE_IS_HEAP(array, 2 * top + 2, last,
+     *     [relation computed by order.compare method])  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * SUBTREE_IS_HEAP(array, top, last,
+     *     [relation computed by order.compare method])  and
+     * perms(array, #array)  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static <T> void siftDown(T[] array, int top, int last,
+            Comparator<T> order) {
+        assert array != null : "Violation of: array is not null";
+        assert order != null : "Violation of: order is not null";
+        assert 0 <= top : "Violation of: 0 <= top";
+        assert last < array.length : "Violation of: last < |array|";
+        /*
+         * Impractical to check the heap and total preorder requires clauses
+         * here; conventionHolds checks the former for the whole heap.
+         */
+
+        /*
+         * While the entry at parent has a child, find the child that comes
+         * first in the order, and if it comes before the entry at parent,
+         * exchange them and continue from that child.
+         */
+        int parent = top;
+        int left = 2 * parent + 1;
+        while (left <= last) {
+            int smaller = left;
+            int right = left + 1;
+            if (right <= last
+                    && order.compare(array[right], array[left]) < 0) {
+                smaller = right;
+            }
+            if (order.compare(array[parent], array[smaller]) <= 0) {
+                break;
+            }
+            exchangeEntries(array, parent, smaller);
+            parent = smaller;
+            left = 2 * parent + 1;
+        }
+    }
+
+    /**
+     * Checks if the subtree of the given {@code array} rooted at the given
+     * {@code top} is a heap.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete binary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param last
+     *            the index of the last entry in the heap
+     * @param order
+     *            total preorder for sorting
+     * @return true if the subtree of the given {@code array} rooted at the
+     *         given {@code top} is a heap; false otherwise
+     * @requires <pre>
+     * 0 <= top  and  last < |array|  and
+     * for all i: integer
+     *     where (0 <= i  and  i <= last)
+     *   ([entry at position i in array is not null])
+     * </pre>
+     * @ensures <pre>
+     * isHeap = SUBTREE_IS_HEAP(array, top, last,
+     *     [relation computed by order.compare method])
+     * </pre>
+     */
+    private static <T> boolean isHeap(T[] array, int top, int last,
+            Comparator<T> order) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= top : "Violation of: 0 <= top";
+        assert last < array.length : "Violation of: last < |array|";
+
+        /*
+         * Every entry in the subtree other than its root must not come before
+         * its parent; for the array embedding it suffices to check each index
+         * of the subtree against its parent.
+         */
+        boolean isHeap = true;
+        int left = 2 * top + 1;
+        if (left <= last) {
+            isHeap = (order.compare(array[top], array[left]) <= 0)
+                    && isHeap(array, left, last, order);
+            int right = left + 1;
+            if (isHeap && (right <= last)) {
+                isHeap = (order.compare(array[top], array[right]) <= 0)
+                        && isHeap(array, right, last, order);
+            }
+        }
+        return isHeap;
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 <= $this.heapSize <= |$this.heap|  and
+     * |$this.heap| > 0  and
+     * for all i: integer
+     *     where (0 <= i  and  i < $this.heapSize)
+     *   ([entry at position i in $this.heap is not null])  and
+     * for all i: integer
+     *     where ($this.heapSize <= i  and  i < |$this.heap|)
+     *   ([entry at position i in $this.heap is null])  and
+     * SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
+     *   [relation computed by $this.machineOrder.compare method])
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 0 <= this.heapSize : "Violation of: 0 <= $this.heapSize";
+        assert this.heapSize <= this.heap.length : ""
+                + "Violation of: $this.heapSize <= |$this.heap|";
+        assert this.heap.length > 0 : "Violation of: |$this.heap| > 0";
+        for (int i = 0; i < this.heap.length; i++) {
+            assert (this.heap[i] != null) == (i < this.heapSize) : ""
+                    + "Violation of: exactly the entries at positions"
+                    + " 0 through $this.heapSize - 1 in $this.heap are not null";
+        }
+        assert isHeap(this.heap, 0, this.heapSize - 1, this.machineOrder) : ""
+                + "Violation of: SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,"
+                + " [relation computed by $this.machineOrder.compare method])";
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method]
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * |$this.heap| = INITIAL_CAPACITY  and
+     * $this.heapSize = 0
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order) {
+        this.insertionMode = true;
+        this.machineOrder = order;
+        /*
+         * With "new T[...]" in place of "new Object[...]" it does not compile;
+         * as shown, it results in a warning about an unchecked cast, though it
+         * cannot fail.
+         */
+        this.heap = (T[]) (new Object[INITIAL_CAPACITY]);
+        this.heapSize = 0;
+    }
+
+    /**
+     * Doubles the length of {@code this.heap}, keeping its entries.
+     *
+     * @updates $this.heap
+     * @ensures <pre>
+     * |$this.heap| = 2 * |#$this.heap|  and
+     * $this.heap[0, |#$this.heap|) = #$this.heap  and
+     * [the other entries in $this.heap are null]
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void growHeap() {
+        T[] larger = (T[]) (new Object[2 * this.heap.length]);
+        System.arraycopy(this.heap, 0, larger, 0, this.heapSize);
+        this.heap = larger;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    public SortingMachine5b(Comparator<T> order) {
+        this.createNewRep(order);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(Comparator.class)
+                    .newInstance(this.machineOrder);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine5b<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine5b<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine5b<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine5b<T> localSource = (SortingMachine5b<T>) source;
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.heap = localSource.heap;
+        this.heapSize = localSource.heapSize;
+        localSource.createNewRep(localSource.machineOrder);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+        // Make room for x if the array is full.
+        if (this.heapSize == this.heap.length) {
+            this.growHeap();
+        }
+        // Put x in the first free leaf and sift it up into place.
+        this.heap[this.heapSize] = x;
+        siftUp(this.heap, this.heapSize, this.machineOrder);
+        this.heapSize++;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+        // The heap is already built, so only the mode changes.
+        this.insertionMode = false;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+        // Storing value of first entry.
+        T removed = this.heap[0];
+
+        /*
+         * Move the last entry to the root, forget the old last position so the
+         * removed entry is not kept reachable, and sift the new root down.
+         */
+        this.heapSize--;
+        this.heap[0] = this.heap[this.heapSize];
+        this.heap[this.heapSize] = null;
+        siftDown(this.heap, 0, this.heapSize - 1, this.machineOrder);
+
+        assert this.conventionHolds();
+
+        return removed;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.heapSize;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine5bIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine5b}.
+     */
+    private final class SortingMachine5bIterator implements Iterator<T> {
+
+        /**
+         * Representation iterator count.
+         */
+        private int arrayCurrentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine5bIterator() {
+            this.arrayCurrentIndex = 0;
+            assert SortingMachine5b.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = this.arrayCurrentIndex
+                    < SortingMachine5b.this.heapSize;
+            assert SortingMachine5b.this.conventionHolds();
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next = SortingMachine5b.this.heap[this.arrayCurrentIndex];
+            this.arrayCurrentIndex++;
+            assert SortingMachine5b.this.conventionHolds();
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
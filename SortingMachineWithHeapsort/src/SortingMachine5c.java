@@ -0,0 +1,619 @@
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * Bounded {@code SortingMachine} that keeps only the (at most)
+ * {@code capacity} entries that come first in its order, represented as an
+ * array that is a heap by the reverse of that order while inserting and a
+ * sorted array while extracting, with implementations of primary methods.
+ *
+ * <p>
+ * This is meant for "best N of many" selection: the root of the insertion heap
+ * is the worst entry kept so far, so {@code add} either discards {@code x} or
+ * replaces the root and sifts it down. Execution-time performance of
+ * {@code add} is O(log K), of {@code changeToExtractionMode} is O(K log K), and
+ * of {@code removeFirst} is O(1), where K is the capacity; space is O(K) no
+ * matter how many entries are added.
+ * </p>
+ *
+ * <p>
+ * The abstract value of a {@code SortingMachine5c} is the same as that of any
+ * {@code SortingMachine}, except that {@code add(x)} does not always put
+ * {@code x} into {@code this.contents}: once there are {@code capacity}
+ * entries, whichever entry comes last in the order (among those already there
+ * and {@code x}) is dropped. When several entries tie for last place, which one
+ * is dropped is unspecified.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * SUBTREE_IS_HEAP (
+ *   a: string of T,
+ *   start: integer,
+ *   stop: integer,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  [the subtree of a (when a is interpreted as a complete binary tree) rooted
+ *   at index start and only through entry stop of a satisfies the heap
+ *   ordering property according to the relation r]
+ *
+ * IS_SORTED (
+ *   s: string of T,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y: T where (<x, y> is substring of s) (r(x, y))
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method])  and
+ * $this.capacity >= 0  and
+ * 0 <= $this.first <= $this.first + $this.size <= |$this.entries|  and
+ * |$this.entries| <= $this.capacity  and
+ * for all i: integer
+ *     where (0 <= i  and  i < |$this.entries|)
+ *   ([entry at position i in $this.entries is not null] iff
+ *    $this.first <= i < $this.first + $this.size)  and
+ * if $this.insertionMode then
+ *   $this.first = 0  and
+ *   SUBTREE_IS_HEAP($this.entries, 0, $this.size - 1,
+ *     [relation computed by $this.machineOrder.compare method, reversed])
+ * else
+ *   IS_SORTED($this.entries[$this.first, $this.first + $this.size),
+ *     [relation computed by $this.machineOrder.compare method])
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.entries[$this.first,
+ *                                        $this.first + $this.size)))
+ * </pre>
+ *
+ * @author K. Abukar
+ *
+ */
+public class SortingMachine5c<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial length of the entries array (unless the capacity is smaller).
+     */
+    private static final int INITIAL_LENGTH = 16;
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Maximum number of entries kept.
+     */
+    private int capacity;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries: a heap by the reverse order in insertion mode, sorted by the
+     * order in extraction mode.
+     */
+    private T[] entries;
+
+    /**
+     * Index of the first entry still in the machine.
+     */
+    private int first;
+
+    /**
+     * Number of entries still in the machine.
+     */
+    private int size;
+
+    /**
+     * Exchanges entries at indices {@code i} and {@code j} of {@code array}.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array whose entries are to be exchanged
+     * @param i
+     *            one index
+     * @param j
+     *            the other index
+     * @updates array
+     * @requires 0 <= i < |array| and 0 <= j < |array|
+     * @ensures array = [#array with entries at indices i and j exchanged]
+     */
+    private static <T> void exchangeEntries(T[] array, int i, int j) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < array.length : "Violation of: i < |array|";
+        assert 0 <= j : "Violation of: 0 <= j";
+        assert j < array.length : "Violation of: j < |array|";
+
+        T temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+
+    /**
+     * Sifts the entry at {@code last} up to turn the whole tree through entry
+     * {@code last} into a heap by the reverse of {@code order} (i.e., the root
+     * comes last in {@code order}).
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete binary tree
+     * @param last
+     *            the index of the entry to sift up, also the index of the last
+     *            entry in the heap
+     * @param order
+     *            total preorder for sorting
+     * @updates array
+     * @requires <pre>
+     * 0 <= last < |array|  and
+     * SUBTREE_IS_HEAP(array, 0, last - 1,
+     *     [relation computed by order.compare method, reversed])  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * SUBTREE_IS_HEAP(array, 0, last,
+     *     [relation computed by order.compare method, reversed])  and
+     * perms(array, #array)  and
+     * [the entries in array after index last are the same as in #array]
+     * </pre>
+     */
+    private static <T> void siftUp(T[] array, int last, Comparator<T> order) {
+        assert array != null : "Violation of: array is not null";
+        assert order != null : "Violation of: order is not null";
+        assert 0 <= last : "Violation of: 0 <= last";
+        assert last < array.length : "Violation of: last < |array|";
+
+        int child = last;
+        while (child > 0) {
+            int parent = (child - 1) / 2;
+            if (order.compare(array[parent], array[child]) >= 0) {
+                break;
+            }
+            exchangeEntries(array, parent, child);
+            child = parent;
+        }
+    }
+
+    /**
+     * Sifts the root of the subtree rooted at {@code top} down to turn that
+     * whole subtree into a heap by the reverse of {@code order}.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete binary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param last
+     *            the index of the last entry in the heap
+     * @param order
+     *            total preorder for sorting
+     * @updates array
+     * @requires <pre>
+     * 0 <= top  and  last < |array|  and
+     * SUBTREE_IS_HEAP(array, 2 * top + 1, last,
+     *     [relation computed by order.compare method, reversed])  and
+     * SUBTREE_IS_HEAP(array, 2 * top + 2, last,
+     *     [relation computed by order.compare method, reversed])  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * SUBTREE_IS_HEAP(array, top, last,
+     *     [relation computed by order.compare method, reversed])  and
+     * perms(array, #array)  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static <T> void siftDown(T[] array, int top, int last,
+            Comparator<T> order) {
+        assert array != null : "Violation of: array is not null";
+        assert order != null : "Violation of: order is not null";
+        assert 0 <= top : "Violation of: 0 <= top";
+        assert last < array.length : "Violation of: last < |array|";
+
+        int parent = top;
+        int left = 2 * parent + 1;
+        while (left <= last) {
+            int larger = left;
+            int right = left + 1;
+            if (right <= last
+                    && order.compare(array[right], array[left]) > 0) {
+                larger = right;
+            }
+            if (order.compare(array[parent], array[larger]) >= 0) {
+                break;
+            }
+            exchangeEntries(array, parent, larger);
+            parent = larger;
+            left = 2 * parent + 1;
+        }
+    }
+
+    /**
+     * Checks if the subtree of the given {@code array} rooted at the given
+     * {@code top} is a heap by the reverse of {@code order}.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete binary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param last
+     *            the index of the last entry in the heap
+     * @param order
+     *            total preorder for sorting
+     * @return true if the subtree of the given {@code array} rooted at the
+     *         given {@code top} is a heap by the reverse order; false otherwise
+     * @requires 0 <= top and last < |array|
+     * @ensures <pre>
+     * isReverseHeap = SUBTREE_IS_HEAP(array, top, last,
+     *     [relation computed by order.compare method, reversed])
+     * </pre>
+     */
+    private static <T> boolean isReverseHeap(T[] array, int top, int last,
+            Comparator<T> order) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= top : "Violation of: 0 <= top";
+        assert last < array.length : "Violation of: last < |array|";
+
+        boolean isHeap = true;
+        int left = 2 * top + 1;
+        if (left <= last) {
+            isHeap = (order.compare(array[top], array[left]) >= 0)
+                    && isReverseHeap(array, left, last, order);
+            int right = left + 1;
+            if (isHeap && (right <= last)) {
+                isHeap = (order.compare(array[top], array[right]) >= 0)
+                        && isReverseHeap(array, right, last, order);
+            }
+        }
+        return isHeap;
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.capacity >= 0  and
+     * 0 <= $this.first <= $this.first + $this.size <= |$this.entries|  and
+     * |$this.entries| <= $this.capacity  and
+     * for all i: integer
+     *     where (0 <= i  and  i < |$this.entries|)
+     *   ([entry at position i in $this.entries is not null] iff
+     *    $this.first <= i < $this.first + $this.size)  and
+     * if $this.insertionMode then
+     *   $this.first = 0  and
+     *   SUBTREE_IS_HEAP($this.entries, 0, $this.size - 1,
+     *     [relation computed by $this.machineOrder.compare method, reversed])
+     * else
+     *   IS_SORTED($this.entries[$this.first, $this.first + $this.size),
+     *     [relation computed by $this.machineOrder.compare method])
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.capacity >= 0 : "Violation of: $this.capacity >= 0";
+        assert 0 <= this.first : "Violation of: 0 <= $this.first";
+        assert 0 <= this.size : "Violation of: 0 <= $this.size";
+        assert this.first + this.size <= this.entries.length : ""
+                + "Violation of: $this.first + $this.size <= |$this.entries|";
+        assert this.entries.length <= this.capacity : ""
+                + "Violation of: |$this.entries| <= $this.capacity";
+        for (int i = 0; i < this.entries.length; i++) {
+            assert (this.entries[i] != null) == (this.first <= i
+                    && i < this.first + this.size) : ""
+                            + "Violation of: exactly the entries at positions"
+                            + " $this.first through $this.first + $this.size - 1"
+                            + " in $this.entries are not null";
+        }
+        if (this.insertionMode) {
+            assert this.first == 0 : ""
+                    + "Violation of: if $this.insertionMode then $this.first = 0";
+            assert isReverseHeap(this.entries, 0, this.size - 1,
+                    this.machineOrder) : ""
+                            + "Violation of: if $this.insertionMode then"
+                            + " SUBTREE_IS_HEAP($this.entries, 0, $this.size - 1,"
+                            + " [relation computed by $this.machineOrder.compare"
+                            + " method, reversed])";
+        } else {
+            for (int i = this.first + 1; i < this.first + this.size; i++) {
+                assert this.machineOrder.compare(this.entries[i - 1],
+                        this.entries[i]) <= 0 : ""
+                                + "Violation of: if not $this.insertionMode then"
+                                + " IS_SORTED($this.entries[$this.first,"
+                                + " $this.first + $this.size),"
+                                + " [relation computed by"
+                                + " $this.machineOrder.compare method])";
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param maxSize
+     *            maximum number of entries kept
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method]  and
+     * maxSize >= 0
+     * </pre>
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.capacity = maxSize  and
+     * $this.first = 0  and
+     * $this.size = 0
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order, int maxSize) {
+        this.insertionMode = true;
+        this.machineOrder = order;
+        this.capacity = maxSize;
+        /*
+         * The array only grows up to the capacity, so a large capacity does
+         * not cost anything until that many entries have been added. With "new
+         * T[...]" in place of "new Object[...]" it does not compile; as shown,
+         * it results in a warning about an unchecked cast, though it cannot
+         * fail.
+         */
+        this.entries = (T[]) (new Object[Math.min(maxSize, INITIAL_LENGTH)]);
+        this.first = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Doubles the length of {@code this.entries}, but not past
+     * {@code this.capacity}, keeping its entries.
+     *
+     * @updates $this.entries
+     * @requires $this.insertionMode and |$this.entries| < $this.capacity
+     * @ensures <pre>
+     * |$this.entries| = min(2 * |#$this.entries|, $this.capacity)  and
+     * $this.entries[0, |#$this.entries|) = #$this.entries  and
+     * [the other entries in $this.entries are null]
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void growEntries() {
+        int length = (int) Math.min(2L * this.entries.length, this.capacity);
+        T[] larger = (T[]) (new Object[length]);
+        System.arraycopy(this.entries, 0, larger, 0, this.size);
+        this.entries = larger;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order and capacity.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param capacity
+     *            maximum number of entries kept
+     */
+    public SortingMachine5c(Comparator<T> order, int capacity) {
+        assert capacity >= 0 : "Violation of: capacity >= 0";
+        this.createNewRep(order, capacity);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(Comparator.class, int.class)
+                    .newInstance(this.machineOrder, this.capacity);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder, this.capacity);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine5c<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine5c<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine5c<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine5c<T> localSource = (SortingMachine5c<T>) source;
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.capacity = localSource.capacity;
+        this.entries = localSource.entries;
+        this.first = localSource.first;
+        this.size = localSource.size;
+        localSource.createNewRep(localSource.machineOrder,
+                localSource.capacity);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+        if (this.size < this.capacity) {
+            // Still room: x goes in like in an ordinary heap.
+            if (this.size == this.entries.length) {
+                this.growEntries();
+            }
+            this.entries[this.size] = x;
+            siftUp(this.entries, this.size, this.machineOrder);
+            this.size++;
+        } else if (this.size > 0
+                && this.machineOrder.compare(x, this.entries[0]) < 0) {
+            /*
+             * Full, and x comes before the worst entry kept so far: x replaces
+             * that entry (the root) and is sifted down into place. Otherwise x
+             * is simply dropped.
+             */
+            this.entries[0] = x;
+            siftDown(this.entries, 0, this.size - 1, this.machineOrder);
+        }
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+        this.insertionMode = false;
+        /*
+         * Heap sort in place: repeatedly move the root (the entry that comes
+         * last) behind the shrinking heap, which leaves the kept entries sorted
+         * by the order.
+         */
+        for (int last = this.size - 1; last > 0; last--) {
+            exchangeEntries(this.entries, 0, last);
+            siftDown(this.entries, 0, last - 1, this.machineOrder);
+        }
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+        T removed = this.entries[this.first];
+        this.entries[this.first] = null;
+        this.first++;
+        this.size--;
+        assert this.conventionHolds();
+        return removed;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.size;
+    }
+
+    /**
+     * Reports the maximum number of entries {@code this} keeps.
+     *
+     * @return the capacity of {@code this}
+     * @ensures capacity = [the capacity {@code this} was constructed with]
+     */
+    public final int capacity() {
+        assert this.conventionHolds();
+        return this.capacity;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine5cIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine5c}.
+     */
+    private final class SortingMachine5cIterator implements Iterator<T> {
+
+        /**
+         * Representation iterator count.
+         */
+        private int arrayCurrentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine5cIterator() {
+            this.arrayCurrentIndex = SortingMachine5c.this.first;
+            assert SortingMachine5c.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.arrayCurrentIndex < SortingMachine5c.this.first
+                    + SortingMachine5c.this.size;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next = SortingMachine5c.this.entries[this.arrayCurrentIndex];
+            this.arrayCurrentIndex++;
+            assert SortingMachine5c.this.conventionHolds();
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,577 @@
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} represented as an array of entries with a parallel
+ * array of cached sort keys (using an embedding of heap sort on the keys),
+ * with implementations of primary methods.
+ *
+ * <p>
+ * This is the "decorate-sort-undecorate" idea: each entry's sort key is
+ * computed by {@code keyExtractor} exactly once, when the entry is added, and
+ * every comparison made while building the heap and sifting down compares the
+ * cached keys instead of calling an expensive {@code Comparator} (e.g., one
+ * that case-folds {@code String}s) O(n log n) times. If the keys are
+ * {@code Integer}s, {@code Long}s, {@code Short}s, or {@code Byte}s (which the
+ * first key shows, since all keys must be comparable with each other), each
+ * key is unboxed into a {@code long[]} as soon as {@code add} computes it, so
+ * the machine never holds on to a box (the only one made is the one the key
+ * extractor returns), and the heap compares primitives.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @param <K>
+ *            type of the cached sort keys
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * KEYS_AGREE_WITH_ORDER (
+ *   r: binary relation on T,
+ *   key: function from T to K
+ *  ) : boolean is
+ *  for all x, y: T
+ *   (r(x, y) iff key(x).compareTo(key(y)) <= 0)
+ *
+ * SUBTREE_IS_HEAP (
+ *   a: string of K,
+ *   start: integer,
+ *   stop: integer
+ *  ) : boolean is
+ *  [the subtree of a (when a is interpreted as a complete binary tree) rooted
+ *   at index start and only through entry stop of a satisfies the heap
+ *   ordering property according to compareTo]
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method])  and
+ * KEYS_AGREE_WITH_ORDER([relation computed by $this.machineOrder.compare method],
+ *   [function computed by $this.keyExtractor.apply method])  and
+ * 0 <= $this.size <= |$this.entries|  and
+ * [entries at positions 0 through $this.size - 1 in $this.entries are not
+ *  null, and the other entries are null]  and
+ * if $this.longKeys = null then
+ *   |$this.keys| = |$this.entries|  and
+ *   for all i: integer where (0 <= i < $this.size)
+ *     ($this.keys[i] = $this.keyExtractor.apply($this.entries[i]))
+ * else
+ *   $this.keys = null  and
+ *   |$this.longKeys| = |$this.entries|  and
+ *   for all i: integer where (0 <= i < $this.size)
+ *     ($this.longKeys[i] = $this.keyExtractor.apply($this.entries[i]))  and
+ * if $this.size > 0 then
+ *   ($this.longKeys /= null  iff  [the keys of $this.entries[0, $this.size)
+ *    are Integers, Longs, Shorts, or Bytes])  and
+ * if not $this.insertionMode then
+ *   SUBTREE_IS_HEAP([the cached keys], 0, $this.size - 1)
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.entries[0, $this.size)))
+ * </pre>
+ *
+ * @author K. Abukar
+ *
+ */
+public class SortingMachine5d<T, K extends Comparable<K>>
+        extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial length of the arrays.
+     */
+    private static final int INITIAL_LENGTH = 16;
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Key extractor, consistent with the order.
+     */
+    private Function<T, K> keyExtractor;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries (a heap by their keys in extraction mode).
+     */
+    private T[] entries;
+
+    /**
+     * Cached keys of the entries, or null if they are kept in longKeys.
+     */
+    private K[] keys;
+
+    /**
+     * Cached keys of the entries, unboxed, or null if they are kept in keys.
+     */
+    private long[] longKeys;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Reports whether {@code key} can be unboxed into a {@code long} without
+     * changing how it compares to other such keys.
+     *
+     * @param key
+     *            the key to check
+     * @return true iff key is an Integer, Long, Short, or Byte
+     */
+    private static boolean isIntegral(Object key) {
+        return key instanceof Integer || key instanceof Long
+                || key instanceof Short || key instanceof Byte;
+    }
+
+    /**
+     * Compares the cached keys at indices {@code i} and {@code j}.
+     *
+     * @param i
+     *            one index
+     * @param j
+     *            the other index
+     * @return negative, zero, or positive as the key at {@code i} is less than,
+     *         equal to, or greater than the key at {@code j}
+     * @requires 0 <= i < $this.size and 0 <= j < $this.size
+     */
+    private int compareKeys(int i, int j) {
+        int result;
+        if (this.longKeys != null) {
+            result = Long.compare(this.longKeys[i], this.longKeys[j]);
+        } else {
+            result = this.keys[i].compareTo(this.keys[j]);
+        }
+        return result;
+    }
+
+    /**
+     * Exchanges the entries, and their cached keys, at indices {@code i} and
+     * {@code j}.
+     *
+     * @param i
+     *            one index
+     * @param j
+     *            the other index
+     * @updates $this.entries, $this.keys, $this.longKeys
+     * @requires 0 <= i < $this.size and 0 <= j < $this.size
+     * @ensures <pre>
+     * [entries and cached keys at indices i and j are exchanged]
+     * </pre>
+     */
+    private void exchangeEntries(int i, int j) {
+        T tempEntry = this.entries[i];
+        this.entries[i] = this.entries[j];
+        this.entries[j] = tempEntry;
+        if (this.longKeys != null) {
+            long tempKey = this.longKeys[i];
+            this.longKeys[i] = this.longKeys[j];
+            this.longKeys[j] = tempKey;
+        } else {
+            K tempKey = this.keys[i];
+            this.keys[i] = this.keys[j];
+            this.keys[j] = tempKey;
+        }
+    }
+
+    /**
+     * Sifts the root of the subtree rooted at {@code top} down to turn that
+     * whole subtree (only through entry {@code last}) into a heap by the
+     * cached keys.
+     *
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param last
+     *            the index of the last entry in the heap
+     * @updates $this.entries, $this.keys, $this.longKeys
+     * @requires <pre>
+     * 0 <= top  and  last < $this.size  and
+     * SUBTREE_IS_HEAP([the cached keys], 2 * top + 1, last)  and
+     * SUBTREE_IS_HEAP([the cached keys], 2 * top + 2, last)
+     * </pre>
+     * @ensures <pre>
+     * SUBTREE_IS_HEAP([the cached keys], top, last)  and
+     * [entries and cached keys are permuted together, and only within the
+     *  subtree]
+     * </pre>
+     */
+    private void siftDown(int top, int last) {
+        assert 0 <= top : "Violation of: 0 <= top";
+        assert last < this.size : "Violation of: last < $this.size";
+
+        int parent = top;
+        int left = 2 * parent + 1;
+        while (left <= last) {
+            int smaller = left;
+            int right = left + 1;
+            if (right <= last && this.compareKeys(right, left) < 0) {
+                smaller = right;
+            }
+            if (this.compareKeys(parent, smaller) <= 0) {
+                break;
+            }
+            this.exchangeEntries(parent, smaller);
+            parent = smaller;
+            left = 2 * parent + 1;
+        }
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 <= $this.size <= |$this.entries|  and
+     * [entries at positions 0 through $this.size - 1 in $this.entries are not
+     *  null, and the other entries are null]  and
+     * if $this.longKeys = null then
+     *   |$this.keys| = |$this.entries|  and
+     *   (if $this.size > 0 then
+     *      [$this.keys[0] is not an Integer, Long, Short, or Byte])
+     * else
+     *   $this.keys = null  and
+     *   |$this.longKeys| = |$this.entries|  and
+     * if not $this.insertionMode then
+     *   SUBTREE_IS_HEAP([the cached keys], 0, $this.size - 1)
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 0 <= this.size : "Violation of: 0 <= $this.size";
+        assert this.size <= this.entries.length : ""
+                + "Violation of: $this.size <= |$this.entries|";
+        for (int i = 0; i < this.entries.length; i++) {
+            assert (this.entries[i] != null) == (i < this.size) : ""
+                    + "Violation of: exactly the entries at positions"
+                    + " 0 through $this.size - 1 in $this.entries are not null";
+        }
+        if (this.longKeys == null) {
+            assert this.keys.length == this.entries.length : ""
+                    + "Violation of: |$this.keys| = |$this.entries|";
+            assert this.size == 0 || !isIntegral(this.keys[0]) : ""
+                    + "Violation of: if $this.longKeys = null and"
+                    + " $this.size > 0 then [$this.keys[0] is not an Integer,"
+                    + " Long, Short, or Byte]";
+        } else {
+            assert this.keys == null : ""
+                    + "Violation of: if $this.longKeys /= null then"
+                    + " $this.keys = null";
+            assert this.longKeys.length == this.entries.length : ""
+                    + "Violation of: |$this.longKeys| = |$this.entries|";
+        }
+        if (!this.insertionMode) {
+            for (int i = 1; i < this.size; i++) {
+                assert this.compareKeys((i - 1) / 2, i) <= 0 : ""
+                        + "Violation of: if not $this.insertionMode then"
+                        + " SUBTREE_IS_HEAP([the cached keys], 0,"
+                        + " $this.size - 1)";
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param key
+     *            key extractor consistent with {@code order}
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])  and
+     * KEYS_AGREE_WITH_ORDER([relation computed by order.compare method],
+     *   [function computed by key.apply method])
+     * </pre>
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.keyExtractor = key  and
+     * $this.longKeys = null  and
+     * $this.size = 0
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order, Function<T, K> key) {
+        this.insertionMode = true;
+        this.machineOrder = order;
+        this.keyExtractor = key;
+        /*
+         * With "new T[...]" in place of "new Object[...]" it does not compile;
+         * as shown, it results in a warning about an unchecked cast, though it
+         * cannot fail (and likewise for the keys).
+         */
+        this.entries = (T[]) (new Object[INITIAL_LENGTH]);
+        this.keys = (K[]) (new Comparable<?>[INITIAL_LENGTH]);
+        this.longKeys = null;
+        this.size = 0;
+    }
+
+    /**
+     * Doubles the length of {@code this.entries} and of whichever of
+     * {@code this.keys} and {@code this.longKeys} holds the keys, keeping
+     * their entries.
+     *
+     * @updates $this.entries, $this.keys, $this.longKeys
+     * @requires $this.insertionMode
+     * @ensures <pre>
+     * |$this.entries| = 2 * |#$this.entries|  and
+     * [the array holding the keys is as long as $this.entries]  and
+     * [the first $this.size entries of both arrays are unchanged, and the
+     *  other entries are null (or 0)]
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void growArrays() {
+        int length = 2 * this.entries.length;
+        T[] largerEntries = (T[]) (new Object[length]);
+        System.arraycopy(this.entries, 0, largerEntries, 0, this.size);
+        this.entries = largerEntries;
+        if (this.longKeys != null) {
+            long[] largerLongKeys = new long[length];
+            System.arraycopy(this.longKeys, 0, largerLongKeys, 0, this.size);
+            this.longKeys = largerLongKeys;
+        } else {
+            K[] largerKeys = (K[]) (new Comparable<?>[length]);
+            System.arraycopy(this.keys, 0, largerKeys, 0, this.size);
+            this.keys = largerKeys;
+        }
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order and key extractor.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param keyExtractor
+     *            function computing the sort key of an entry, such that
+     *            {@code order.compare(x, y)} and
+     *            {@code keyExtractor.apply(x).compareTo(keyExtractor.apply(y))}
+     *            always have the same sign
+     */
+    public SortingMachine5d(Comparator<T> order, Function<T, K> keyExtractor) {
+        assert keyExtractor != null : "Violation of: keyExtractor is not null";
+        this.createNewRep(order, keyExtractor);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass()
+                    .getConstructor(Comparator.class, Function.class)
+                    .newInstance(this.machineOrder, this.keyExtractor);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder, this.keyExtractor);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine5d<?, ?> : ""
+                + "Violation of: source is of dynamic type SortingMachine5d<?, ?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine5d<?, ?>, and the first ? must be T or the call would
+         * not have compiled. The key type is only ever used through the key
+         * extractor that comes along with the keys.
+         */
+        @SuppressWarnings("unchecked")
+        SortingMachine5d<T, K> localSource = (SortingMachine5d<T, K>) source;
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.keyExtractor = localSource.keyExtractor;
+        this.entries = localSource.entries;
+        this.keys = localSource.keys;
+        this.longKeys = localSource.longKeys;
+        this.size = localSource.size;
+        localSource.createNewRep(localSource.machineOrder,
+                localSource.keyExtractor);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+        if (this.size == this.entries.length) {
+            this.growArrays();
+        }
+        // The only time the key of x is ever computed.
+        K key = this.keyExtractor.apply(x);
+        assert key != null : "Violation of: keyExtractor.apply(x) is not null";
+        if (this.size == 0 && isIntegral(key)) {
+            /*
+             * Keys are only comparable with keys of the same class, and these
+             * classes have no subclasses, so all the other keys will be of
+             * this class too: keep them all unboxed.
+             */
+            this.longKeys = new long[this.entries.length];
+            this.keys = null;
+        }
+        this.entries[this.size] = x;
+        if (this.longKeys != null) {
+            assert isIntegral(key) : ""
+                    + "Violation of: keyExtractor.apply(x) is comparable"
+                    + " with the other keys";
+            this.longKeys[this.size] = ((Number) key).longValue();
+        } else {
+            this.keys[this.size] = key;
+        }
+        this.size++;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+        this.insertionMode = false;
+        /*
+         * Build the heap bottom-up, sifting down every entry that has a child,
+         * which takes O(n) comparisons of cached keys.
+         */
+        for (int top = this.size / 2 - 1; top >= 0; top--) {
+            this.siftDown(top, this.size - 1);
+        }
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+        T removed = this.entries[0];
+        /*
+         * Move the last entry (and its key) to the root, forget the old last
+         * position, and sift the new root down.
+         */
+        this.size--;
+        this.exchangeEntries(0, this.size);
+        this.entries[this.size] = null;
+        if (this.keys != null) {
+            this.keys[this.size] = null;
+        }
+        this.siftDown(0, this.size - 1);
+        assert this.conventionHolds();
+        return removed;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine5dIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine5d}.
+     */
+    private final class SortingMachine5dIterator implements Iterator<T> {
+
+        /**
+         * Representation iterator count.
+         */
+        private int arrayCurrentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine5dIterator() {
+            this.arrayCurrentIndex = 0;
+            assert SortingMachine5d.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = this.arrayCurrentIndex
+                    < SortingMachine5d.this.size;
+            assert SortingMachine5d.this.conventionHolds();
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next = SortingMachine5d.this.entries[this.arrayCurrentIndex];
+            this.arrayCurrentIndex++;
+            assert SortingMachine5d.this.conventionHolds();
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,593 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} for entries ordered by an integer key, represented as
+ * an array of entries with a parallel array of {@code long} keys that is
+ * sorted with counting sort or LSD radix sort, with implementations of primary
+ * methods.
+ *
+ * <p>
+ * Each entry's key is computed by {@code keyExtractor} once, in {@code add}.
+ * {@code changeToExtractionMode} sorts the entries by key without comparing
+ * them: with counting sort when the keys span a range no larger than the
+ * number of entries (or {@code COUNTING_SORT_MIN_RANGE}), and otherwise with a
+ * least-significant-digit radix sort on 8-bit digits, using only as many
+ * passes as the range of the keys needs. Execution-time performance of
+ * {@code add} is O(1) (amortized, because of array doubling), of
+ * {@code changeToExtractionMode} is O(n) for a fixed key width, and of
+ * {@code removeFirst} is O(1). Both sorts are stable, so entries with equal
+ * keys come out in the order they were added.
+ * </p>
+ *
+ * <p>
+ * To order entries by decreasing count, use a key extractor that negates the
+ * count.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * KEYS_AGREE_WITH_ORDER (
+ *   r: binary relation on T,
+ *   key: function from T to integer
+ *  ) : boolean is
+ *  for all x, y: T
+ *   (r(x, y) iff key(x) <= key(y))
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method])  and
+ * KEYS_AGREE_WITH_ORDER([relation computed by $this.machineOrder.compare method],
+ *   [function computed by $this.keyExtractor.applyAsLong method])  and
+ * |$this.keys| = |$this.entries|  and
+ * 0 <= $this.first <= $this.first + $this.size <= |$this.entries|  and
+ * for all i: integer
+ *     where (0 <= i  and  i < |$this.entries|)
+ *   ([entry at position i in $this.entries is not null] iff
+ *    $this.first <= i < $this.first + $this.size)  and
+ * for all i: integer where ($this.first <= i < $this.first + $this.size)
+ *   ($this.keys[i] = $this.keyExtractor.applyAsLong($this.entries[i]))  and
+ * if $this.insertionMode then
+ *   $this.first = 0
+ * else
+ *   [$this.keys[$this.first, $this.first + $this.size) is in
+ *    non-decreasing order]
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.entries[$this.first,
+ *                                        $this.first + $this.size)))
+ * </pre>
+ *
+ * @author K. Abukar
+ *
+ */
+public class SortingMachine6<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial length of the arrays.
+     */
+    private static final int INITIAL_LENGTH = 16;
+
+    /**
+     * Key ranges smaller than this always use counting sort.
+     */
+    private static final int COUNTING_SORT_MIN_RANGE = 1 << 8;
+
+    /**
+     * Number of bits in one radix sort digit.
+     */
+    private static final int DIGIT_BITS = 8;
+
+    /**
+     * Number of different radix sort digits.
+     */
+    private static final int DIGIT_VALUES = 1 << DIGIT_BITS;
+
+    /**
+     * Mask for the lowest radix sort digit.
+     */
+    private static final int DIGIT_MASK = DIGIT_VALUES - 1;
+
+    /**
+     * Number of bits in a key.
+     */
+    private static final int KEY_BITS = 64;
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Key extractor, consistent with the order.
+     */
+    private ToLongFunction<T> keyExtractor;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries.
+     */
+    private T[] entries;
+
+    /**
+     * Keys of the entries.
+     */
+    private long[] keys;
+
+    /**
+     * Index of the first entry still in the machine.
+     */
+    private int first;
+
+    /**
+     * Number of entries still in the machine.
+     */
+    private int size;
+
+    /**
+     * Sorts {@code entries[0, size)} and {@code keys[0, size)} together by
+     * key, using counting sort.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param entries
+     *            the entries
+     * @param keys
+     *            the keys of the entries
+     * @param size
+     *            the number of entries to sort
+     * @param min
+     *            the smallest key
+     * @param range
+     *            the largest key minus {@code min}
+     * @updates entries, keys
+     * @requires <pre>
+     * |entries| = |keys|  and  0 <= size <= |keys|  and
+     * for all i: integer where (0 <= i < size)
+     *   (min <= keys[i] <= min + range)  and
+     * 0 <= range < Integer.MAX_VALUE
+     * </pre>
+     * @ensures <pre>
+     * [entries[0, size) and keys[0, size) are stably permuted together so
+     *  that keys[0, size) is in non-decreasing order]
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void countingSort(T[] entries, long[] keys, int size,
+            long min, int range) {
+        assert entries != null : "Violation of: entries is not null";
+        assert keys != null : "Violation of: keys is not null";
+        assert 0 <= range : "Violation of: 0 <= range";
+
+        /*
+         * Count each key, turn the counts into the starting position of each
+         * key, then place every entry at the next position for its key.
+         */
+        int[] start = new int[range + 2];
+        for (int i = 0; i < size; i++) {
+            start[(int) (keys[i] - min) + 1]++;
+        }
+        for (int k = 1; k < start.length; k++) {
+            start[k] += start[k - 1];
+        }
+        T[] sortedEntries = (T[]) (new Object[entries.length]);
+        long[] sortedKeys = new long[keys.length];
+        for (int i = 0; i < size; i++) {
+            int position = start[(int) (keys[i] - min)];
+            start[(int) (keys[i] - min)]++;
+            sortedEntries[position] = entries[i];
+            sortedKeys[position] = keys[i];
+        }
+        System.arraycopy(sortedEntries, 0, entries, 0, size);
+        System.arraycopy(sortedKeys, 0, keys, 0, size);
+    }
+
+    /**
+     * Sorts {@code entries[0, size)} and {@code keys[0, size)} together by
+     * key, using least-significant-digit radix sort on {@code keys - min}.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param entries
+     *            the entries
+     * @param keys
+     *            the keys of the entries
+     * @param size
+     *            the number of entries to sort
+     * @param min
+     *            the smallest key
+     * @param range
+     *            the largest key minus {@code min}, as an unsigned number
+     * @updates entries, keys
+     * @requires <pre>
+     * |entries| = |keys|  and  0 <= size <= |keys|  and
+     * for all i: integer where (0 <= i < size)
+     *   (min <= keys[i]  and  [keys[i] - min as an unsigned number] <= range)
+     * </pre>
+     * @ensures <pre>
+     * [entries[0, size) and keys[0, size) are stably permuted together so
+     *  that keys[0, size) is in non-decreasing order]
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void radixSort(T[] entries, long[] keys, int size,
+            long min, long range) {
+        assert entries != null : "Violation of: entries is not null";
+        assert keys != null : "Violation of: keys is not null";
+
+        /*
+         * Only the digits below the highest set bit of the range can differ,
+         * so only those passes are made. Each pass is a stable counting sort on
+         * one digit, moving back and forth between the original arrays and the
+         * scratch arrays.
+         */
+        int bits = KEY_BITS - Long.numberOfLeadingZeros(range);
+        T[] fromEntries = entries;
+        long[] fromKeys = keys;
+        T[] toEntries = (T[]) (new Object[entries.length]);
+        long[] toKeys = new long[keys.length];
+        int[] start = new int[DIGIT_VALUES + 1];
+        for (int shift = 0; shift < bits; shift += DIGIT_BITS) {
+            Arrays.fill(start, 0);
+            for (int i = 0; i < size; i++) {
+                int digit = (int) (((fromKeys[i] - min) >>> shift)
+                        & DIGIT_MASK);
+                start[digit + 1]++;
+            }
+            for (int d = 1; d <= DIGIT_VALUES; d++) {
+                start[d] += start[d - 1];
+            }
+            for (int i = 0; i < size; i++) {
+                int digit = (int) (((fromKeys[i] - min) >>> shift)
+                        & DIGIT_MASK);
+                int position = start[digit];
+                start[digit]++;
+                toEntries[position] = fromEntries[i];
+                toKeys[position] = fromKeys[i];
+            }
+            T[] tempEntries = fromEntries;
+            fromEntries = toEntries;
+            toEntries = tempEntries;
+            long[] tempKeys = fromKeys;
+            fromKeys = toKeys;
+            toKeys = tempKeys;
+        }
+        if (fromEntries != entries) {
+            System.arraycopy(fromEntries, 0, entries, 0, size);
+            System.arraycopy(fromKeys, 0, keys, 0, size);
+        }
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * |$this.keys| = |$this.entries|  and
+     * 0 <= $this.first <= $this.first + $this.size <= |$this.entries|  and
+     * for all i: integer
+     *     where (0 <= i  and  i < |$this.entries|)
+     *   ([entry at position i in $this.entries is not null] iff
+     *    $this.first <= i < $this.first + $this.size)  and
+     * if $this.insertionMode then
+     *   $this.first = 0
+     * else
+     *   [$this.keys[$this.first, $this.first + $this.size) is in
+     *    non-decreasing order]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.keys.length == this.entries.length : ""
+                + "Violation of: |$this.keys| = |$this.entries|";
+        assert 0 <= this.first : "Violation of: 0 <= $this.first";
+        assert 0 <= this.size : "Violation of: 0 <= $this.size";
+        assert this.first + this.size <= this.entries.length : ""
+                + "Violation of: $this.first + $this.size <= |$this.entries|";
+        for (int i = 0; i < this.entries.length; i++) {
+            assert (this.entries[i] != null) == (this.first <= i
+                    && i < this.first + this.size) : ""
+                            + "Violation of: exactly the entries at positions"
+                            + " $this.first through $this.first + $this.size - 1"
+                            + " in $this.entries are not null";
+        }
+        if (this.insertionMode) {
+            assert this.first == 0 : ""
+                    + "Violation of: if $this.insertionMode then $this.first = 0";
+        } else {
+            for (int i = this.first + 1; i < this.first + this.size; i++) {
+                assert this.keys[i - 1] <= this.keys[i] : ""
+                        + "Violation of: if not $this.insertionMode then"
+                        + " [$this.keys[$this.first, $this.first + $this.size)"
+                        + " is in non-decreasing order]";
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param key
+     *            key extractor consistent with {@code order}
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])  and
+     * KEYS_AGREE_WITH_ORDER([relation computed by order.compare method],
+     *   [function computed by key.applyAsLong method])
+     * </pre>
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.keyExtractor = key  and
+     * $this.first = 0  and
+     * $this.size = 0
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order, ToLongFunction<T> key) {
+        this.insertionMode = true;
+        this.machineOrder = order;
+        this.keyExtractor = key;
+        /*
+         * With "new T[...]" in place of "new Object[...]" it does not compile;
+         * as shown, it results in a warning about an unchecked cast, though it
+         * cannot fail.
+         */
+        this.entries = (T[]) (new Object[INITIAL_LENGTH]);
+        this.keys = new long[INITIAL_LENGTH];
+        this.first = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Doubles the length of {@code this.entries} and {@code this.keys},
+     * keeping their entries.
+     *
+     * @updates $this.entries, $this.keys
+     * @requires $this.insertionMode
+     * @ensures <pre>
+     * |$this.entries| = 2 * |#$this.entries|  and
+     * |$this.keys| = |$this.entries|  and
+     * [the first $this.size entries of both arrays are unchanged, and the
+     *  other entries are null]
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void growArrays() {
+        int length = 2 * this.entries.length;
+        T[] largerEntries = (T[]) (new Object[length]);
+        long[] largerKeys = new long[length];
+        System.arraycopy(this.entries, 0, largerEntries, 0, this.size);
+        System.arraycopy(this.keys, 0, largerKeys, 0, this.size);
+        this.entries = largerEntries;
+        this.keys = largerKeys;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order and key extractor.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param keyExtractor
+     *            function computing the integer sort key of an entry, such
+     *            that {@code order.compare(x, y)} and
+     *            {@code Long.compare(keyExtractor.applyAsLong(x),
+     *            keyExtractor.applyAsLong(y))} always have the same sign
+     */
+    public SortingMachine6(Comparator<T> order,
+            ToLongFunction<T> keyExtractor) {
+        assert keyExtractor != null : "Violation of: keyExtractor is not null";
+        this.createNewRep(order, keyExtractor);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass()
+                    .getConstructor(Comparator.class, ToLongFunction.class)
+                    .newInstance(this.machineOrder, this.keyExtractor);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder, this.keyExtractor);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine6<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine6<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine6<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine6<T> localSource = (SortingMachine6<T>) source;
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.keyExtractor = localSource.keyExtractor;
+        this.entries = localSource.entries;
+        this.keys = localSource.keys;
+        this.first = localSource.first;
+        this.size = localSource.size;
+        localSource.createNewRep(localSource.machineOrder,
+                localSource.keyExtractor);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+        if (this.size == this.entries.length) {
+            this.growArrays();
+        }
+        this.entries[this.size] = x;
+        this.keys[this.size] = this.keyExtractor.applyAsLong(x);
+        this.size++;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+        this.insertionMode = false;
+        if (this.size > 1) {
+            // Find the range of the keys.
+            long min = this.keys[0];
+            long max = this.keys[0];
+            for (int i = 1; i < this.size; i++) {
+                min = Math.min(min, this.keys[i]);
+                max = Math.max(max, this.keys[i]);
+            }
+            long range = max - min;
+            /*
+             * The range is compared as an unsigned number, since max - min
+             * overflows a long when the keys span more than half of all longs.
+             */
+            long countingLimit = Math.max(this.size, COUNTING_SORT_MIN_RANGE);
+            if (Long.compareUnsigned(range, countingLimit) < 0) {
+                countingSort(this.entries, this.keys, this.size, min,
+                        (int) range);
+            } else {
+                radixSort(this.entries, this.keys, this.size, min, range);
+            }
+        }
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+        T removed = this.entries[this.first];
+        this.entries[this.first] = null;
+        this.first++;
+        this.size--;
+        assert this.conventionHolds();
+        return removed;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine6Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine6}.
+     */
+    private final class SortingMachine6Iterator implements Iterator<T> {
+
+        /**
+         * Representation iterator count.
+         */
+        private int arrayCurrentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine6Iterator() {
+            this.arrayCurrentIndex = SortingMachine6.this.first;
+            assert SortingMachine6.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.arrayCurrentIndex < SortingMachine6.this.first
+                    + SortingMachine6.this.size;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next = SortingMachine6.this.entries[this.arrayCurrentIndex];
+            this.arrayCurrentIndex++;
+            assert SortingMachine6.this.conventionHolds();
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,555 @@
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} represented as an array that is sorted lazily, one
+ * {@code removeFirst} at a time, by incremental quicksort, with
+ * implementations of primary methods.
+ *
+ * <p>
+ * {@code changeToExtractionMode} does no work at all. Each {@code removeFirst}
+ * partitions (around random pivots) only the part of the array in front of the
+ * closest pivot already in place, and remembers every pivot it places on a
+ * stack so that later calls never partition that part again. The first
+ * {@code removeFirst} costs O(n) expected time, each later one O(log n)
+ * amortized expected time, and draining the whole machine costs O(n log n)
+ * expected time, as for quicksort. When only the first few entries are
+ * wanted, this does far less work than building a heap.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * IS_PLACED (
+ *   a: string of T,
+ *   start: integer,
+ *   p: integer,
+ *   stop: integer,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all i: integer where (start <= i < stop)
+ *   (if i < p then r(a[i], a[p])  and  if i > p then r(a[p], a[i]))
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method])  and
+ * 0 <= $this.first <= $this.first + $this.size <= |$this.entries|  and
+ * for all i: integer
+ *     where (0 <= i  and  i < |$this.entries|)
+ *   ([entry at position i in $this.entries is not null] iff
+ *    $this.first <= i < $this.first + $this.size)  and
+ * 0 <= $this.pivotCount <= |$this.pivots|  and
+ * if $this.insertionMode then
+ *   $this.first = 0  and  $this.pivotCount = 0
+ * else
+ *   $this.pivotCount > 0  and
+ *   $this.pivots[0] = $this.first + $this.size  and
+ *   for all j: integer where (0 < j < $this.pivotCount)
+ *     ($this.first <= $this.pivots[j] < $this.pivots[j - 1]  and
+ *      IS_PLACED($this.entries, $this.first, $this.pivots[j],
+ *        $this.first + $this.size,
+ *        [relation computed by $this.machineOrder.compare method]))
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.entries[$this.first,
+ *                                        $this.first + $this.size)))
+ * </pre>
+ *
+ * @author K. Abukar
+ *
+ */
+public class SortingMachine7<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial length of the arrays.
+     */
+    private static final int INITIAL_LENGTH = 16;
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries.
+     */
+    private T[] entries;
+
+    /**
+     * Index of the first entry still in the machine.
+     */
+    private int first;
+
+    /**
+     * Number of entries still in the machine.
+     */
+    private int size;
+
+    /**
+     * Stack of indices of entries already in their sorted place, largest
+     * index at the bottom (index 0); the bottom is the end of the entries.
+     */
+    private int[] pivots;
+
+    /**
+     * Number of indices on the stack of pivots.
+     */
+    private int pivotCount;
+
+    /**
+     * Exchanges entries at indices {@code i} and {@code j} of {@code array}.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array whose entries are to be exchanged
+     * @param i
+     *            one index
+     * @param j
+     *            the other index
+     * @updates array
+     * @requires 0 <= i < |array| and 0 <= j < |array|
+     * @ensures array = [#array with entries at indices i and j exchanged]
+     */
+    private static <T> void exchangeEntries(T[] array, int i, int j) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < array.length : "Violation of: i < |array|";
+        assert 0 <= j : "Violation of: 0 <= j";
+        assert j < array.length : "Violation of: j < |array|";
+
+        T temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+
+    /**
+     * Partitions {@code array[start, stop)} three ways around the entry at
+     * {@code pivotIndex}: entries before the pivot in {@code order}, then
+     * entries tied with it, then entries after it.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array to partition
+     * @param start
+     *            the first index of the part to partition
+     * @param stop
+     *            one past the last index of the part to partition
+     * @param pivotIndex
+     *            the index of the pivot
+     * @param order
+     *            total preorder for sorting
+     * @param ties
+     *            one-entry array in which to report where the entries tied
+     *            with the pivot end
+     * @return the index one past the last entry that comes before the pivot,
+     *         which is also the index of the first entry tied with it
+     * @updates array, ties
+     * @requires <pre>
+     * 0 <= start <= pivotIndex < stop <= |array|  and  |ties| = 1  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * perms(array, #array)  and
+     * [the entries of array outside [start, stop) are the same as in
+     *  #array]  and
+     * for some tieEnd: integer where (partition < tieEnd <= stop)
+     *   ([array[start, partition) all come strictly before the pivot,
+     *     array[partition, tieEnd) are all tied with the pivot, and
+     *     array[tieEnd, stop) all come strictly after the pivot])  and
+     * ties[0] = tieEnd
+     * </pre>
+     */
+    private static <T> int partition(T[] array, int start, int stop,
+            int pivotIndex, Comparator<T> order, int[] ties) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= start : "Violation of: 0 <= start";
+        assert start <= pivotIndex : "Violation of: start <= pivotIndex";
+        assert pivotIndex < stop : "Violation of: pivotIndex < stop";
+        assert stop <= array.length : "Violation of: stop <= |array|";
+
+        /*
+         * Dutch national flag: [start, less) come before the pivot, [less, i)
+         * are tied with it, [i, more) are not looked at yet, and [more, stop)
+         * come after it.
+         */
+        T pivot = array[pivotIndex];
+        int less = start;
+        int i = start;
+        int more = stop;
+        while (i < more) {
+            int comparison = order.compare(array[i], pivot);
+            if (comparison < 0) {
+                exchangeEntries(array, less, i);
+                less++;
+                i++;
+            } else if (comparison > 0) {
+                more--;
+                exchangeEntries(array, i, more);
+            } else {
+                i++;
+            }
+        }
+        ties[0] = more;
+        return less;
+    }
+
+    /**
+     * Pushes {@code index} onto the stack of pivots.
+     *
+     * @param index
+     *            the index of an entry now in its sorted place
+     * @updates $this.pivots, $this.pivotCount
+     * @ensures <pre>
+     * $this.pivotCount = #$this.pivotCount + 1  and
+     * $this.pivots[0, $this.pivotCount) =
+     *   #$this.pivots[0, #$this.pivotCount) * <index>
+     * </pre>
+     */
+    private void pushPivot(int index) {
+        if (this.pivotCount == this.pivots.length) {
+            int[] larger = new int[2 * this.pivots.length];
+            System.arraycopy(this.pivots, 0, larger, 0, this.pivotCount);
+            this.pivots = larger;
+        }
+        this.pivots[this.pivotCount] = index;
+        this.pivotCount++;
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 <= $this.first <= $this.first + $this.size <= |$this.entries|  and
+     * for all i: integer
+     *     where (0 <= i  and  i < |$this.entries|)
+     *   ([entry at position i in $this.entries is not null] iff
+     *    $this.first <= i < $this.first + $this.size)  and
+     * 0 <= $this.pivotCount <= |$this.pivots|  and
+     * if $this.insertionMode then
+     *   $this.first = 0  and  $this.pivotCount = 0
+     * else
+     *   $this.pivotCount > 0  and
+     *   $this.pivots[0] = $this.first + $this.size  and
+     *   for all j: integer where (0 < j < $this.pivotCount)
+     *     ($this.first <= $this.pivots[j] < $this.pivots[j - 1]  and
+     *      IS_PLACED($this.entries, $this.first, $this.pivots[j],
+     *        $this.first + $this.size,
+     *        [relation computed by $this.machineOrder.compare method]))
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 0 <= this.first : "Violation of: 0 <= $this.first";
+        assert 0 <= this.size : "Violation of: 0 <= $this.size";
+        assert this.first + this.size <= this.entries.length : ""
+                + "Violation of: $this.first + $this.size <= |$this.entries|";
+        for (int i = 0; i < this.entries.length; i++) {
+            assert (this.entries[i] != null) == (this.first <= i
+                    && i < this.first + this.size) : ""
+                            + "Violation of: exactly the entries at positions"
+                            + " $this.first through $this.first + $this.size - 1"
+                            + " in $this.entries are not null";
+        }
+        assert 0 <= this.pivotCount : "Violation of: 0 <= $this.pivotCount";
+        assert this.pivotCount <= this.pivots.length : ""
+                + "Violation of: $this.pivotCount <= |$this.pivots|";
+        if (this.insertionMode) {
+            assert this.first == 0 : ""
+                    + "Violation of: if $this.insertionMode then $this.first = 0";
+            assert this.pivotCount == 0 : ""
+                    + "Violation of: if $this.insertionMode then"
+                    + " $this.pivotCount = 0";
+        } else {
+            assert this.pivotCount > 0 : ""
+                    + "Violation of: if not $this.insertionMode then"
+                    + " $this.pivotCount > 0";
+            assert this.pivots[0] == this.first + this.size : ""
+                    + "Violation of: if not $this.insertionMode then"
+                    + " $this.pivots[0] = $this.first + $this.size";
+            /*
+             * It is enough to check each stretch between two neighboring
+             * pivots against those two pivots, which takes O(n) comparisons
+             * in all.
+             */
+            int start = this.first;
+            T lowerBound = null;
+            for (int j = this.pivotCount - 1; j >= 0; j--) {
+                int p = this.pivots[j];
+                assert start <= p : ""
+                        + "Violation of: if not $this.insertionMode then"
+                        + " $this.first <= $this.pivots[j] < $this.pivots[j - 1]";
+                T upperBound = null;
+                if (j > 0) {
+                    upperBound = this.entries[p];
+                }
+                for (int i = start; i < p; i++) {
+                    assert (lowerBound == null || this.machineOrder
+                            .compare(lowerBound, this.entries[i]) <= 0)
+                            && (upperBound == null || this.machineOrder
+                                    .compare(this.entries[i], upperBound) <= 0) : ""
+                                            + "Violation of: IS_PLACED($this.entries,"
+                                            + " $this.first, $this.pivots[j],"
+                                            + " $this.first + $this.size,"
+                                            + " [relation computed by"
+                                            + " $this.machineOrder.compare method])";
+                }
+                lowerBound = upperBound;
+                start = p + 1;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method]
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.first = 0  and
+     * $this.size = 0  and
+     * $this.pivotCount = 0
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order) {
+        this.insertionMode = true;
+        this.machineOrder = order;
+        /*
+         * With "new T[...]" in place of "new Object[...]" it does not compile;
+         * as shown, it results in a warning about an unchecked cast, though it
+         * cannot fail.
+         */
+        this.entries = (T[]) (new Object[INITIAL_LENGTH]);
+        this.first = 0;
+        this.size = 0;
+        this.pivots = new int[INITIAL_LENGTH];
+        this.pivotCount = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    public SortingMachine7(Comparator<T> order) {
+        this.createNewRep(order);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(Comparator.class)
+                    .newInstance(this.machineOrder);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine7<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine7<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine7<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine7<T> localSource = (SortingMachine7<T>) source;
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.entries = localSource.entries;
+        this.first = localSource.first;
+        this.size = localSource.size;
+        this.pivots = localSource.pivots;
+        this.pivotCount = localSource.pivotCount;
+        localSource.createNewRep(localSource.machineOrder);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+        if (this.size == this.entries.length) {
+            T[] larger = (T[]) (new Object[2 * this.entries.length]);
+            System.arraycopy(this.entries, 0, larger, 0, this.size);
+            this.entries = larger;
+        }
+        this.entries[this.size] = x;
+        this.size++;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+        this.insertionMode = false;
+        // The end of the entries acts as a pivot past every entry.
+        this.pushPivot(this.size);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+        /*
+         * Partition the stretch in front of the closest pivot around random
+         * pivots until an entry lands at this.first. Entries tied with a pivot
+         * are all in their sorted places too, so they are all pushed, the
+         * lowest index last.
+         */
+        int[] ties = new int[1];
+        while (this.pivots[this.pivotCount - 1] != this.first) {
+            int stop = this.pivots[this.pivotCount - 1];
+            int pivotIndex = ThreadLocalRandom.current().nextInt(this.first,
+                    stop);
+            int tieStart = partition(this.entries, this.first, stop,
+                    pivotIndex, this.machineOrder, ties);
+            for (int p = ties[0] - 1; p >= tieStart; p--) {
+                this.pushPivot(p);
+            }
+        }
+        // The entry at this.first is in its place; remove it.
+        this.pivotCount--;
+        T removed = this.entries[this.first];
+        this.entries[this.first] = null;
+        this.first++;
+        this.size--;
+        assert this.conventionHolds();
+        return removed;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine7Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine7}.
+     */
+    private final class SortingMachine7Iterator implements Iterator<T> {
+
+        /**
+         * Representation iterator count.
+         */
+        private int arrayCurrentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine7Iterator() {
+            this.arrayCurrentIndex = SortingMachine7.this.first;
+            assert SortingMachine7.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = this.arrayCurrentIndex
+                    < SortingMachine7.this.first + SortingMachine7.this.size;
+            assert SortingMachine7.this.conventionHolds();
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next = SortingMachine7.this.entries[this.arrayCurrentIndex];
+            this.arrayCurrentIndex++;
+            assert SortingMachine7.this.conventionHolds();
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
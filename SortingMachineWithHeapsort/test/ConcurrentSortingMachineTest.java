@@ -0,0 +1,182 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code ConcurrentSortingMachine}.
+ *
+ * @author K. Abukar
+ *
+ */
+public final class ConcurrentSortingMachineTest {
+
+    /**
+     * Integer order.
+     */
+    private static final Comparator<Integer> ORDER = Integer::compare;
+
+    /**
+     * Tests removing from an empty machine.
+     */
+    @Test
+    public void testRemoveFirstEmpty() {
+        ConcurrentSortingMachine<Integer> m = new ConcurrentSortingMachine<>(
+                ORDER, 4);
+        assertNull(m.removeFirst());
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Tests that with a single heap entries come out in order.
+     */
+    @Test
+    public void testRemoveFirstSingleQueueInOrder() {
+        ConcurrentSortingMachine<Integer> m = new ConcurrentSortingMachine<>(
+                ORDER, 1);
+        int[] args = { 5, 3, 9, 1, 7, 3 };
+        for (int x : args) {
+            m.add(x);
+        }
+        assertEquals(args.length, m.size());
+        assertEquals(Integer.valueOf(1), m.removeFirst());
+        assertEquals(Integer.valueOf(3), m.removeFirst());
+        assertEquals(Integer.valueOf(3), m.removeFirst());
+        assertEquals(Integer.valueOf(5), m.removeFirst());
+        assertEquals(Integer.valueOf(7), m.removeFirst());
+        assertEquals(Integer.valueOf(9), m.removeFirst());
+        assertNull(m.removeFirst());
+    }
+
+    /**
+     * Tests that with several heaps every entry added by one thread is removed
+     * exactly once.
+     */
+    @Test
+    public void testRemoveFirstAllEntriesManyQueues() {
+        final int n = 1000;
+        ConcurrentSortingMachine<Integer> m = new ConcurrentSortingMachine<>(
+                ORDER, 8);
+        for (int i = 0; i < n; i++) {
+            m.add(i);
+        }
+        boolean[] seen = new boolean[n];
+        int count = 0;
+        Integer x = m.removeFirst();
+        while (x != null) {
+            assertEquals(false, seen[x]);
+            seen[x] = true;
+            count++;
+            x = m.removeFirst();
+        }
+        assertEquals(n, count);
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Tests that with producer and consumer threads running at the same time
+     * every entry is removed exactly once.
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting for the threads
+     */
+    @Test
+    public void testProducersAndConsumers() throws InterruptedException {
+        final int producers = 4;
+        final int perProducer = 5000;
+        final int total = producers * perProducer;
+        ConcurrentSortingMachine<Integer> m = new ConcurrentSortingMachine<>(
+                ORDER, 8);
+        AtomicInteger[] removedCount = new AtomicInteger[total];
+        for (int i = 0; i < total; i++) {
+            removedCount[i] = new AtomicInteger(0);
+        }
+        AtomicInteger removed = new AtomicInteger(0);
+        Thread[] workers = new Thread[2 * producers];
+        for (int p = 0; p < producers; p++) {
+            final int base = p * perProducer;
+            workers[p] = new Thread(() -> {
+                for (int k = 0; k < perProducer; k++) {
+                    m.add(base + k);
+                }
+            });
+            workers[producers + p] = new Thread(() -> {
+                while (removed.get() < total) {
+                    Integer y = m.removeFirst();
+                    if (y != null) {
+                        removedCount[y].incrementAndGet();
+                        removed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        for (int i = 0; i < total; i++) {
+            assertEquals(1, removedCount[i].get());
+        }
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Tests that, while other threads add entries, removeFirst never returns
+     * null when an entry is known to be present and size is never negative.
+     * The only consumer puts back a sentinel entry whenever it removes it, so
+     * the sentinel is in the machine during every call to removeFirst. The
+     * race is timing-dependent, so the scenario is repeated several times.
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting for the threads
+     */
+    @Test
+    public void testRemoveFirstNeverNullWhileAdding()
+            throws InterruptedException {
+        final int rounds = 20;
+        final int producers = 3;
+        final int perProducer = 20000;
+        final int total = producers * perProducer;
+        final Integer sentinel = Integer.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            ConcurrentSortingMachine<Integer> m =
+                    new ConcurrentSortingMachine<>(ORDER, 4);
+            m.add(sentinel);
+            Thread[] workers = new Thread[producers];
+            for (int p = 0; p < producers; p++) {
+                workers[p] = new Thread(() -> {
+                    for (int k = 0; k < perProducer; k++) {
+                        m.add(k);
+                    }
+                });
+            }
+            for (Thread worker : workers) {
+                worker.start();
+            }
+            int removed = 0;
+            while (removed < total) {
+                Integer x = m.removeFirst();
+                assertNotNull(x);
+                assertTrue(m.size() >= 0);
+                if (x.equals(sentinel)) {
+                    m.add(sentinel);
+                } else {
+                    removed++;
+                }
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            assertEquals(1, m.size());
+            assertEquals(sentinel, m.removeFirst());
+        }
+    }
+
+}
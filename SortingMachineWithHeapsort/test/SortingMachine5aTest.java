@@ -1,4 +1,9 @@
+import static org.junit.Assert.assertEquals;
+
 import java.util.Comparator;
+import java.util.Locale;
+
+import org.junit.Test;
 
 import components.sortingmachine.SortingMachine;
 import components.sortingmachine.SortingMachine1L;
@@ -8,6 +13,11 @@ import components.sortingmachine.SortingMachine1L;
  */
 public final class SortingMachine5aTest extends SortingMachineTest {
 
+    /**
+     * Integer order.
+     */
+    private static final Comparator<Integer> ORDER = Integer::compare;
+
     @Override
     protected SortingMachine<String> constructorTest(Comparator<String> order) {
         return new SortingMachine5a<String>(order);
@@ -18,4 +28,67 @@ public final class SortingMachine5aTest extends SortingMachineTest {
         return new SortingMachine1L<String>(order);
     }
 
+    /**
+     * Tests that checkingLevel ignores case, even with a Turkish default
+     * locale, and gives FULL for a missing or unknown name.
+     */
+    @Test
+    public void testCheckingLevel() {
+        Locale saved = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            assertEquals(SortingMachine5a.Checking.INCREMENTAL,
+                    SortingMachine5a.checkingLevel("incremental"));
+            assertEquals(SortingMachine5a.Checking.SAMPLED,
+                    SortingMachine5a.checkingLevel("SaMpLeD"));
+            assertEquals(SortingMachine5a.Checking.OFF,
+                    SortingMachine5a.checkingLevel("off"));
+            assertEquals(SortingMachine5a.Checking.FULL,
+                    SortingMachine5a.checkingLevel("FULL"));
+            assertEquals(SortingMachine5a.Checking.FULL,
+                    SortingMachine5a.checkingLevel("incremntal"));
+            assertEquals(SortingMachine5a.Checking.FULL,
+                    SortingMachine5a.checkingLevel(""));
+            assertEquals(SortingMachine5a.Checking.FULL,
+                    SortingMachine5a.checkingLevel(null));
+        } finally {
+            Locale.setDefault(saved);
+        }
+    }
+
+    /**
+     * Tests isHeapAlongPath on a heap, for every end of a path.
+     */
+    @Test
+    public void testIsHeapAlongPathValid() {
+        Integer[] heap = { 1, 3, 2, 7, 4, 5, 6, 8 };
+        for (int end = 0; end < heap.length; end++) {
+            assertEquals(true, SortingMachine5a.isHeapAlongPath(heap, end,
+                    heap.length - 1, ORDER));
+        }
+    }
+
+    /**
+     * Tests that isHeapAlongPath rejects a heap broken on the path to
+     * {@code end} (between positions 1 and 4, and between positions 3 and 7),
+     * and does not look at the rest of the heap.
+     */
+    @Test
+    public void testIsHeapAlongPathBroken() {
+        Integer[] heap = { 1, 5, 2, 6, 4, 5, 6, 3 };
+        final int last = heap.length - 1;
+        assertEquals(false,
+                SortingMachine5a.isHeapAlongPath(heap, 4, last, ORDER));
+        assertEquals(false,
+                SortingMachine5a.isHeapAlongPath(heap, 7, last, ORDER));
+        assertEquals(false,
+                SortingMachine5a.isHeapAlongPath(heap, 3, last, ORDER));
+        assertEquals(true,
+                SortingMachine5a.isHeapAlongPath(heap, 5, last, ORDER));
+        assertEquals(true,
+                SortingMachine5a.isHeapAlongPath(heap, 6, last, ORDER));
+        assertEquals(true,
+                SortingMachine5a.isHeapAlongPath(heap, 2, last, ORDER));
+    }
+
 }
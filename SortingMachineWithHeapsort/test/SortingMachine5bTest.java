@@ -0,0 +1,56 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine5b}.
+ */
+public final class SortingMachine5bTest extends SortingMachineTest {
+
+    /**
+     * Alphabetical order.
+     */
+    private static final Comparator<String> ALPHABETICAL = String::compareTo;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine5b<String>(order);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /**
+     * Tests adding, in scrambled order, enough entries for the heap to grow
+     * several times past its initial capacity, then removing them all in
+     * order.
+     */
+    @Test
+    public void testAddPastInitialCapacity() {
+        final int n = 100;
+        final int step = 37;
+        final int base = 1000;
+        SortingMachine<String> m = this.constructorTest(ALPHABETICAL);
+        SortingMachine<String> mExpected = this.constructorRef(ALPHABETICAL);
+        for (int i = 0; i < n; i++) {
+            String x = Integer.toString(base + (i * step) % n);
+            m.add(x);
+            mExpected.add(x);
+            assertEquals(i + 1, m.size());
+        }
+        assertEquals(mExpected, m);
+        m.changeToExtractionMode();
+        for (int i = 0; i < n; i++) {
+            assertEquals(Integer.toString(base + i), m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+}
@@ -0,0 +1,84 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine5c}.
+ */
+public final class SortingMachine5cTest extends SortingMachineTest {
+
+    /**
+     * Capacity large enough that the inherited test cases never drop entries.
+     */
+    private static final int LARGE_CAPACITY = 100;
+
+    /**
+     * Order used by the bounded test cases below.
+     */
+    private static final Comparator<String> NATURAL = (s1, s2) -> s1
+            .compareTo(s2);
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine5c<String>(order, LARGE_CAPACITY);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /**
+     * Tests that only the first {@code capacity} entries in the order are
+     * kept, and that they are removed in order.
+     */
+    @Test
+    public void testAddPastCapacityKeepsFirst() {
+        SortingMachine<String> m = new SortingMachine5c<String>(NATURAL, 3);
+        String[] args = { "green", "blue", "purple", "dog", "apple", "able",
+                "adam", "aab", "aaa" };
+        for (String s : args) {
+            m.add(s);
+        }
+        assertEquals(3, m.size());
+        m.changeToExtractionMode();
+        assertEquals("aaa", m.removeFirst());
+        assertEquals("aab", m.removeFirst());
+        assertEquals("able", m.removeFirst());
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Tests that an entry after the worst kept entry is dropped.
+     */
+    @Test
+    public void testAddAfterWorstDropped() {
+        SortingMachine<String> m = new SortingMachine5c<String>(NATURAL, 2);
+        SortingMachine<String> mExpected = new SortingMachine1L<String>(
+                NATURAL);
+        m.add("blue");
+        m.add("green");
+        m.add("red");
+        mExpected.add("blue");
+        mExpected.add("green");
+        assertEquals(mExpected, m);
+    }
+
+    /**
+     * Tests that a machine with capacity zero keeps nothing.
+     */
+    @Test
+    public void testCapacityZero() {
+        SortingMachine5c<String> m = new SortingMachine5c<String>(NATURAL, 0);
+        m.add("red");
+        m.changeToExtractionMode();
+        assertEquals(0, m.size());
+        assertEquals(0, m.capacity());
+    }
+
+}
@@ -0,0 +1,139 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine5d}.
+ */
+public final class SortingMachine5dTest extends SortingMachineTest {
+
+    /**
+     * Order by length, used with {@code Integer} keys to exercise the
+     * primitive key path.
+     */
+    private static final Comparator<String> BY_LENGTH = (s1, s2) -> Integer
+            .compare(s1.length(), s2.length());
+
+    /**
+     * Returns a string of {@code n} x's.
+     *
+     * @param n
+     *            the length of the string
+     * @return the string
+     */
+    private static String repeatX(int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            sb.append('x');
+        }
+        return sb.toString();
+    }
+
+    /*
+     * The inherited test cases all use a case-insensitive order, which the
+     * lower-case form of each String agrees with.
+     */
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine5d<String, String>(order,
+                s -> s.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /**
+     * Tests removing entries in order when every key is an {@code Integer}.
+     */
+    @Test
+    public void testRemoveFirstIntegerKeys() {
+        SortingMachine<String> m = new SortingMachine5d<String, Integer>(
+                BY_LENGTH, s -> s.length());
+        String[] args = { "green", "a", "purple", "dog", "blueberry", "ab" };
+        for (String s : args) {
+            m.add(s);
+        }
+        m.changeToExtractionMode();
+        assertEquals("a", m.removeFirst());
+        assertEquals("ab", m.removeFirst());
+        assertEquals("dog", m.removeFirst());
+        assertEquals("green", m.removeFirst());
+        assertEquals("purple", m.removeFirst());
+        assertEquals("blueberry", m.removeFirst());
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Tests that the key extractor is called exactly once per entry.
+     */
+    @Test
+    public void testKeyComputedOncePerEntry() {
+        final int[] calls = { 0 };
+        SortingMachine<String> m = new SortingMachine5d<String, String>(
+                String.CASE_INSENSITIVE_ORDER, s -> {
+                    calls[0]++;
+                    return s.toLowerCase(Locale.ROOT);
+                });
+        String[] args = { "green", "Blue", "purple", "dog", "Apple", "able",
+                "adam", "aab", "aaa" };
+        for (String s : args) {
+            m.add(s);
+        }
+        m.changeToExtractionMode();
+        while (m.size() > 0) {
+            m.removeFirst();
+        }
+        assertEquals(args.length, calls[0]);
+    }
+
+    /**
+     * Tests adding entries with {@code Integer} keys past the initial length
+     * of the arrays, with a transferFrom while still inserting, then removing
+     * them in order.
+     */
+    @Test
+    public void testAddPastInitialLengthIntegerKeys() {
+        final int n = 40;
+        final int step = 17;
+        SortingMachine<String> m = new SortingMachine5d<String, Integer>(
+                BY_LENGTH, s -> s.length());
+        for (int i = 0; i < n / 2; i++) {
+            m.add(repeatX((i * step) % n + 1));
+        }
+        SortingMachine<String> target = m.newInstance();
+        target.transferFrom(m);
+        assertEquals(0, m.size());
+        for (int i = n / 2; i < n; i++) {
+            target.add(repeatX((i * step) % n + 1));
+        }
+        assertEquals(n, target.size());
+        target.changeToExtractionMode();
+        for (int i = 1; i <= n; i++) {
+            assertEquals(repeatX(i), target.removeFirst());
+        }
+    }
+
+    /**
+     * Tests that newInstance keeps the key extractor.
+     */
+    @Test
+    public void testNewInstanceIntegerKeys() {
+        SortingMachine<String> m = new SortingMachine5d<String, Integer>(
+                BY_LENGTH, s -> s.length());
+        SortingMachine<String> n = m.newInstance();
+        n.add("three");
+        n.add("to");
+        n.changeToExtractionMode();
+        assertEquals("to", n.removeFirst());
+    }
+
+}
@@ -0,0 +1,162 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * JUnit test fixture for {@code SortingMachine6}.
+ *
+ * <p>
+ * {@code SortingMachineTest} orders {@code String}s case-insensitively, which
+ * no integer key agrees with, so these test cases order {@code String}s by
+ * length instead (or by the number they spell).
+ * </p>
+ *
+ * @author K. Abukar
+ *
+ */
+public final class SortingMachine6Test {
+
+    /**
+     * Order by length.
+     */
+    private static final Comparator<String> BY_LENGTH = (s1, s2) -> Integer
+            .compare(s1.length(), s2.length());
+
+    /**
+     * Order by the (possibly negative) number a {@code String} spells.
+     */
+    private static final Comparator<String> BY_VALUE = (s1, s2) -> Long
+            .compare(Long.parseLong(s1), Long.parseLong(s2));
+
+    /**
+     * Creates a {@code SortingMachine6} ordered by length with the given
+     * entries and mode.
+     *
+     * @param insertionMode
+     *            flag indicating the machine mode
+     * @param args
+     *            the entries for the {@code SortingMachine}
+     * @return the constructed {@code SortingMachine}
+     */
+    private static SortingMachine<String> createByLength(
+            boolean insertionMode, String... args) {
+        SortingMachine<String> sm = new SortingMachine6<String>(BY_LENGTH,
+                s -> s.length());
+        for (String s : args) {
+            sm.add(s);
+        }
+        if (!insertionMode) {
+            sm.changeToExtractionMode();
+        }
+        return sm;
+    }
+
+    /**
+     * Creates a {@code SortingMachine6} ordered by value with the given
+     * entries, in extraction mode.
+     *
+     * @param args
+     *            the entries for the {@code SortingMachine}
+     * @return the constructed {@code SortingMachine}
+     */
+    private static SortingMachine<String> createByValue(String... args) {
+        SortingMachine<String> sm = new SortingMachine6<String>(BY_VALUE,
+                s -> Long.parseLong(s));
+        for (String s : args) {
+            sm.add(s);
+        }
+        sm.changeToExtractionMode();
+        return sm;
+    }
+
+    /**
+     * Tests the constructor.
+     */
+    @Test
+    public void testConstructor() {
+        SortingMachine<String> m = createByLength(true);
+        SortingMachine<String> mExpected = new SortingMachine1L<String>(
+                BY_LENGTH);
+        assertEquals(mExpected, m);
+    }
+
+    /**
+     * Tests adding in insertion mode.
+     */
+    @Test
+    public void testAddNonEmpty() {
+        SortingMachine<String> m = createByLength(true, "green", "blue");
+        SortingMachine<String> mExpected = new SortingMachine1L<String>(
+                BY_LENGTH);
+        m.add("red");
+        mExpected.add("green");
+        mExpected.add("blue");
+        mExpected.add("red");
+        assertEquals(mExpected, m);
+    }
+
+    /**
+     * Tests changing to extraction mode with no entries.
+     */
+    @Test
+    public void testChangeToExtractionModeEmpty() {
+        SortingMachine<String> m = createByLength(false);
+        assertEquals(false, m.isInInsertionMode());
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Tests removing in order with a small key range (counting sort), and
+     * that equal keys come out in the order they were added.
+     */
+    @Test
+    public void testRemoveFirstSmallRange() {
+        SortingMachine<String> m = createByLength(false, "green", "a",
+                "purple", "dog", "cat", "ab");
+        assertEquals("a", m.removeFirst());
+        assertEquals("ab", m.removeFirst());
+        assertEquals("dog", m.removeFirst());
+        assertEquals("cat", m.removeFirst());
+        assertEquals("green", m.removeFirst());
+        assertEquals("purple", m.removeFirst());
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Tests removing in order with a key range that needs radix sort,
+     * including negative keys.
+     */
+    @Test
+    public void testRemoveFirstLargeRange() {
+        SortingMachine<String> m = createByValue("9000000000000000000", "-7",
+                "123456789", "0", "-9000000000000000000", "65536", "255");
+        assertEquals("-9000000000000000000", m.removeFirst());
+        assertEquals("-7", m.removeFirst());
+        assertEquals("0", m.removeFirst());
+        assertEquals("255", m.removeFirst());
+        assertEquals("65536", m.removeFirst());
+        assertEquals("123456789", m.removeFirst());
+        assertEquals("9000000000000000000", m.removeFirst());
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Tests that newInstance keeps the order and key extractor.
+     */
+    @Test
+    public void testNewInstance() {
+        SortingMachine<String> m = createByLength(true);
+        SortingMachine<String> n = m.newInstance();
+        n.add("three");
+        n.add("to");
+        n.changeToExtractionMode();
+        assertEquals(BY_LENGTH, n.order());
+        assertEquals("to", n.removeFirst());
+    }
+
+}
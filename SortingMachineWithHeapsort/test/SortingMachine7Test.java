@@ -0,0 +1,62 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine7}.
+ */
+public final class SortingMachine7Test extends SortingMachineTest {
+
+    /**
+     * Alphabetical order.
+     */
+    private static final Comparator<String> ALPHABETICAL = String::compareTo;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine7<String>(order);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /**
+     * Tests draining a machine with only a few distinct entries, each repeated
+     * many times, in parts of different sizes, comparing it with the
+     * reference machine (contents and size) after each part.
+     */
+    @Test
+    public void testPartialDrainsManyDuplicates() {
+        final String[] keys = { "delta", "alpha", "echo", "charlie", "bravo" };
+        final int n = 150;
+        final int step = 7;
+        final int[] parts = { 1, 2, 5, 30, 1, 60 };
+        SortingMachine<String> m = this.constructorTest(ALPHABETICAL);
+        SortingMachine<String> mExpected = this.constructorRef(ALPHABETICAL);
+        for (int i = 0; i < n; i++) {
+            String x = keys[(i * step) % keys.length];
+            m.add(x);
+            mExpected.add(x);
+        }
+        m.changeToExtractionMode();
+        mExpected.changeToExtractionMode();
+        for (int part : parts) {
+            for (int k = 0; k < part; k++) {
+                assertEquals(mExpected.removeFirst(), m.removeFirst());
+            }
+            assertEquals(mExpected, m);
+        }
+        while (mExpected.size() > 0) {
+            assertEquals(mExpected.removeFirst(), m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+}
@@ -247,22 +247,24 @@ public final class TagCloudGenerator {
     public static void findTopNKeys(Map<String, Integer> initialMap,
             int numOfWords) {
         /*
-         * SortingMachine of Map.Pairs is instantiated, using an integer
-         * comparator for order.
+         * Bounded SortingMachine of Map.Pairs is instantiated, using an integer
+         * comparator for order. It only ever keeps the "numOfWords" pairs with
+         * the largest values seen so far, so this costs O(n log numOfWords)
+         * time and O(numOfWords) space instead of sorting every pair.
          */
-        SortingMachine<Map.Pair<String, Integer>> sort = new SortingMachine1L<>(
-                new IntegerLT());
+        SortingMachine<Map.Pair<String, Integer>> sort = new SortingMachine5c<>(
+                new IntegerLT(), numOfWords);
         // Add each Map.Pair to the SortingMachine.
         while (initialMap.size() > 0) {
             sort.add(initialMap.removeAny());
         }
         sort.changeToExtractionMode();
         /*
-         * For "numOfWords" times, remove the first Map.Pair (the largest
-         * value/count) and initialize termPlusDef. Then, add the key and value
-         * back to initialMap.
+         * Until the SortingMachine is empty (at most "numOfWords" times), remove
+         * the first Map.Pair (the largest value/count) and initialize
+         * termPlusDef. Then, add the key and value back to initialMap.
          */
-        for (int i = 0; i < numOfWords; i++) {
+        while (sort.size() > 0) {
             Map.Pair<String, Integer> termPlusDef = sort.removeFirst();
             initialMap.add(termPlusDef.key(), termPlusDef.value());
         }